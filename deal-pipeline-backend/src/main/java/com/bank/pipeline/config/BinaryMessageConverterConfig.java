@@ -0,0 +1,47 @@
+package com.bank.pipeline.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets clients ask for application/cbor or application/x-jackson-smile via
+ * Accept. The binary converters reuse the application ObjectMapper settings
+ * (dates, modules, inclusion) and sit directly after the JSON converter, so a
+ * request without a specific Accept header still gets JSON.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryMessageConverterConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Drop the defaults Spring registers when the dataformats are present; they use a bare mapper
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int jsonIndex = -1;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                jsonIndex = i;
+            }
+        }
+
+        List<HttpMessageConverter<?>> binary = List.of(
+                new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())),
+                new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+
+        converters.addAll(jsonIndex >= 0 ? jsonIndex + 1 : converters.size(), binary);
+    }
+}
@@ -0,0 +1,38 @@
+package com.bank.pipeline.config;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.service.SectorCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Swaps the sector name for its catalog id in every Deal document written
+ * through MongoTemplate or a repository, and back again on read, so the rest
+ * of the application only ever sees names. Raw Update and Document paths
+ * (upserts, change streams, raw BSON reads) go through SectorCatalogService
+ * themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class DealSectorCallbacks implements BeforeSaveCallback<Deal>, AfterConvertCallback<Deal> {
+
+    private final SectorCatalogService sectorCatalog;
+
+    @Override
+    public Deal onBeforeSave(Deal deal, Document document, String collection) {
+        String sectorId = sectorCatalog.idFor(deal.getSector());
+        document.put("sector", sectorId);
+        // Saved entities (and the change events built from them) carry the canonical name
+        deal.setSector(sectorCatalog.nameOf(sectorId));
+        return deal;
+    }
+
+    @Override
+    public Deal onAfterConvert(Deal deal, Document document, String collection) {
+        deal.setSector(sectorCatalog.nameOf(deal.getSector()));
+        return deal;
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.pipeline.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+@Configuration
+@ConditionalOnProperty(name = "pipeline.ingest.enabled", havingValue = "true")
+public class KafkaIngestConfig {
+
+    /*
+     * A failed bulk write leaves the poll unacknowledged. Retry it with backoff
+     * indefinitely instead of the default of skipping the batch after a few
+     * attempts, which would commit offsets for commands never written.
+     */
+    @Bean
+    public CommonErrorHandler dealIngestErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(60000);
+        return new DefaultErrorHandler(backOff);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.pipeline.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+@ConditionalOnProperty(name = "pipeline.outbox.enabled", havingValue = "true")
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic dealEventsTopic(
+            @Value("${pipeline.outbox.topic:deal-events}") String topic,
+            @Value("${pipeline.outbox.topic-partitions:6}") int partitions,
+            @Value("${pipeline.outbox.topic-replicas:1}") short replicas) {
+
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
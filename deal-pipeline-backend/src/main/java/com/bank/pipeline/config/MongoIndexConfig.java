@@ -0,0 +1,87 @@
+package com.bank.pipeline.config;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealListView;
+import com.bank.pipeline.model.DealOutboxRecord;
+import com.bank.pipeline.model.DealStageEvent;
+import com.bank.pipeline.model.PipelineSnapshot;
+import com.bank.pipeline.model.Sector;
+import com.bank.pipeline.service.DealArchiveService;
+import com.bank.pipeline.service.DealService;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+/**
+ * auto-index-creation is disabled, so annotated indexes on these documents
+ * are created explicitly once the application is up.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            Deal.class,
+            DealStageEvent.class,
+            DealChangeLogEntry.class,
+            PipelineSnapshot.class,
+            DealOutboxRecord.class,
+            DealListView.class,
+            Sector.class
+    );
+
+    // A collection holds at most one text index
+    private static final Document NOTES_TEXT_KEYS = new Document("ownerId", 1).append("notes.note", "text");
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        MongoMappingContext mappingContext =
+                (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+        }
+
+        // Case- and accent-insensitive title filters; a query only uses these with the same collation
+        mongoTemplate.indexOps(Deal.class).ensureIndex(new Index().on("title", Sort.Direction.ASC)
+                .named("deal_title_ci_idx").collation(DealService.TITLE_COLLATION));
+
+        // Note text search; the ownerId prefix keeps each search inside the caller's own deals
+        mongoTemplate.indexOps(Deal.class).ensureIndex(new CompoundIndexDefinition(NOTES_TEXT_KEYS)
+                .named("deal_owner_notes_text_idx"));
+
+        // deals_archive holds plain Deal documents, so its indexes are declared here.
+        // The unique externalKey index is not mirrored, as older archives may already hold a key twice;
+        // ingest looks keys up here so that commands for archived deals are rejected.
+        IndexOperations archiveOps = mongoTemplate.indexOps(DealArchiveService.ARCHIVE_COLLECTION);
+        archiveOps.ensureIndex(new Index().on("externalKey", Sort.Direction.ASC).sparse()
+                .named("archive_external_key_idx"));
+        archiveOps.ensureIndex(new CompoundIndexDefinition(new Document("ownerId", 1).append("updatedAt", -1))
+                .named("archive_owner_updated_idx"));
+        archiveOps.ensureIndex(new CompoundIndexDefinition(new Document("stage", 1).append("sector", 1).append("updatedAt", -1))
+                .named("archive_stage_sector_updated_idx"));
+        archiveOps.ensureIndex(new Index().on("updatedAt", Sort.Direction.DESC).named("archive_updated_idx"));
+        // Lets the Lucene search index find what was archived since its last snapshot
+        archiveOps.ensureIndex(new Index().on("archivedAt", Sort.Direction.ASC).named("archive_archived_at_idx"));
+        archiveOps.ensureIndex(new Index().on("title", Sort.Direction.ASC)
+                .named("archive_title_ci_idx").collation(DealService.TITLE_COLLATION));
+        archiveOps.ensureIndex(new CompoundIndexDefinition(NOTES_TEXT_KEYS).named("archive_owner_notes_text_idx"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.pipeline.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Multi-document transactions need a replica set, so they are only switched on
+ * together with the outbox. Without this bean Spring Boot does not enable
+ * transaction management and @Transactional service methods run as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pipeline.outbox.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.pipeline.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduled jobs run on Spring Boot's task scheduler, sized by
+ * spring.task.scheduling.pool.size. The default of one thread would leave the
+ * outbox relay, the change feed and the Lucene refresh queued behind the
+ * archiver's paced batches or a daily snapshot backfill, so the pool has a
+ * thread for every job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,130 @@
+package com.bank.pipeline.controller;
+
+import com.bank.pipeline.dto.DealScanQuery;
+import com.bank.pipeline.dto.DealScanResponse;
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.dto.StageConversionResponse;
+import com.bank.pipeline.dto.StageDwellResponse;
+import com.bank.pipeline.model.DailyPipelineSnapshot;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.service.DailyPipelineSnapshotService;
+import com.bank.pipeline.service.DealColumnarService;
+import com.bank.pipeline.service.DealStageHistoryService;
+import com.bank.pipeline.service.PipelineHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/deals/analytics")
+@RequiredArgsConstructor
+public class DealAnalyticsController {
+
+    private final DealStageHistoryService stageHistoryService;
+    private final PipelineHistoryService pipelineHistoryService;
+    private final DailyPipelineSnapshotService dailySnapshotService;
+    private final DealColumnarService columnarService;
+
+    // STAGE-TO-STAGE CONVERSION RATES
+    @GetMapping("/conversion")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<StageConversionResponse>> getConversionRates() {
+        return ResponseEntity.ok(stageHistoryService.getConversionRates());
+    }
+
+    // TIME-IN-STAGE PERCENTILES
+    @GetMapping("/time-in-stage")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<StageDwellResponse>> getTimeInStage() {
+        return ResponseEntity.ok(stageHistoryService.getTimeInStage());
+    }
+
+    // PIPELINE AS IT STOOD AT THE END OF A PAST DAY (UTC)
+    @GetMapping("/as-of")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PipelineAsOfResponse> getPipelineAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return ResponseEntity.ok(pipelineHistoryService.getPipelineAsOf(
+                date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+    }
+
+    // DAILY PIPELINE TOTALS FOR TREND CHARTS
+    @GetMapping("/daily")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DailyPipelineSnapshot>> getDailySnapshots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(dailySnapshotService.getRange(from, to));
+    }
+
+    // IN-MEMORY COUNT/SUM SCAN (COLUMNAR SNAPSHOT, LIVE + ARCHIVED)
+    @GetMapping("/scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealScanResponse> scan(
+            @RequestParam(required = false) List<String> stages,
+            @RequestParam(required = false) List<String> dealTypes,
+            @RequestParam(required = false) List<String> sectors,
+            @RequestParam(required = false) Double minValue,
+            @RequestParam(required = false) Double maxValue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedTo) {
+
+        Set<DealStage> stageSet;
+        Set<DealType> typeSet;
+        try {
+            stageSet = parseEnums(stages, DealStage.class);
+            typeSet = parseEnums(dealTypes, DealType.class);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!columnarService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(columnarService.scan(DealScanQuery.builder()
+                .stages(stageSet)
+                .dealTypes(typeSet)
+                .sectors(sectors == null ? null : new HashSet<>(sectors))
+                .minValue(minValue)
+                .maxValue(maxValue)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .updatedFrom(updatedFrom)
+                .updatedTo(updatedTo)
+                .build()));
+    }
+
+    private static <E extends Enum<E>> Set<E> parseEnums(List<String> values, Class<E> type) {
+        Set<E> parsed = EnumSet.noneOf(type);
+        if (values != null) {
+            for (String value : values) {
+                parsed.add(Enum.valueOf(type, value.trim().toUpperCase()));
+            }
+        }
+        return parsed;
+    }
+}
@@ -4,21 +4,57 @@ import com.bank.pipeline.dto.*;
 import com.bank.pipeline.mapper.DealMapper;
 import com.bank.pipeline.model.Deal;
 import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.security.JwtUtil;
+import com.bank.pipeline.service.DealArchiveService;
+import com.bank.pipeline.service.DealBulkService;
+import com.bank.pipeline.service.DealExportService;
+import com.bank.pipeline.service.DealFacetService;
+import com.bank.pipeline.service.DealFuzzySearchService;
+import com.bank.pipeline.service.DealNoteSearchService;
+import com.bank.pipeline.service.DealSearchService;
 import com.bank.pipeline.service.DealService;
+import com.bank.pipeline.service.DealStreamService;
+import com.bank.pipeline.service.DealSuggestService;
+import com.bank.pipeline.service.SectorCatalogService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 @RestController
 @RequestMapping("/api/deals")
 @RequiredArgsConstructor
 public class DealController {
 
     private final DealService dealService;
+    private final DealExportService dealExportService;
+    private final DealBulkService dealBulkService;
+    private final DealStreamService dealStreamService;
+    private final DealArchiveService dealArchiveService;
+    private final DealFacetService dealFacetService;
+    private final DealSearchService dealSearchService;
+    private final DealSuggestService dealSuggestService;
+    private final DealFuzzySearchService dealFuzzySearchService;
+    private final DealNoteSearchService dealNoteSearchService;
+    private final SectorCatalogService sectorCatalog;
+    private final JwtUtil jwtUtil;
 
     // Helper method to parse DealStage enum from String
     private DealStage parseStageEnum(String stage) {
@@ -40,6 +76,29 @@ public class DealController {
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
     }
 
+    // Role-shaped deal written straight from the model, or only the requested fields when ?fields= was given
+    private Object toResponse(Deal deal, boolean isAdmin, DealFieldSet fields) {
+        if (!fields.isAll()) {
+            return DealMapper.toFieldMap(deal, fields);
+        }
+        return new DealView(deal, isAdmin);
+    }
+
+    // Stage/sector filtered list; ?title= narrows to titles starting with it, ignoring case and accents
+    private Page<Deal> findDeals(
+            DealStage stage, String sector, String title, boolean includeArchived,
+            Pageable pageable, DealFieldSet fields) {
+
+        if (title != null && !title.isBlank()) {
+            return includeArchived
+                    ? dealArchiveService.findByTitle(title, stage, sector, pageable, fields)
+                    : dealService.getDealsByTitle(title, stage, sector, pageable, fields);
+        }
+        return includeArchived
+                ? dealArchiveService.findFiltered(stage, sector, pageable, fields)
+                : dealService.getDealsFiltered(stage, sector, pageable, fields);
+    }
+
     // CREATE DEAL
     @PostMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -56,12 +115,48 @@ public class DealController {
                 : ResponseEntity.ok(DealMapper.toUserResponse(deal));
     }
 
+    // BULK CREATE DEALS (PER-ITEM RESULTS)
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<DealBulkCreateResponse> createDeals(
+            @RequestBody List<DealCreateRequest> requests,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(
+                dealBulkService.createDeals(requests, authentication.getName()));
+    }
+
+    // BULK STAGE TRANSITION (ADMIN ONLY)
+    @PatchMapping("/bulk/stage")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealBulkUpdateResponse> updateStageBulk(
+            @RequestBody DealBulkUpdateRequest request,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(
+                dealBulkService.updateStage(request, authentication.getName()));
+    }
+
+    // BULK OWNERSHIP REASSIGNMENT (ADMIN ONLY)
+    @PatchMapping("/bulk/owner")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealBulkUpdateResponse> reassignOwnerBulk(
+            @RequestBody DealBulkUpdateRequest request,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(
+                dealBulkService.reassignOwner(request, authentication.getName()));
+    }
+
     // GET DEALS (ROLE AWARE)
     @GetMapping
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<Page<?>> getDeals(
             @RequestParam(required = false) String stage,
             @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             Pageable pageable,
             Authentication authentication) {
 
@@ -71,12 +166,11 @@ public class DealController {
         }
 
         boolean isAdmin = isAdmin(authentication);
+        DealFieldSet fieldSet = DealFieldSet.parse(fields, isAdmin);
+
+        Page<Deal> deals = findDeals(stageEnum, sector, title, includeArchived, pageable, fieldSet);
 
-        Page<?> response = isAdmin
-                ? dealService.getDealsFiltered(stageEnum, sector, pageable)
-                .map(DealMapper::toAdminResponse)
-                : dealService.getDealsFiltered(stageEnum, sector, pageable)
-                .map(DealMapper::toUserResponse);
+        Page<?> response = deals.map(deal -> toResponse(deal, isAdmin, fieldSet));
 
         return ResponseEntity.ok(response);
     }
@@ -84,13 +178,20 @@ public class DealController {
     // GET MY DEALS
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<Page<DealUserResponse>> getMyDeals(
+    public ResponseEntity<Page<?>> getMyDeals(
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             Pageable pageable,
             Authentication authentication) {
 
+        DealFieldSet fieldSet = DealFieldSet.parse(fields, false);
+
+        Page<Deal> deals = includeArchived
+                ? dealArchiveService.findByOwner(authentication.getName(), pageable, fieldSet)
+                : dealService.getDealsByOwner(authentication.getName(), pageable, fieldSet);
+
         return ResponseEntity.ok(
-                dealService.getDealsByOwner(authentication.getName(), pageable)
-                        .map(DealMapper::toUserResponse)
+                deals.map(deal -> toResponse(deal, false, fieldSet))
         );
     }
 
@@ -128,11 +229,14 @@ public class DealController {
     // ---------------- ADMIN: VIEW ALL DEALS ----------------
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<DealAdminResponse>> getAllDealsAdmin(
+    public ResponseEntity<Page<?>> getAllDealsAdmin(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String stage,
-            @RequestParam(required = false) String sector) {
+            @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
 
         DealStage stageEnum = parseStageEnum(stage);
         if (stage != null && stageEnum == null) {
@@ -140,38 +244,155 @@ public class DealController {
         }
 
         Pageable pageable = PageRequest.of(page, size);
+        DealFieldSet fieldSet = DealFieldSet.parse(fields, true);
+
+        Page<Deal> deals = findDeals(stageEnum, sector, title, includeArchived, pageable, fieldSet);
 
-        Page<DealAdminResponse> response =
-                dealService.getDealsFiltered(stageEnum, sector, pageable)
-                        .map(DealMapper::toAdminResponse);
+        Page<?> response = deals.map(deal -> toResponse(deal, true, fieldSet));
 
         return ResponseEntity.ok(response);
     }
 
+    // EXPORT DEALS (STREAMED, ROLE AWARE)
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDeals(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String stage,
+            @RequestParam(required = false) String sector,
+            Authentication authentication) {
+
+        DealStage stageEnum = parseStageEnum(stage);
+        if (stage != null && stageEnum == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        DealExportFormat exportFormat;
+        try {
+            exportFormat = DealExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean isAdmin = isAdmin(authentication);
+
+        StreamingResponseBody body = out ->
+                dealExportService.exportDeals(stageEnum, sector, exportFormat, isAdmin, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"deals." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    // LIVE DEAL CHANGES (SERVER-SENT EVENTS, ROLE AWARE)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public SseEmitter streamDeals(Authentication authentication) {
+        return dealStreamService.subscribe(authentication.getName(), isAdmin(authentication));
+    }
+
+    // TOKEN FOR OPENING THE STREAM FROM EVENTSOURCE, WHICH CANNOT SEND HEADERS (EXPIRES WITH THE SESSION)
+    @PostMapping("/stream/token")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<DealStreamTokenResponse> createStreamToken(
+            Authentication authentication,
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+
+        // Stream tokens are refused as bearer tokens, so this is always the session's own token
+        Date sessionExpiry = jwtUtil.extractExpiration(authorization.substring("Bearer ".length()));
+        return ResponseEntity.ok(new DealStreamTokenResponse(
+                jwtUtil.generateStreamToken(authentication.getName(), sessionExpiry),
+                sessionExpiry.getTime() - System.currentTimeMillis()));
+    }
+
+    // LIVE FACET COUNTS FOR THE FILTER SIDEBAR (OR WITHIN A FIELD, AND ACROSS FIELDS)
+    @GetMapping("/facets")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<DealFacetResponse> getFacetCounts(
+            @RequestParam(required = false) List<String> stage,
+            @RequestParam(required = false) List<String> sector,
+            @RequestParam(required = false) List<String> dealType,
+            @RequestParam(required = false) List<String> ownerId) {
+
+        Map<DealFacet, Set<String>> filters = new EnumMap<>(DealFacet.class);
+        try {
+            putFilter(filters, DealFacet.STAGE, stage, value -> DealStage.valueOf(value.trim().toUpperCase()).name());
+            putFilter(filters, DealFacet.DEAL_TYPE, dealType, value -> DealType.valueOf(value.trim().toUpperCase()).name());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        putFilter(filters, DealFacet.SECTOR, sector, sectorCatalog::canonicalName);
+        putFilter(filters, DealFacet.OWNER, ownerId, value -> value);
+
+        if (!dealFacetService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(dealFacetService.count(filters));
+    }
+
+    // Stage and deal type are normalised to enum names (invalid ones throw); owner is taken as given
+    private static void putFilter(
+            Map<DealFacet, Set<String>> filters, DealFacet facet, List<String> values, UnaryOperator<String> key) {
+
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            keys.add(key.apply(value));
+        }
+        filters.put(facet, keys);
+    }
+
+    // SEARCH BOX TYPEAHEAD (TITLES AND SECTORS, FROM MEMORY)
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<DealSuggestResponse> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+
+        if (!dealSuggestService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(dealSuggestService.suggest(
+                prefix, authentication.getName(), isAdmin(authentication), limit));
+    }
+
     // GET SINGLE DEAL BY ID
     @GetMapping("/{dealId}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<?> getDealById(
             @PathVariable String dealId,
+            @RequestParam(required = false) String fields,
             Authentication authentication) {
 
         String username = authentication.getName();
-        Deal deal = dealService.getDealById(dealId, username);
-
         boolean isAdmin = isAdmin(authentication);
+        DealFieldSet fieldSet = DealFieldSet.parse(fields, isAdmin);
 
-        return isAdmin
-                ? ResponseEntity.ok(DealMapper.toAdminResponse(deal))
-                : ResponseEntity.ok(DealMapper.toUserResponse(deal));
+        Deal deal = dealService.getDealById(dealId, username, fieldSet);
+
+        return ResponseEntity.ok(toResponse(deal, isAdmin, fieldSet));
     }
 
-    // SEARCH DEALS BY TEXT
+    // SEARCH DEALS BY TEXT (RELEVANCE-RANKED BY THE LUCENE INDEX WHEN ENABLED AND NO SORT IS GIVEN);
+    // ?facets=true ALSO RETURNS STAGE/SECTOR/TYPE COUNTS OF ALL MATCHES,
+    // ?fuzzy=true MATCHES TITLES DESPITE TYPOS (WORKING DEALS ONLY, BEST MATCH FIRST)
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<Page<?>> searchDeals(
+    public ResponseEntity<?> searchDeals(
             @RequestParam String query,
             @RequestParam(required = false) String stage,
             @RequestParam(required = false) String sector,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
             Pageable pageable,
             Authentication authentication) {
 
@@ -181,16 +402,50 @@ public class DealController {
         }
 
         boolean isAdmin = isAdmin(authentication);
+        DealFieldSet fieldSet = DealFieldSet.parse(fields, isAdmin);
+
+        if (fuzzy) {
+            if (includeArchived || facets) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (!dealFuzzySearchService.isReady()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return ResponseEntity.ok(dealFuzzySearchService.search(query, stageEnum, sector, pageable, fieldSet)
+                    .map(deal -> toResponse(deal, isAdmin, fieldSet)));
+        }
+
+        if (facets) {
+            DealSearchResponse<Deal> result = dealSearchService.searchWithFacets(
+                    query, stageEnum, sector, includeArchived, pageable, fieldSet);
+            return ResponseEntity.ok(DealSearchResponse.builder()
+                    .hits(result.getHits().map(deal -> toResponse(deal, isAdmin, fieldSet)))
+                    .facets(result.getFacets())
+                    .build());
+        }
+
+        Page<Deal> deals = includeArchived
+                ? dealArchiveService.search(query, stageEnum, sector, pageable, fieldSet)
+                : dealService.searchDeals(query, stageEnum, sector, pageable, fieldSet);
 
-        Page<?> response = isAdmin
-                ? dealService.searchDeals(query, stageEnum, sector, pageable)
-                .map(DealMapper::toAdminResponse)
-                : dealService.searchDeals(query, stageEnum, sector, pageable)
-                .map(DealMapper::toUserResponse);
+        Page<?> response = deals.map(deal -> toResponse(deal, isAdmin, fieldSet));
 
         return ResponseEntity.ok(response);
     }
 
+    // SEARCH NOTE TEXT; ONLY THE CALLER'S OWN DEALS, AS FOR GET BY ID. BEST MATCH FIRST, WITH NOTE SNIPPETS
+    @GetMapping("/search/notes")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<DealNoteSearchHit>> searchNotes(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(dealNoteSearchService.search(
+                query, authentication.getName(), includeArchived, limit));
+    }
+
     @PostMapping("/{dealId}/notes")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<?> addNote(
@@ -0,0 +1,43 @@
+package com.bank.pipeline.controller;
+
+import com.bank.pipeline.dto.DealImportJobResponse;
+import com.bank.pipeline.service.DealImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/deals/import")
+@RequiredArgsConstructor
+public class DealImportController {
+
+    private final DealImportService dealImportService;
+
+    // START CSV IMPORT (ADMIN ONLY, RUNS IN THE BACKGROUND)
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealImportJobResponse> startImport(
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(dealImportService.startImport(file, authentication.getName()));
+    }
+
+    // IMPORT JOB STATUS
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DealImportJobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(dealImportService.getJob(jobId));
+    }
+}
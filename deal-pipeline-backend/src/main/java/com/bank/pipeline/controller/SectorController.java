@@ -0,0 +1,41 @@
+package com.bank.pipeline.controller;
+
+import com.bank.pipeline.dto.SectorAliasRequest;
+import com.bank.pipeline.model.Sector;
+import com.bank.pipeline.service.SectorCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sectors")
+@RequiredArgsConstructor
+public class SectorController {
+
+    private final SectorCatalogService sectorCatalog;
+
+    // SECTOR CATALOG (NAMES AND ALIASES)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<List<Sector>> getSectors() {
+        return ResponseEntity.ok(sectorCatalog.getSectors());
+    }
+
+    // ADD ALIAS (ADMIN ONLY); AN ALIAS OWNED BY ANOTHER SECTOR MERGES IT INTO THIS ONE
+    @PostMapping("/{sectorId}/aliases")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Sector> addAlias(
+            @PathVariable String sectorId,
+            @RequestBody SectorAliasRequest request) {
+
+        return ResponseEntity.ok(sectorCatalog.addAlias(sectorId, request.getAlias()));
+    }
+}
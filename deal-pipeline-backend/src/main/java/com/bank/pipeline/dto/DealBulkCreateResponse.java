@@ -0,0 +1,16 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DealBulkCreateResponse {
+
+    private int total;
+    private int created;
+    private int failed;
+    private List<DealBulkItemResult> results;
+}
@@ -0,0 +1,14 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DealBulkItemResult {
+
+    private int index;          // position in the request
+    private String dealId;      // set when created
+    private boolean success;
+    private String error;       // set when rejected or failed
+}
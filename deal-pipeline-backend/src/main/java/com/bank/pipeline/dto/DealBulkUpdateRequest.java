@@ -0,0 +1,22 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class DealBulkUpdateRequest {
+
+    // Target deals: explicit ids and/or a filter (at least one is required)
+    private List<String> dealIds;
+    private DealStage stage;
+    private String sector;
+    private String ownerId;
+
+    // Change to apply
+    private DealStage targetStage;   // stage transition
+    private String newOwnerId;       // ownership reassignment
+}
@@ -0,0 +1,12 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DealBulkUpdateResponse {
+
+    private long matched;
+    private long modified;
+}
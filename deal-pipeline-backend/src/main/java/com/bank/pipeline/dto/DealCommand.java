@@ -0,0 +1,27 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Create-or-update command from an origination system. Carries the full deal
+ * state and is keyed by externalKey; producers must use externalKey as the
+ * Kafka record key so commands for one deal stay on one partition.
+ */
+@Getter
+@Setter
+public class DealCommand {
+
+    private String externalKey;
+    private String title;
+    private String sector;
+    private DealType dealType;
+    private DealStage stage;        // LEAD when a new deal has none
+    private Double dealValue;
+    private String ownerId;
+    private Instant occurredAt;     // source timestamp; older commands are ignored
+}
@@ -0,0 +1,23 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.model.DealStage;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/** Message body on the deal-events topic. Delivery is at-least-once; dedupe on eventId. */
+@Getter
+@Builder
+public class DealEventMessage {
+
+    private String eventId;
+    private DealChangeType type;
+    private String dealId;
+    private String actorId;
+    private Instant occurredAt;
+
+    private DealStage previousStage;
+    private DealAdminResponse deal;     // state after the change; last known state for DELETED
+}
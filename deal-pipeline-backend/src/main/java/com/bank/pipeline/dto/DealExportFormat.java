@@ -0,0 +1,25 @@
+package com.bank.pipeline.dto;
+
+public enum DealExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    // Concatenated binary records, one per deal (RFC 8742 sequence for CBOR)
+    CBOR("application/cbor-seq", "cbor"),
+    SMILE("application/x-jackson-smile", "smile");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    DealExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
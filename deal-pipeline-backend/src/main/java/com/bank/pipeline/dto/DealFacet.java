@@ -0,0 +1,20 @@
+package com.bank.pipeline.dto;
+
+/** Deal fields the filter sidebar can count and filter on. */
+public enum DealFacet {
+    STAGE("stage"),
+    SECTOR("sector"),
+    DEAL_TYPE("dealType"),
+    OWNER("ownerId");
+
+    private final String field;
+
+    DealFacet(String field) {
+        this.field = field;
+    }
+
+    /** Deal field name, also the key in DealFacetResponse. */
+    public String getField() {
+        return field;
+    }
+}
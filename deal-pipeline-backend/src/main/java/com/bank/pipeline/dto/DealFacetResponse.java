@@ -0,0 +1,17 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class DealFacetResponse {
+
+    // Deals matching every filter
+    private long total;
+
+    // Per field, the count for each value with the other fields' filters applied
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,72 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.exception.InvalidRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Response fields requested with ?fields=, checked against what the caller's
+ * role may see. Field names are the response names, which match the Deal
+ * document fields. ALL means the regular full response.
+ */
+public final class DealFieldSet {
+
+    public static final DealFieldSet ALL = new DealFieldSet(Collections.emptySet(), true);
+
+    // Same order as DealUserResponse / DealAdminResponse
+    private static final List<String> USER_FIELDS = List.of(
+            "id", "title", "sector", "dealType", "stage", "notes", "ownerId", "createdAt", "updatedAt");
+    private static final List<String> ADMIN_FIELDS = List.of(
+            "id", "title", "sector", "dealType", "stage", "dealValue", "notes", "ownerId", "createdAt", "updatedAt");
+
+    private final Set<String> fields;
+    private final boolean all;
+
+    private DealFieldSet(Set<String> fields, boolean all) {
+        this.fields = fields;
+        this.all = all;
+    }
+
+    public static DealFieldSet parse(String fields, boolean admin) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        List<String> allowed = admin ? ADMIN_FIELDS : USER_FIELDS;
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new InvalidRequestException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+
+        // id is always returned so clients can key rows; output follows the response order
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String name : allowed) {
+            if (name.equals("id") || requested.contains(name)) {
+                ordered.add(name);
+            }
+        }
+        return new DealFieldSet(Collections.unmodifiableSet(ordered), false);
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean includes(String field) {
+        return all || fields.contains(field);
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+}
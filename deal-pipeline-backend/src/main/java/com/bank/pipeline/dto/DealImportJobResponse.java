@@ -0,0 +1,33 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealImportRowError;
+import com.bank.pipeline.model.DealImportStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Builder
+public class DealImportJobResponse {
+
+    private String jobId;
+    private String fileName;
+    private DealImportStatus status;
+
+    private long totalBytes;
+    private long bytesRead;
+    private long rowsRead;
+    private long rowsImported;
+    private long errorRows;
+
+    private double rowsPerSecond;
+    private Long etaSeconds;        // null until there is enough progress to estimate
+
+    private List<DealImportRowError> errors;
+    private String failureMessage;
+
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,18 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DealIngestResult {
+
+    private int received;
+    private int created;
+    private int updated;
+    private int duplicates;     // superseded by a later command for the same key in the batch
+    private int stale;          // older than what is already stored
+    private int archived;       // the deal has been archived and is closed to updates
+    private int invalid;
+    private int failed;         // rejected by Mongo
+}
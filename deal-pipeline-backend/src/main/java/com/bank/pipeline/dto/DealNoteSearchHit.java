@@ -0,0 +1,23 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DealNoteSearchHit {
+
+    private String dealId;
+    private String title;
+    private String sector;
+    private DealStage stage;
+    private boolean archived;
+
+    // Mongo text score; higher is more relevant
+    private double score;
+
+    private List<DealNoteSnippet> notes;
+}
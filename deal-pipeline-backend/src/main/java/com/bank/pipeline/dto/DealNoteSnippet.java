@@ -0,0 +1,18 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class DealNoteSnippet {
+
+    private String noteId;
+    private String userId;
+    private Instant createdAt;
+
+    // The note text around the first matching word, with an ellipsis where it was cut
+    private String snippet;
+}
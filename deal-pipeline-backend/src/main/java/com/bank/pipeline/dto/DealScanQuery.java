@@ -0,0 +1,25 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Set;
+
+/** Filters for an in-memory analytics scan; null or empty means no filter. */
+@Getter
+@Builder
+public class DealScanQuery {
+
+    private Set<DealStage> stages;
+    private Set<DealType> dealTypes;
+    private Set<String> sectors;
+    private Double minValue;
+    private Double maxValue;
+    private Instant createdFrom;
+    private Instant createdTo;
+    private Instant updatedFrom;
+    private Instant updatedTo;
+}
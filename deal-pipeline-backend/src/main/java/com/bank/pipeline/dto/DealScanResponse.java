@@ -0,0 +1,19 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class DealScanResponse {
+
+    private long matchedDeals;
+    private double totalValue;
+
+    // How much the scan covered and how long it took
+    private int scannedRows;
+    private long tookMicros;
+    private Instant snapshotLoadedAt;
+}
@@ -0,0 +1,17 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+@Getter
+@Builder
+public class DealSearchResponse<T> {
+
+    private Page<T> hits;
+
+    // Per field (stage, sector, dealType), the count for each value across all matching deals
+    private Map<String, Map<String, Long>> facets;
+}
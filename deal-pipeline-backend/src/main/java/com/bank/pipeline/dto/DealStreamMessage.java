@@ -0,0 +1,19 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/** Data of one SSE event on /api/deals/stream. */
+@Getter
+@Builder
+public class DealStreamMessage {
+
+    public static final String REVOKED = "REVOKED";
+
+    private String type;        // DealChangeType name, or REVOKED when the deal left the caller's view
+    private String dealId;
+    private Instant occurredAt;
+    private Object deal;        // DealUserResponse or DealAdminResponse; null for DELETED and REVOKED
+}
@@ -0,0 +1,12 @@
+package com.bank.pipeline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Token for opening /api/deals/stream with EventSource, passed as ?token=. */
+@Getter
+@AllArgsConstructor
+public class DealStreamTokenResponse {
+    private String token;
+    private long expiresInMs;   // when the session ends; EventSource reconnects with the same token until then
+}
@@ -0,0 +1,14 @@
+package com.bank.pipeline.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class DealSuggestResponse {
+
+    private List<String> titles;
+    private List<String> sectors;
+}
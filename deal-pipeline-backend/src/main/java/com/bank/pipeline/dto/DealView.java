@@ -0,0 +1,31 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.mapper.DealJsonWriter;
+import com.bank.pipeline.model.Deal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Response body for a deal in the caller's role shape. Serializes the Deal
+ * directly via DealJsonWriter, so read paths skip building a
+ * DealUserResponse / DealAdminResponse per row. The JSON is identical.
+ */
+@JsonSerialize(using = DealView.Serializer.class)
+public record DealView(Deal deal, boolean admin) {
+
+    public static class Serializer extends StdSerializer<DealView> {
+
+        public Serializer() {
+            super(DealView.class);
+        }
+
+        @Override
+        public void serialize(DealView value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            DealJsonWriter.write(value.deal(), value.admin(), gen, provider);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.PipelineBucket;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Builder
+public class PipelineAsOfResponse {
+
+    private Instant asOf;
+
+    // Snapshot the answer was rebuilt from, and how many changes were replayed on top
+    private Instant snapshotAsOf;
+    private long replayedChanges;
+
+    private long totalDeals;
+    private double totalValue;
+    private double weightedValue;
+
+    private Map<String, PipelineBucket> byStage;
+    private Map<String, PipelineBucket> bySector;
+}
@@ -0,0 +1,10 @@
+package com.bank.pipeline.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SectorAliasRequest {
+    private String alias;
+}
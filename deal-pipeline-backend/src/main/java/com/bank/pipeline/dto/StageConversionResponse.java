@@ -0,0 +1,24 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class StageConversionResponse {
+
+    private DealStage fromStage;
+    private DealStage toStage;
+
+    // Deals that entered fromStage
+    private long deals;
+
+    // Moved straight from fromStage to toStage
+    private long directTransitions;
+    private double directRate;
+
+    // Reached toStage at any point after fromStage
+    private long reached;
+    private double reachRate;
+}
@@ -0,0 +1,20 @@
+package com.bank.pipeline.dto;
+
+import com.bank.pipeline.model.DealStage;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class StageDwellResponse {
+
+    private DealStage stage;
+    private long samples;
+
+    // Time spent in stage before moving on (hours)
+    private double meanHours;
+    private double medianHours;
+    private double p75Hours;
+    private double p90Hours;
+    private double p95Hours;
+}
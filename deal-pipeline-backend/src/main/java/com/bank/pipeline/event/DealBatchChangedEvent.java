@@ -0,0 +1,17 @@
+package com.bank.pipeline.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published instead of one DealChangedEvent per deal by bulk operations,
+ * so listeners can apply the whole batch with bulk writes.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DealBatchChangedEvent {
+
+    private final List<DealChangedEvent> changes;
+}
@@ -0,0 +1,10 @@
+package com.bank.pipeline.event;
+
+public enum DealChangeType {
+    CREATED,
+    UPDATED,
+    VALUE_UPDATED,
+    DELETED,
+    NOTE_ADDED,
+    NOTE_DELETED
+}
@@ -0,0 +1,39 @@
+package com.bank.pipeline.event;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Published by DealServiceImpl after every successful deal write.
+ * before is null for CREATED, after is null for DELETED.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DealChangedEvent {
+
+    private final DealChangeType type;
+    private final Deal before;
+    private final Deal after;
+    private final String actorId;
+    private final Instant occurredAt;
+
+    public String getDealId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public DealStage getPreviousStage() {
+        return before != null ? before.getStage() : null;
+    }
+
+    public DealStage getCurrentStage() {
+        return after != null ? after.getStage() : null;
+    }
+
+    public boolean isStageChanged() {
+        return after != null && getPreviousStage() != getCurrentStage();
+    }
+}
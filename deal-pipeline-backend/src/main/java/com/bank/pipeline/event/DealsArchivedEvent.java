@@ -0,0 +1,18 @@
+package com.bank.pipeline.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published by the archiver after a batch has left deals for deals_archive.
+ * The deals themselves are unchanged, so this is not a DealChangedEvent;
+ * it is for in-memory views that only cover the working collection.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DealsArchivedEvent {
+
+    private final List<String> dealIds;
+}
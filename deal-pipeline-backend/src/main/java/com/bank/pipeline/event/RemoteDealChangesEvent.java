@@ -0,0 +1,22 @@
+package com.bank.pipeline.event;
+
+import com.bank.pipeline.model.Deal;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published by DealChangeFeed for deal writes and archiving done by other
+ * replicas, which this one never saw as DealChangedEvents. Each change
+ * carries the deal as it is now in Mongo (after is null once it is gone
+ * from the deals collection) and its position before the first replayed
+ * change. Not published inside a transaction, and not logged again.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RemoteDealChangesEvent {
+
+    private final List<DealChangedEvent> changes;
+    private final List<Deal> archivedDeals;
+}
@@ -95,6 +95,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // ---------- 400 (Bad Request) ----------
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiErrorResponse> handleBadRequest(
+            InvalidRequestException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                HttpStatus.BAD_REQUEST,
+                "Bad Request",
+                ex.getMessage(),
+                request
+        );
+    }
+
     // ---------- FALLBACK ----------
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleGeneric(
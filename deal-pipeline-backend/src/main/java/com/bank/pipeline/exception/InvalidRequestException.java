@@ -0,0 +1,16 @@
+package com.bank.pipeline.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A request the client has to change before it can succeed. Only this maps to
+ * 400; any other IllegalArgumentException is a server bug and stays a 500.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,132 @@
+package com.bank.pipeline.mapper;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.LazyDealNotes;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonType;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes a Deal straight to a JsonGenerator in the USER or ADMIN shape,
+ * producing the same output as DealUserResponse / DealAdminResponse without
+ * building them. Instants go through the provider so the configured date
+ * format still applies. Notes that were read lazily and never touched are
+ * copied from the raw BSON without being decoded into DealNote objects.
+ */
+public final class DealJsonWriter {
+
+    private DealJsonWriter() {
+        // utility class - prevent instantiation
+    }
+
+    public static void write(Deal deal, boolean admin, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+
+        gen.writeStartObject();
+        gen.writeStringField("id", deal.getId());
+        gen.writeStringField("title", deal.getTitle());
+        gen.writeStringField("sector", deal.getSector());
+        writeEnum(gen, "dealType", deal.getDealType());
+        writeEnum(gen, "stage", deal.getStage());
+        if (admin) {
+            // Sensitive: never written for the USER shape
+            gen.writeFieldName("dealValue");
+            if (deal.getDealValue() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(deal.getDealValue());
+            }
+        }
+        writeNotes(gen, deal.getNotes(), provider);
+        gen.writeStringField("ownerId", deal.getOwnerId());
+        writeInstant(gen, "createdAt", deal.getCreatedAt(), provider);
+        writeInstant(gen, "updatedAt", deal.getUpdatedAt(), provider);
+        gen.writeEndObject();
+    }
+
+    private static void writeNotes(JsonGenerator gen, List<DealNote> notes, SerializerProvider provider)
+            throws IOException {
+
+        gen.writeFieldName("notes");
+        if (notes instanceof LazyDealNotes lazy && !lazy.isDecoded()) {
+            writeRawNotes(gen, lazy, provider);
+            return;
+        }
+        if (notes == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (DealNote note : notes) {
+            gen.writeStartObject();
+            gen.writeStringField("noteId", note.getNoteId());
+            gen.writeStringField("userId", note.getUserId());
+            gen.writeStringField("note", note.getNote());
+            writeInstant(gen, "createdAt", note.getCreatedAt(), provider);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeRawNotes(JsonGenerator gen, LazyDealNotes notes, SerializerProvider provider)
+            throws IOException {
+
+        try (BsonBinaryReader reader = new BsonBinaryReader(notes.getSource().getByteBuffer().asNIO())) {
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                if (!reader.readName().equals("notes")) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.readStartArray();
+                gen.writeStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    reader.readStartDocument();
+                    gen.writeStartObject();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        String field = reader.readName();
+                        switch (reader.getCurrentBsonType()) {
+                            case STRING -> gen.writeStringField(field, reader.readString());
+                            case DATE_TIME -> writeInstant(gen, field,
+                                    Instant.ofEpochMilli(reader.readDateTime()), provider);
+                            case NULL -> {
+                                reader.readNull();
+                                gen.writeNullField(field);
+                            }
+                            // Anything else (e.g. a type hint) is not part of the response
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.readEndDocument();
+                    gen.writeEndObject();
+                }
+                reader.readEndArray();
+                gen.writeEndArray();
+                return;
+            }
+        }
+        gen.writeNull();
+    }
+
+    private static void writeEnum(JsonGenerator gen, String field, Enum<?> value) throws IOException {
+        gen.writeStringField(field, value == null ? null : value.name());
+    }
+
+    private static void writeInstant(JsonGenerator gen, String field, Instant value, SerializerProvider provider)
+            throws IOException {
+
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+}
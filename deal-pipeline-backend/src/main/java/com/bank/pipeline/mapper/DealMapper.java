@@ -1,8 +1,24 @@
 package com.bank.pipeline.mapper;
 
 import com.bank.pipeline.dto.DealAdminResponse;
+import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.dto.DealFieldSet;
 import com.bank.pipeline.dto.DealUserResponse;
 import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealListView;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.model.LazyDealNotes;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public final class DealMapper {
 
@@ -10,6 +26,28 @@ public final class DealMapper {
         // utility class - prevent instantiation
     }
 
+    // -------- NEW DEAL --------
+    // Stage defaults to LEAD; only admins may set dealValue at creation
+    public static Deal fromCreateRequest(
+            DealCreateRequest request,
+            String userId,
+            boolean isAdmin,
+            Instant now) {
+
+        return Deal.builder()
+                .title(request.getTitle())
+                .sector(request.getSector())
+                .dealType(request.getDealType())
+                .notes(new ArrayList<>())
+                .stage(DealStage.LEAD)
+                .stageEnteredAt(now)
+                .dealValue(isAdmin ? request.getDealValue() : null)
+                .ownerId(userId)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
     // -------- USER VIEW --------
     public static DealUserResponse toUserResponse(Deal deal) {
         return DealUserResponse.builder()
@@ -40,4 +78,125 @@ public final class DealMapper {
                 .updatedAt(deal.getUpdatedAt())
                 .build();
     }
+
+    // -------- SPARSE FIELDSET --------
+    // Only the requested fields are put in the body; the set was already checked against the role
+    public static Map<String, Object> toFieldMap(Deal deal, DealFieldSet fields) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        for (String field : fields.getFields()) {
+            switch (field) {
+                case "id" -> body.put(field, deal.getId());
+                case "title" -> body.put(field, deal.getTitle());
+                case "sector" -> body.put(field, deal.getSector());
+                case "dealType" -> body.put(field, deal.getDealType());
+                case "stage" -> body.put(field, deal.getStage());
+                case "dealValue" -> body.put(field, deal.getDealValue());
+                case "notes" -> body.put(field, deal.getNotes());
+                case "ownerId" -> body.put(field, deal.getOwnerId());
+                case "createdAt" -> body.put(field, deal.getCreatedAt());
+                case "updatedAt" -> body.put(field, deal.getUpdatedAt());
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return body;
+    }
+
+    // -------- RAW BSON (LAZY NOTES) --------
+    // Mirrors how Spring Data stores Deal; keep in step with the model's fields
+    public static Deal fromRawBson(RawBsonDocument document) {
+        BsonValue id = document.get("_id");
+        BsonValue notes = document.get("notes");
+
+        return Deal.builder()
+                .id(id == null ? null : id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue())
+                .title(bsonString(document, "title"))
+                .sector(bsonString(document, "sector"))
+                .dealType(bsonEnum(document, "dealType", DealType.class))
+                .stage(bsonEnum(document, "stage", DealStage.class))
+                .stageEnteredAt(bsonInstant(document, "stageEnteredAt"))
+                .dealValue(bsonDouble(document, "dealValue"))
+                .notes(notes != null && notes.isArray() ? new LazyDealNotes(document) : null)
+                .ownerId(bsonString(document, "ownerId"))
+                .externalKey(bsonString(document, "externalKey"))
+                .externalUpdatedAt(bsonInstant(document, "externalUpdatedAt"))
+                .createdAt(bsonInstant(document, "createdAt"))
+                .updatedAt(bsonInstant(document, "updatedAt"))
+                .build();
+    }
+
+    private static String bsonString(RawBsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    private static Instant bsonInstant(RawBsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isDateTime() ? Instant.ofEpochMilli(value.asDateTime().getValue()) : null;
+    }
+
+    private static Double bsonDouble(RawBsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isNumber() ? value.asNumber().doubleValue() : null;
+    }
+
+    private static <E extends Enum<E>> E bsonEnum(RawBsonDocument document, String field, Class<E> type) {
+        String value = bsonString(document, field);
+        return value == null ? null : Enum.valueOf(type, value);
+    }
+
+    // -------- LIST READ MODEL --------
+    private static final int NOTE_PREVIEW_LENGTH = 120;
+
+    public static DealListView toListView(Deal deal, Instant projectedAt) {
+        List<DealNote> notes = deal.getNotes() != null ? deal.getNotes() : List.of();
+        DealNote lastNote = notes.isEmpty() ? null : notes.get(notes.size() - 1);
+
+        return DealListView.builder()
+                .id(deal.getId())
+                .title(deal.getTitle())
+                .sector(deal.getSector())
+                .dealType(deal.getDealType())
+                .stage(deal.getStage())
+                .dealValue(deal.getDealValue())
+                .ownerId(deal.getOwnerId())
+                .noteCount(notes.size())
+                .lastNote(lastNote)
+                .lastNotePreview(lastNote == null ? null : preview(lastNote.getNote()))
+                .titleSortKey(sortKey(deal.getTitle()))
+                .sectorSortKey(sortKey(deal.getSector()))
+                .stageOrder(deal.getStage() == null ? -1 : deal.getStage().ordinal())
+                .createdAt(deal.getCreatedAt())
+                .updatedAt(deal.getUpdatedAt())
+                .projectedAt(projectedAt)
+                .build();
+    }
+
+    // List reads carry only the latest note; the full thread comes from GET /api/deals/{id}
+    public static Deal fromListView(DealListView view) {
+        return Deal.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .sector(view.getSector())
+                .dealType(view.getDealType())
+                .stage(view.getStage())
+                .dealValue(view.getDealValue())
+                .ownerId(view.getOwnerId())
+                .notes(view.getLastNote() == null
+                        ? new ArrayList<>()
+                        : new ArrayList<>(List.of(view.getLastNote())))
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
+    public static String sortKey(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String preview(String note) {
+        if (note == null || note.length() <= NOTE_PREVIEW_LENGTH) {
+            return note;
+        }
+        return note.substring(0, NOTE_PREVIEW_LENGTH - 1) + "…";
+    }
 }
@@ -0,0 +1,89 @@
+package com.bank.pipeline.messaging;
+
+import com.bank.pipeline.dto.DealCommand;
+import com.bank.pipeline.dto.DealIngestResult;
+import com.bank.pipeline.service.DealIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch listener for deal commands from origination systems. Each poll is
+ * applied with one bulk write and acknowledged only afterwards; if the write
+ * throws, nothing is committed and the error handler redelivers the poll.
+ * Consumer lag and fetch rates come from the Kafka client metrics that
+ * Spring Boot binds to Micrometer (kafka.consumer.fetch.manager.*).
+ */
+@Component
+@ConditionalOnProperty(name = "pipeline.ingest.enabled", havingValue = "true")
+public class DealCommandListener {
+
+    private final DealIngestService ingestService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+
+    public DealCommandListener(
+            DealIngestService ingestService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+
+        this.ingestService = ingestService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = Timer.builder("deal.ingest.batch")
+                .description("Time to apply one poll of deal commands")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = "deal-command-ingest",
+            topics = "${pipeline.ingest.topic:deal-commands}",
+            concurrency = "${pipeline.ingest.concurrency:3}",
+            batch = "true")
+    public void onCommands(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+
+        List<DealCommand> commands = new ArrayList<>(records.size());
+        int unreadable = 0;
+
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                commands.add(objectMapper.readValue(record.value(), DealCommand.class));
+            } catch (IOException | IllegalArgumentException e) {
+                // A malformed record can never succeed; skip it rather than block the partition
+                unreadable++;
+            }
+        }
+
+        DealIngestResult result = batchTimer.record(() -> ingestService.applyCommands(commands));
+        acknowledgment.acknowledge();
+
+        count("created", result.getCreated());
+        count("updated", result.getUpdated());
+        count("duplicate", result.getDuplicates());
+        count("stale", result.getStale());
+        count("archived", result.getArchived());
+        count("invalid", result.getInvalid() + unreadable);
+        count("failed", result.getFailed());
+    }
+
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            Counter.builder("deal.ingest.records")
+                    .description("Deal commands consumed, by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment(amount);
+        }
+    }
+}
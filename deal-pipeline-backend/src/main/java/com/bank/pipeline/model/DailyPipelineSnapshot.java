@@ -0,0 +1,33 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/** Pipeline totals at the end of one UTC day, one document per day. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pipeline_daily_snapshots")
+public class DailyPipelineSnapshot {
+
+    @Id
+    private String id;          // ISO date, e.g. 2026-03-31
+
+    private Instant asOf;
+
+    private long totalDeals;
+    private double totalValue;
+    private double weightedValue;
+
+    private Map<String, PipelineBucket> byStage;
+    private List<PipelineSectorBucket> bySector;
+}
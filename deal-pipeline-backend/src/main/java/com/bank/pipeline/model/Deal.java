@@ -3,13 +3,14 @@ package com.bank.pipeline.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "deals")
@@ -25,6 +26,7 @@ public class Deal{
 
     // Pipeline
     private DealStage stage;
+    private Instant stageEnteredAt; // When the deal moved into its current stage
 
     // Sensitive (ADMIN only)
     private Double dealValue;
@@ -36,6 +38,11 @@ public class Deal{
     // Ownership
     private String ownerId;        // User who created/owns deal
 
+    // Origination system reference (Kafka ingest); absent for deals created here
+    @Indexed(name = "deal_external_key_idx", unique = true, sparse = true)
+    private String externalKey;
+    private Instant externalUpdatedAt; // source timestamp of the last applied command
+
     // Audit
     private Instant createdAt;
     private Instant updatedAt;
@@ -0,0 +1,39 @@
+package com.bank.pipeline.model;
+
+import com.bank.pipeline.event.DealChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Append-only record of a deal mutation. Both sides of the change are kept
+ * so totals can be replayed forwards or backwards from any snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deal_change_log")
+public class DealChangeLogEntry {
+
+    @Id
+    private String id;
+
+    private String dealId;
+    private DealChangeType type;
+
+    private DealPosition before;   // null on CREATED
+    private DealPosition after;    // null on DELETED
+
+    private String changedBy;
+    private String origin;         // replica that made the change; see DealChangeFeed
+
+    @Indexed
+    private Instant occurredAt;
+}
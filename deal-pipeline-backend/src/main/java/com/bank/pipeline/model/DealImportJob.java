@@ -0,0 +1,44 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Progress of one CSV import; counters are flushed after every batch while the job runs. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deal_import_jobs")
+public class DealImportJob {
+
+    @Id
+    private String id;
+
+    private String fileName;
+    private String createdBy;
+    private DealImportStatus status;
+
+    private long totalBytes;
+    private long bytesRead;
+    private long rowsRead;
+    private long rowsImported;
+    private long errorRows;
+
+    // Only the first few failures are kept; errorRows has the full count
+    private List<DealImportRowError> errors;
+    private String failureMessage;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    // Refreshed by the instance running the job; the progress and the spooled file only live there
+    private Instant heartbeatAt;
+}
@@ -0,0 +1,14 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealImportRowError {
+
+    private long row;           // 1-based data row, header excluded
+    private String message;
+}
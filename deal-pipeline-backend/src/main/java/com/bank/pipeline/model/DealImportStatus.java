@@ -0,0 +1,8 @@
+package com.bank.pipeline.model;
+
+public enum DealImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,55 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * List-shaped projection of a deal, maintained by DealListViewProjector from
+ * the deals change stream. Notes are reduced to a count and the latest note,
+ * and sort keys are precomputed so list queries filter and sort on one index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deal_list_view")
+@CompoundIndexes({
+        @CompoundIndex(name = "list_owner_idx", def = "{'ownerId': 1, 'updatedAt': -1}"),
+        @CompoundIndex(name = "list_stage_sector_idx", def = "{'stage': 1, 'sector': 1, 'updatedAt': -1}"),
+        @CompoundIndex(name = "list_stage_idx", def = "{'stage': 1, 'updatedAt': -1}"),
+        @CompoundIndex(name = "list_sector_idx", def = "{'sector': 1, 'updatedAt': -1}"),
+        @CompoundIndex(name = "list_updated_idx", def = "{'updatedAt': -1}")
+})
+public class DealListView {
+
+    @Id
+    private String id;              // same as the deal id
+
+    private String title;
+    private String sector;
+    private DealType dealType;
+    private DealStage stage;
+    private Double dealValue;
+    private String ownerId;
+
+    private int noteCount;
+    private DealNote lastNote;
+    private String lastNotePreview;
+
+    // Sort keys
+    private String titleSortKey;    // lower-cased title
+    private String sectorSortKey;   // lower-cased sector
+    private int stageOrder;         // pipeline order of the stage
+
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant projectedAt;
+}
@@ -0,0 +1,39 @@
+package com.bank.pipeline.model;
+
+import com.bank.pipeline.event.DealChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Deal event waiting to be relayed to Kafka. Written in the same transaction
+ * as the deal itself; publishedAt stays null until the broker has acked it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deal_outbox")
+@CompoundIndex(name = "outbox_pending_created_idx", def = "{'publishedAt': 1, 'createdAt': 1, '_id': 1}")
+public class DealOutboxRecord {
+
+    @Id
+    private String id;              // ObjectId hex, also the eventId in the payload
+
+    private String dealId;          // Kafka record key, keeps per-deal ordering
+    private DealChangeType type;
+    private String payload;         // serialized DealEventMessage
+
+    private Instant createdAt;      // relay order
+
+    // TTL only applies once set, so unpublished records are never expired
+    @Indexed(name = "outbox_published_ttl", expireAfter = "7d")
+    private Instant publishedAt;
+}
@@ -0,0 +1,25 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of a deal that count towards pipeline totals, plus its owner so
+ * replicas replaying the change log can route it to the right stream users.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealPosition {
+    private DealStage stage;
+    private String sector;
+    private Double dealValue;
+    private String ownerId;
+
+    public static DealPosition of(Deal deal) {
+        return deal == null
+                ? null
+                : new DealPosition(deal.getStage(), deal.getSector(), deal.getDealValue(), deal.getOwnerId());
+    }
+}
@@ -1,12 +1,23 @@
 package com.bank.pipeline.model;
 
 public enum DealStage {
-    PROSPECTING,
-    LEAD,
-    QUALIFIED,
-    TERM_SHEET,
-    DUE_DILIGENCE,
-    WON,
-    CLOSED,
-    LOST
+    PROSPECTING(0.05),
+    LEAD(0.10),
+    QUALIFIED(0.25),
+    TERM_SHEET(0.50),
+    DUE_DILIGENCE(0.75),
+    WON(1.0),
+    CLOSED(1.0),
+    LOST(0.0);
+
+    // Used for probability-weighted pipeline value
+    private final double winProbability;
+
+    DealStage(double winProbability) {
+        this.winProbability = winProbability;
+    }
+
+    public double getWinProbability() {
+        return winProbability;
+    }
 }
@@ -0,0 +1,40 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "deal_stage_events")
+@CompoundIndexes({
+        @CompoundIndex(name = "deal_changed_at", def = "{'dealId': 1, 'changedAt': 1}"),
+        @CompoundIndex(name = "to_stage_changed_at", def = "{'toStage': 1, 'changedAt': 1}")
+})
+public class DealStageEvent {
+
+    @Id
+    private String id;
+
+    private String dealId;
+
+    // Transition (fromStage is null when the deal is created)
+    private DealStage fromStage;
+    private DealStage toStage;
+
+    // Time spent in fromStage before this transition
+    private Long dwellMillis;
+
+    // Audit
+    private String changedBy;
+    private Instant changedAt;
+}
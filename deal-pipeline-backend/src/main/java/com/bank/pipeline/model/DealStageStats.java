@@ -0,0 +1,37 @@
+package com.bank.pipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals for one stage, maintained with $inc on every stage transition
+ * so analytics never rescan deal_stage_events.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "deal_stage_stats")
+public class DealStageStats {
+
+    @Id
+    private String id;              // DealStage name
+
+    // Distinct deals that entered this stage at least once
+    private long dealsEntered;
+
+    // Transitions out of this stage
+    private long exits;
+    private Map<String, Long> transitions = new HashMap<>();   // next stage -> count
+
+    // Distinct deals that later reached another stage
+    private Map<String, Long> reached = new HashMap<>();       // stage -> deal count
+
+    // Time-in-stage histogram (see DwellHistogram)
+    private Map<String, Long> dwellBuckets = new HashMap<>();  // bucket index -> count
+    private long dwellSamples;
+    private long dwellTotalMillis;
+}
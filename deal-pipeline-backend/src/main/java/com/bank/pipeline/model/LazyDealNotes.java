@@ -0,0 +1,88 @@
+package com.bank.pipeline.model;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deal notes backed by the raw BSON of the deal document. Nothing is decoded
+ * until the list is first accessed; until then the JSON writer can copy the
+ * notes straight from the source bytes. Once decoded (or modified) the list
+ * behaves like a plain ArrayList.
+ */
+public class LazyDealNotes extends AbstractList<DealNote> {
+
+    private final RawBsonDocument source;
+    private List<DealNote> decoded;
+
+    public LazyDealNotes(RawBsonDocument source) {
+        this.source = source;
+    }
+
+    /** The whole deal document; the notes are its "notes" array. */
+    public RawBsonDocument getSource() {
+        return source;
+    }
+
+    public boolean isDecoded() {
+        return decoded != null;
+    }
+
+    @Override
+    public DealNote get(int index) {
+        return notes().get(index);
+    }
+
+    @Override
+    public int size() {
+        return notes().size();
+    }
+
+    @Override
+    public DealNote set(int index, DealNote note) {
+        return notes().set(index, note);
+    }
+
+    @Override
+    public void add(int index, DealNote note) {
+        notes().add(index, note);
+        modCount++;
+    }
+
+    @Override
+    public DealNote remove(int index) {
+        modCount++;
+        return notes().remove(index);
+    }
+
+    private List<DealNote> notes() {
+        if (decoded == null) {
+            List<DealNote> notes = new ArrayList<>();
+            for (BsonValue value : source.getArray("notes")) {
+                BsonDocument note = value.asDocument();
+                notes.add(new DealNote(
+                        string(note, "noteId"),
+                        string(note, "userId"),
+                        string(note, "note"),
+                        instant(note, "createdAt")));
+            }
+            decoded = notes;
+        }
+        return decoded;
+    }
+
+    private static String string(BsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    private static Instant instant(BsonDocument document, String field) {
+        BsonValue value = document.get(field);
+        return value != null && value.isDateTime() ? Instant.ofEpochMilli(value.asDateTime().getValue()) : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineBucket {
+    private long count;
+    private double totalValue;
+    private double weightedValue;   // totalValue weighted by stage win probability
+}
@@ -0,0 +1,19 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-sector totals as stored in snapshots. Sector names may contain '.',
+ * which Mongo map keys cannot, so they are a list rather than a map.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineSectorBucket {
+    private String sector;
+    private long count;
+    private double totalValue;
+    private double weightedValue;
+}
@@ -0,0 +1,34 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/** Compacted pipeline totals covering every change log entry up to asOf. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pipeline_snapshots")
+public class PipelineSnapshot {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private Instant asOf;
+
+    private Map<String, PipelineBucket> byStage;
+    private List<PipelineSectorBucket> bySector;
+
+    // Number of change log entries folded into this snapshot
+    private long compactedChanges;
+}
@@ -0,0 +1,26 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/** Change stream position of a projector, so it resumes where it stopped. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "projector_checkpoints")
+public class ProjectorCheckpoint {
+
+    @Id
+    private String id;              // projector name
+
+    private String resumeToken;     // change stream resume token as extended JSON
+    private Instant lastEventAt;    // cluster time of the last applied change
+    private Instant updatedAt;
+}
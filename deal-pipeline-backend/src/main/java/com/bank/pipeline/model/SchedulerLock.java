@@ -0,0 +1,21 @@
+package com.bank.pipeline.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@Document(collection = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    private String id;          // lock name
+
+    private String owner;       // instance holding the lock
+    private Instant lockedAt;
+    private Instant lockedUntil;
+}
@@ -0,0 +1,35 @@
+package com.bank.pipeline.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Catalog entry for a sector. Deals store the short id; the API reads and
+ * writes the canonical name. Aliases are normalised keys (trimmed, lower-cased,
+ * accent-stripped, single-spaced) and include the canonical name's own key.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sectors")
+public class Sector {
+
+    @Id
+    private String id;              // base-36 sequence, e.g. "1", "a", "1z"
+
+    private String name;            // canonical display name
+
+    @Indexed(name = "sector_alias_idx", unique = true)
+    private List<String> aliases;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.bank.pipeline.repository;
+
+import com.bank.pipeline.model.DailyPipelineSnapshot;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface DailyPipelineSnapshotRepository extends MongoRepository<DailyPipelineSnapshot, String> {
+
+    // Ids are ISO dates, so string order is date order
+    @Query("{ '_id': { $gte: ?0, $lte: ?1 } }")
+    List<DailyPipelineSnapshot> findByDayRange(String fromDay, String toDay, Sort sort);
+
+    @Query(value = "{ '_id': { $gte: ?0, $lte: ?1 } }", fields = "{ '_id': 1 }")
+    List<DailyPipelineSnapshot> findIdsByDayRange(String fromDay, String toDay);
+}
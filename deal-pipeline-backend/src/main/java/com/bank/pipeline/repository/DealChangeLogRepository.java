@@ -0,0 +1,7 @@
+package com.bank.pipeline.repository;
+
+import com.bank.pipeline.model.DealChangeLogEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DealChangeLogRepository extends MongoRepository<DealChangeLogEntry, String> {
+}
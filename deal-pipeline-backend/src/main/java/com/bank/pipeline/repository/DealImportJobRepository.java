@@ -0,0 +1,7 @@
+package com.bank.pipeline.repository;
+
+import com.bank.pipeline.model.DealImportJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DealImportJobRepository extends MongoRepository<DealImportJob, String> {
+}
@@ -0,0 +1,12 @@
+package com.bank.pipeline.repository;
+
+import com.bank.pipeline.model.DealStageEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DealStageEventRepository extends MongoRepository<DealStageEvent, String> {
+
+    List<DealStageEvent> findByDealIdIn(Collection<String> dealIds);
+}
@@ -0,0 +1,18 @@
+package com.bank.pipeline.repository;
+
+import com.bank.pipeline.model.PipelineSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface PipelineSnapshotRepository extends MongoRepository<PipelineSnapshot, String> {
+
+    Optional<PipelineSnapshot> findFirstByAsOfLessThanEqualOrderByAsOfDesc(Instant asOf);
+
+    Optional<PipelineSnapshot> findFirstByAsOfGreaterThanOrderByAsOfAsc(Instant asOf);
+
+    Optional<PipelineSnapshot> findFirstByOrderByAsOfDesc();
+
+    Optional<PipelineSnapshot> findFirstByOrderByAsOfAsc();
+}
@@ -19,6 +19,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/deals/stream";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
 
@@ -43,9 +45,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = null;
         String username = null;
 
-        //  Check Bearer token format
+        //  Check Bearer token format; a stream token is not accepted as a bearer token
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7); // remove "Bearer "
+            if (jwtUtil.isStreamToken(token)) {
+                token = null;
+            }
+        } else if (isStreamRequest(request)) {
+            // EventSource cannot set headers; the stream takes a stream token as ?token=
+            String streamToken = request.getParameter("token");
+            if (streamToken != null && jwtUtil.isStreamToken(streamToken)) {
+                token = streamToken;
+            }
         }
 
         //  Validate token & extract username
@@ -82,4 +93,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && (request.getContextPath() + STREAM_PATH).equals(request.getRequestURI());
+    }
 }
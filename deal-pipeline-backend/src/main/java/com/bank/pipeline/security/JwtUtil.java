@@ -19,6 +19,12 @@ import javax.crypto.SecretKey;
 @Component
 public class JwtUtil {
 
+    // EventSource cannot send an Authorization header, so /api/deals/stream takes one of these
+    // in the query string instead. It only opens the stream, and it expires with the session it
+    // was minted from, as EventSource reconnects to the same URL.
+    private static final String PURPOSE_CLAIM = "purpose";
+    private static final String STREAM_PURPOSE = "stream";
+
     private final SecretKey secretKey;
     private final long expirationMillis;
 
@@ -47,6 +53,27 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Generate a token that only opens the deal change stream, valid as long as the session
+    public String generateStreamToken(String username, Date sessionExpiry) {
+
+        return Jwts.builder()
+                .setSubject(username)
+                .addClaims(Map.of(PURPOSE_CLAIM, STREAM_PURPOSE))
+                .setIssuedAt(new Date())
+                .setExpiration(sessionExpiry)
+                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // True only for a valid, unexpired stream token
+    public boolean isStreamToken(String token) {
+        try {
+            return STREAM_PURPOSE.equals(getAllClaims(token).get(PURPOSE_CLAIM, String.class));
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
     // Validate JWT Token
     public boolean validateToken(String token) {
         try {
@@ -62,6 +89,11 @@ public class JwtUtil {
         return getAllClaims(token).getSubject();
     }
 
+    // Extract Expiry (exp)
+    public Date extractExpiration(String token) {
+        return getAllClaims(token).getExpiration();
+    }
+
     // Extract Role
     public String extractRole(String token) {
         return getAllClaims(token).get("role", String.class);
@@ -0,0 +1,14 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.DailyPipelineSnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyPipelineSnapshotService {
+
+    /** Writes snapshots for every completed day that does not have one yet. */
+    int backfill();
+
+    List<DailyPipelineSnapshot> getRange(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,110 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.model.DailyPipelineSnapshot;
+import com.bank.pipeline.model.PipelineSnapshot;
+import com.bank.pipeline.repository.DailyPipelineSnapshotRepository;
+import com.bank.pipeline.repository.PipelineSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class DailyPipelineSnapshotServiceImpl implements DailyPipelineSnapshotService {
+
+    private static final String LOCK_NAME = "daily-pipeline-snapshot";
+
+    private final DailyPipelineSnapshotRepository dailySnapshotRepository;
+    private final PipelineSnapshotRepository pipelineSnapshotRepository;
+    private final PipelineHistoryService pipelineHistoryService;
+    private final DistributedLockService lockService;
+    private final int maxBackfillDays;
+
+    public DailyPipelineSnapshotServiceImpl(
+            DailyPipelineSnapshotRepository dailySnapshotRepository,
+            PipelineSnapshotRepository pipelineSnapshotRepository,
+            PipelineHistoryService pipelineHistoryService,
+            DistributedLockService lockService,
+            @Value("${pipeline.daily-snapshot.max-backfill-days:730}") int maxBackfillDays) {
+
+        this.dailySnapshotRepository = dailySnapshotRepository;
+        this.pipelineSnapshotRepository = pipelineSnapshotRepository;
+        this.pipelineHistoryService = pipelineHistoryService;
+        this.lockService = lockService;
+        this.maxBackfillDays = maxBackfillDays;
+    }
+
+    @Scheduled(cron = "${pipeline.daily-snapshot.cron:0 15 0 * * *}", zone = "UTC")
+    public void scheduledBackfill() {
+        if (!lockService.tryAcquire(LOCK_NAME, Duration.ofHours(1))) {
+            return;
+        }
+        try {
+            backfill();
+        } finally {
+            lockService.release(LOCK_NAME);
+        }
+    }
+
+    // Every missing day in the window is written, so a gap left by a failed run is repaired too
+    @Override
+    public int backfill() {
+        // Nothing is known about days before history tracking started
+        Optional<Instant> historyStart = pipelineSnapshotRepository.findFirstByOrderByAsOfAsc()
+                .map(PipelineSnapshot::getAsOf);
+        if (historyStart.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate lastCompleteDay = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        LocalDate earliestAllowed = lastCompleteDay.minusDays(maxBackfillDays - 1L);
+        Set<String> written = dailySnapshotRepository
+                .findIdsByDayRange(earliestAllowed.toString(), lastCompleteDay.toString()).stream()
+                .map(DailyPipelineSnapshot::getId)
+                .collect(Collectors.toSet());
+
+        int count = 0;
+        for (LocalDate day = earliestAllowed; !day.isAfter(lastCompleteDay); day = day.plusDays(1)) {
+            if (!written.contains(day.toString()) && !endOf(day).isBefore(historyStart.get())) {
+                dailySnapshotRepository.save(snapshotFor(day));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<DailyPipelineSnapshot> getRange(LocalDate from, LocalDate to) {
+        return dailySnapshotRepository.findByDayRange(
+                from.toString(), to.toString(), Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private DailyPipelineSnapshot snapshotFor(LocalDate day) {
+        Instant endOfDay = endOf(day);
+        PipelineAsOfResponse totals = pipelineHistoryService.getPipelineAsOf(endOfDay);
+
+        return DailyPipelineSnapshot.builder()
+                .id(day.toString())
+                .asOf(endOfDay)
+                .totalDeals(totals.getTotalDeals())
+                .totalValue(totals.getTotalValue())
+                .weightedValue(totals.getWeightedValue())
+                .byStage(totals.getByStage())
+                .bySector(PipelineTotals.sectorList(totals.getBySector()))
+                .build();
+    }
+
+    private static Instant endOf(LocalDate day) {
+        return day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
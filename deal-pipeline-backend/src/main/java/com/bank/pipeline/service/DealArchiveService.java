@@ -0,0 +1,35 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/**
+ * Finished deals past the retention window live in deals_archive. Archived
+ * deals are read-only; they are found by id and by includeArchived list and
+ * search reads, which cover both collections.
+ */
+public interface DealArchiveService {
+
+    String ARCHIVE_COLLECTION = "deals_archive";
+
+    /** Moves one throttled run's worth of eligible deals; returns how many were archived. */
+    long archiveFinishedDeals();
+
+    Optional<Deal> findArchivedById(String dealId, DealFieldSet fields);
+
+    // Live + archived
+
+    Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    Page<Deal> findByOwner(String ownerId, Pageable pageable, DealFieldSet fields);
+
+    Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    /** Title prefix filter, ignoring case and accents (see DealService#getDealsByTitle). */
+    Page<Deal> findByTitle(String title, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+}
@@ -0,0 +1,304 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Moves finished deals (by default CLOSED, LOST and WON) that have not been
+ * touched for the retention window from deals into deals_archive, a batch at
+ * a time with a pause in between so the primary is never saturated. Each
+ * batch is upserted into the archive before it is deleted from deals, and the
+ * delete re-checks eligibility, so a crash or a deal reopened mid-batch never
+ * loses or duplicates a deal. Removing a deal from deals is not a deal change:
+ * no DealChangedEvent is published, and the list read model drops it through
+ * the change stream like any other delete. In-memory views of the working
+ * set get a DealsArchivedEvent instead.
+ */
+@Service
+public class DealArchiveServiceImpl implements DealArchiveService {
+
+    private static final String ARCHIVE_LOCK = "deal-archiver";
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(30);
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final DistributedLockService lockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SectorCatalogService sectorCatalog;
+    private final boolean enabled;
+    private final Duration retention;
+    private final List<String> finishedStages;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+
+    private final Counter archivedCounter;
+
+    public DealArchiveServiceImpl(
+            MongoTemplate mongoTemplate,
+            DistributedLockService lockService,
+            ApplicationEventPublisher eventPublisher,
+            SectorCatalogService sectorCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.archive.enabled:false}") boolean enabled,
+            @Value("${pipeline.archive.retention-days:180}") int retentionDays,
+            @Value("${pipeline.archive.stages:CLOSED,LOST,WON}") List<DealStage> finishedStages,
+            @Value("${pipeline.archive.batch-size:500}") int batchSize,
+            @Value("${pipeline.archive.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${pipeline.archive.pause-ms:200}") long pauseMs) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.lockService = lockService;
+        this.eventPublisher = eventPublisher;
+        this.sectorCatalog = sectorCatalog;
+        this.enabled = enabled;
+        this.retention = Duration.ofDays(retentionDays);
+        this.finishedStages = finishedStages.stream().map(Enum::name).toList();
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+
+        this.archivedCounter = Counter.builder("deal.archive.archived")
+                .description("Finished deals moved from deals to deals_archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.archive.interval-ms:3600000}",
+            initialDelayString = "${pipeline.archive.initial-delay-ms:300000}")
+    public void scheduledArchive() {
+        if (!enabled || !lockService.tryAcquire(ARCHIVE_LOCK, LOCK_LEASE)) {
+            return;
+        }
+        try {
+            archiveFinishedDeals();
+        } finally {
+            lockService.release(ARCHIVE_LOCK);
+        }
+    }
+
+    @Override
+    public long archiveFinishedDeals() {
+        Instant cutoff = Instant.now().minus(retention);
+        Criteria eligible = Criteria.where("stage").in(finishedStages).and("updatedAt").lt(cutoff);
+        String liveCollection = mongoTemplate.getCollectionName(Deal.class);
+
+        long archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Query next = Query.query(eligible)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(batchSize);
+            List<Document> deals = mongoTemplate.find(next, Document.class, liveCollection);
+            if (deals.isEmpty()) {
+                break;
+            }
+
+            archived += moveBatch(deals, eligible, liveCollection);
+
+            if (deals.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private long moveBatch(List<Document> deals, Criteria eligible, String liveCollection) {
+        Date archivedAt = new Date();
+        List<Object> ids = new ArrayList<>(deals.size());
+
+        // Upsert by _id so a batch repeated after a crash is harmless
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE_COLLECTION);
+        for (Document deal : deals) {
+            ids.add(deal.get("_id"));
+            deal.put("archivedAt", archivedAt);
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(deal.get("_id"))), deal,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+
+        // Only delete what is still eligible; a deal updated since the read stays live
+        DeleteResult deleted = mongoTemplate.remove(
+                Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), eligible)),
+                liveCollection);
+
+        List<Object> moved = ids;
+        if (deleted.getDeletedCount() < ids.size()) {
+            List<Object> stillLive = mongoTemplate.findDistinct(
+                    Query.query(Criteria.where("_id").in(ids)), "_id", liveCollection, Object.class);
+            if (!stillLive.isEmpty()) {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").in(stillLive)), ARCHIVE_COLLECTION);
+                moved = ids.stream().filter(id -> !stillLive.contains(id)).toList();
+            }
+        }
+
+        if (deleted.getDeletedCount() > 0) {
+            eventPublisher.publishEvent(new DealsArchivedEvent(moved.stream().map(Object::toString).toList()));
+        }
+
+        archivedCounter.increment(deleted.getDeletedCount());
+        return deleted.getDeletedCount();
+    }
+
+    @Override
+    public Optional<Deal> findArchivedById(String dealId, DealFieldSet fields) {
+        Query query = Query.query(Criteria.where("id").is(dealId));
+        if (!fields.isAll()) {
+            fields.getFields().forEach(field -> query.fields().include(field));
+            query.fields().include("ownerId");
+        }
+        return Optional.ofNullable(mongoTemplate.findOne(query, Deal.class, ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        List<Criteria> filters = new ArrayList<>();
+        if (stage != null) {
+            filters.add(Criteria.where("stage").is(stage.name()));
+        }
+        if (sector != null) {
+            filters.add(Criteria.where("sector").is(storedSector(sector)));
+        }
+        return findLiveAndArchived(filters, pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> findByOwner(String ownerId, Pageable pageable, DealFieldSet fields) {
+        return findLiveAndArchived(List.of(Criteria.where("ownerId").is(ownerId)), pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        List<Criteria> filters = new ArrayList<>();
+        if (query != null && !query.isBlank()) {
+            Pattern contains = Pattern.compile(Pattern.quote(query.trim()), Pattern.CASE_INSENSITIVE);
+            // Sector names live in the catalog; the regex still catches raw legacy values
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("title").regex(contains),
+                    Criteria.where("sector").in(sectorCatalog.findIdsContaining(query)),
+                    Criteria.where("sector").regex(contains)));
+        }
+        if (stage != null) {
+            filters.add(Criteria.where("stage").is(stage.name()));
+        }
+        if (sector != null && !sector.isEmpty()) {
+            filters.add(Criteria.where("sector").is(storedSector(sector)));
+        }
+        return findLiveAndArchived(filters, pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> findByTitle(String title, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        // Range under the title collation, so both sides seek their title index
+        String prefix = title.trim();
+        List<Criteria> filters = new ArrayList<>();
+        filters.add(Criteria.where("title").gte(prefix).lt(prefix + "\uFFFF"));
+        if (stage != null) {
+            filters.add(Criteria.where("stage").is(stage.name()));
+        }
+        if (sector != null) {
+            filters.add(Criteria.where("sector").is(storedSector(sector)));
+        }
+        return findLiveAndArchived(filters, pageable, fields, DealService.TITLE_COLLATION);
+    }
+
+    private Page<Deal> findLiveAndArchived(List<Criteria> filters, Pageable pageable, DealFieldSet fields) {
+        return findLiveAndArchived(filters, pageable, fields, null);
+    }
+
+    // One $unionWith aggregation, so sorting and paging span both collections; the collation,
+    // when given, covers the $unionWith sub-pipeline too.
+    // Values are plain strings because the archive sub-pipeline is not type-mapped.
+    private Page<Deal> findLiveAndArchived(
+            List<Criteria> filters, Pageable pageable, DealFieldSet fields, Collation collation) {
+        Criteria criteria = filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+        String liveCollection = mongoTemplate.getCollectionName(Deal.class);
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(criteria));
+        operations.add(UnionWithOperation.unionWith(ARCHIVE_COLLECTION).pipeline(Aggregation.match(criteria)));
+        operations.add(Aggregation.sort(sortFor(pageable)));
+        if (pageable.isPaged()) {
+            operations.add(Aggregation.skip(pageable.getOffset()));
+            operations.add(Aggregation.limit(pageable.getPageSize()));
+        }
+        if (!fields.isAll()) {
+            // _id is always kept by $project
+            operations.add(Aggregation.project(fields.getFields().stream()
+                    .filter(field -> !field.equals("id"))
+                    .toArray(String[]::new)));
+        }
+
+        List<Deal> deals = mongoTemplate.aggregate(
+                withCollation(Aggregation.newAggregation(operations), collation),
+                liveCollection, Deal.class).getMappedResults();
+
+        return PageableExecutionUtils.getPage(deals, pageable, () -> {
+            Document total = mongoTemplate.aggregate(withCollation(Aggregation.newAggregation(
+                    Aggregation.match(criteria),
+                    UnionWithOperation.unionWith(ARCHIVE_COLLECTION).pipeline(Aggregation.match(criteria)),
+                    Aggregation.count().as("total")), collation), liveCollection, Document.class).getUniqueMappedResult();
+            return total == null ? 0L : ((Number) total.get("total")).longValue();
+        });
+    }
+
+    private static Aggregation withCollation(Aggregation aggregation, Collation collation) {
+        return collation == null
+                ? aggregation
+                : aggregation.withOptions(AggregationOptions.builder().collation(collation).build());
+    }
+
+    private String storedSector(String sector) {
+        return sectorCatalog.resolve(sector).map(Sector::getId).orElse(sector);
+    }
+
+    private static Sort sortFor(Pageable pageable) {
+        Sort sort = pageable.getSort().isUnsorted() ? DEFAULT_SORT : Sort.by(pageable.getSort().stream()
+                .map(order -> order.getProperty().equals("id") ? order.withProperty("_id") : order)
+                .toList());
+        // Stable order across the two collections
+        return sort.getOrderFor("_id") == null ? sort.and(Sort.by(Sort.Direction.ASC, "_id")) : sort;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
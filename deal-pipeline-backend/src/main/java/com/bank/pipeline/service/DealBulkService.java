@@ -0,0 +1,17 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealBulkCreateResponse;
+import com.bank.pipeline.dto.DealBulkUpdateRequest;
+import com.bank.pipeline.dto.DealBulkUpdateResponse;
+import com.bank.pipeline.dto.DealCreateRequest;
+
+import java.util.List;
+
+public interface DealBulkService {
+
+    DealBulkCreateResponse createDeals(List<DealCreateRequest> requests, String userId);
+
+    DealBulkUpdateResponse updateStage(DealBulkUpdateRequest request, String userId);
+
+    DealBulkUpdateResponse reassignOwner(DealBulkUpdateRequest request, String userId);
+}
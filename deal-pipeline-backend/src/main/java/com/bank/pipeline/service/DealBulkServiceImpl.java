@@ -0,0 +1,297 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealBulkCreateResponse;
+import com.bank.pipeline.dto.DealBulkItemResult;
+import com.bank.pipeline.dto.DealBulkUpdateRequest;
+import com.bank.pipeline.dto.DealBulkUpdateResponse;
+import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+@Service
+public class DealBulkServiceImpl implements DealBulkService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SectorCatalogService sectorCatalog;
+    private final int batchSize;
+    private final int maxItems;
+
+    public DealBulkServiceImpl(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher,
+            SectorCatalogService sectorCatalog,
+            @Value("${pipeline.bulk.batch-size:1000}") int batchSize,
+            @Value("${pipeline.bulk.max-items:10000}") int maxItems) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.sectorCatalog = sectorCatalog;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public DealBulkCreateResponse createDeals(List<DealCreateRequest> requests, String userId) {
+
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("At least one deal is required");
+        }
+        if (requests.size() > maxItems) {
+            throw new InvalidRequestException(
+                    "Too many deals in one request: " + requests.size() + " (max " + maxItems + ")");
+        }
+
+        // Resolved on the request thread; the security context is not visible to the parallel workers
+        boolean isAdmin = SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getAuthorities()
+                .stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        String[] errors = IntStream.range(0, requests.size())
+                .parallel()
+                .mapToObj(i -> validate(requests.get(i)))
+                .toArray(String[]::new);
+
+        Instant now = Instant.now();
+        DealBulkItemResult[] results = new DealBulkItemResult[requests.size()];
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        List<Deal> batch = new ArrayList<>(batchSize);
+        List<DealChangedEvent> created = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                results[i] = failure(i, errors[i]);
+                continue;
+            }
+
+            Deal deal = DealMapper.fromCreateRequest(requests.get(i), userId, isAdmin, now);
+            // Ids are assigned up front so every item can be reported back
+            deal.setId(new ObjectId().toHexString());
+            batch.add(deal);
+            batchIndexes.add(i);
+
+            if (batch.size() == batchSize) {
+                insertBatch(batch, batchIndexes, results, created, userId, now);
+                batch.clear();
+                batchIndexes.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, batchIndexes, results, created, userId, now);
+        }
+
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new DealBatchChangedEvent(created));
+        }
+
+        List<DealBulkItemResult> resultList = List.of(results);
+        int succeeded = (int) resultList.stream().filter(DealBulkItemResult::isSuccess).count();
+
+        return DealBulkCreateResponse.builder()
+                .total(requests.size())
+                .created(succeeded)
+                .failed(requests.size() - succeeded)
+                .results(resultList)
+                .build();
+    }
+
+    @Override
+    public DealBulkUpdateResponse updateStage(DealBulkUpdateRequest request, String userId) {
+
+        DealStage target = request.getTargetStage();
+        if (target == null) {
+            throw new InvalidRequestException("Target stage is required");
+        }
+
+        Instant now = Instant.now();
+        // Deals already in the target stage keep their stageEnteredAt and updatedAt
+        Criteria criteria = new Criteria().andOperator(
+                targetCriteria(request), Criteria.where("stage").ne(target));
+        Update update = new Update()
+                .set("stage", target)
+                .set("stageEnteredAt", now)
+                .set("updatedAt", now);
+
+        return updateMany(criteria, update, userId, now, deal -> deal.toBuilder()
+                .stage(target)
+                .stageEnteredAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    @Override
+    public DealBulkUpdateResponse reassignOwner(DealBulkUpdateRequest request, String userId) {
+
+        String newOwnerId = request.getNewOwnerId();
+        if (newOwnerId == null || newOwnerId.isBlank()) {
+            throw new InvalidRequestException("New owner is required");
+        }
+
+        Instant now = Instant.now();
+        Criteria criteria = new Criteria().andOperator(
+                targetCriteria(request), Criteria.where("ownerId").ne(newOwnerId));
+        Update update = new Update()
+                .set("ownerId", newOwnerId)
+                .set("updatedAt", now);
+
+        return updateMany(criteria, update, userId, now, deal -> deal.toBuilder()
+                .ownerId(newOwnerId)
+                .updatedAt(now)
+                .build());
+    }
+
+    /*
+     * Reads the narrow pre-image of the affected deals (no notes) so change events
+     * can still be published, then applies the change with a single updateMany
+     * restricted to those ids.
+     */
+    private DealBulkUpdateResponse updateMany(
+            Criteria criteria,
+            Update update,
+            String userId,
+            Instant now,
+            UnaryOperator<Deal> applyChange) {
+
+        Query preImageQuery = Query.query(criteria);
+        preImageQuery.fields().exclude("notes");
+        List<Deal> before = mongoTemplate.find(preImageQuery, Deal.class);
+
+        if (before.isEmpty()) {
+            return DealBulkUpdateResponse.builder().build();
+        }
+
+        List<String> ids = before.stream().map(Deal::getId).toList();
+        Query updateQuery = Query.query(new Criteria().andOperator(
+                criteria, Criteria.where("_id").in(ids)));
+        UpdateResult result = mongoTemplate.updateMulti(updateQuery, update, Deal.class);
+
+        eventPublisher.publishEvent(new DealBatchChangedEvent(before.stream()
+                .map(deal -> new DealChangedEvent(
+                        DealChangeType.UPDATED, deal, applyChange.apply(deal), userId, now))
+                .toList()));
+
+        return DealBulkUpdateResponse.builder()
+                .matched(result.getMatchedCount())
+                .modified(result.getModifiedCount())
+                .build();
+    }
+
+    private Criteria targetCriteria(DealBulkUpdateRequest request) {
+        boolean hasIds = request.getDealIds() != null && !request.getDealIds().isEmpty();
+        boolean hasSector = request.getSector() != null && !request.getSector().isBlank();
+        boolean hasOwner = request.getOwnerId() != null && !request.getOwnerId().isBlank();
+
+        if (!hasIds && request.getStage() == null && !hasSector && !hasOwner) {
+            throw new InvalidRequestException("Deal ids or a filter are required");
+        }
+
+        Criteria criteria = new Criteria();
+        if (hasIds) {
+            criteria.and("_id").in(request.getDealIds());
+        }
+        if (request.getStage() != null) {
+            criteria.and("stage").is(request.getStage());
+        }
+        if (hasSector) {
+            criteria.and("sector").is(sectorCatalog.resolve(request.getSector())
+                    .map(Sector::getId)
+                    .orElse(request.getSector()));
+        }
+        if (hasOwner) {
+            criteria.and("ownerId").is(request.getOwnerId());
+        }
+        return criteria;
+    }
+
+    // Unordered: one bad document does not stop the rest of the batch
+    private void insertBatch(
+            List<Deal> batch,
+            List<Integer> batchIndexes,
+            DealBulkItemResult[] results,
+            List<DealChangedEvent> created,
+            String userId,
+            Instant now) {
+
+        String[] failures = new String[batch.size()];
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures[error.getIndex()] = error.getMessage();
+            }
+        }
+
+        for (int j = 0; j < batch.size(); j++) {
+            int index = batchIndexes.get(j);
+            Deal deal = batch.get(j);
+
+            if (failures[j] != null) {
+                results[index] = failure(index, failures[j]);
+            } else {
+                results[index] = DealBulkItemResult.builder()
+                        .index(index)
+                        .dealId(deal.getId())
+                        .success(true)
+                        .build();
+                created.add(new DealChangedEvent(DealChangeType.CREATED, null, deal, userId, now));
+            }
+        }
+    }
+
+    private String validate(DealCreateRequest request) {
+        if (request == null) {
+            return "Deal is required";
+        }
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (request.getSector() == null || request.getSector().isBlank()) {
+            return "Sector is required";
+        }
+        if (request.getDealType() == null) {
+            return "Deal type is required";
+        }
+        if (request.getDealValue() != null && request.getDealValue() < 0) {
+            return "Deal value must not be negative";
+        }
+        return null;
+    }
+
+    private DealBulkItemResult failure(int index, String error) {
+        return DealBulkItemResult.builder()
+                .index(index)
+                .success(false)
+                .error(error)
+                .build();
+    }
+}
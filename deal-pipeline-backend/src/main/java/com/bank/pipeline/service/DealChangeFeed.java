@@ -0,0 +1,197 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealPosition;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Catches this replica's in-memory views (facets, suggest, fuzzy, columnar,
+ * Lucene) and its SSE subscribers up with deal writes made on other
+ * replicas. Every write is in deal_change_log tagged with the replica that
+ * made it; each poll re-reads the entries since the last one, skips this
+ * replica's own, loads the affected deals as they are now and publishes a
+ * RemoteDealChangesEvent. Archiving is not logged, so the archive's
+ * archivedAt is polled the same way.
+ *
+ * An entry only becomes visible when its deal's transaction commits, some
+ * time after its occurredAt, so each poll re-reads an overlap before the
+ * previous one and skips the entries it has already
+ * seen. A local write can land between a poll loading a deal and the views
+ * applying it; the local entry for a deal the feed has just replayed is
+ * therefore replayed as well, so the views settle on the stored state.
+ */
+@Service
+@ConditionalOnProperty(name = "pipeline.change-feed.enabled", havingValue = "true", matchIfMissing = true)
+public class DealChangeFeed {
+
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaId replicaId;
+
+    // The views load from Mongo after startup, so the feed only needs what follows it
+    private Instant watermark = Instant.now();
+    private final Map<String, Instant> seenEntries = new HashMap<>();   // change log id -> occurredAt
+    private final Map<String, Instant> seenArchived = new HashMap<>();  // deal id -> archivedAt
+    private final Map<String, Instant> replayed = new HashMap<>();      // deal id -> last loaded here
+
+    public DealChangeFeed(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ReplicaId replicaId) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.replicaId = replicaId;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.change-feed.poll-interval-ms:2000}",
+            initialDelayString = "${pipeline.change-feed.poll-interval-ms:2000}")
+    public synchronized void poll() {
+        Instant polledAt = Instant.now();
+        Instant since = watermark.minus(OVERLAP);
+        forgetBefore(since);
+
+        Map<String, RemoteChange> changed = changedSince(since);
+        Map<String, Deal> archived = archivedSince(since);
+
+        List<DealChangedEvent> changes = new ArrayList<>();
+        Map<String, Deal> current = load(changed.keySet(), mongoTemplate.getCollectionName(Deal.class));
+        List<String> gone = changed.keySet().stream()
+                .filter(dealId -> !current.containsKey(dealId) && !archived.containsKey(dealId))
+                .toList();
+        // Changed and then archived before the entry was read: archived, not deleted
+        archived.putAll(load(gone, DealArchiveService.ARCHIVE_COLLECTION));
+
+        changed.forEach((dealId, change) -> {
+            if (archived.containsKey(dealId)) {
+                return;
+            }
+            changes.add(change.toEvent(dealId, current.get(dealId), polledAt));
+            replayed.put(dealId, polledAt);
+        });
+
+        watermark = polledAt;
+        if (!changes.isEmpty() || !archived.isEmpty()) {
+            eventPublisher.publishEvent(new RemoteDealChangesEvent(changes, new ArrayList<>(archived.values())));
+        }
+    }
+
+    private Map<String, RemoteChange> changedSince(Instant since) {
+        Query query = Query.query(Criteria.where("occurredAt").gte(since))
+                .with(Sort.by(Sort.Direction.ASC, "occurredAt"))
+                .cursorBatchSize(LOAD_BATCH_SIZE);
+        query.fields().include("dealId", "type", "before", "origin", "occurredAt");
+
+        String self = replicaId.get();
+        Map<String, RemoteChange> changed = new LinkedHashMap<>();
+        try (Stream<DealChangeLogEntry> entries = mongoTemplate.stream(query, DealChangeLogEntry.class)) {
+            entries.forEach(entry -> {
+                if (seenEntries.putIfAbsent(entry.getId(), entry.getOccurredAt()) != null) {
+                    return;
+                }
+                if (self.equals(entry.getOrigin()) && !replayed.containsKey(entry.getDealId())) {
+                    return; // applied here from the in-process event
+                }
+                RemoteChange change = changed.computeIfAbsent(entry.getDealId(),
+                        dealId -> new RemoteChange(entry.getBefore()));
+                change.type = entry.getType();
+            });
+        }
+        return changed;
+    }
+
+    private Map<String, Deal> archivedSince(Instant since) {
+        Query query = Query.query(Criteria.where("archivedAt").gte(since));
+        query.fields().include("_id", "archivedAt");
+
+        List<String> dealIds = new ArrayList<>();
+        try (Stream<Document> deals = mongoTemplate.stream(query, Document.class, DealArchiveService.ARCHIVE_COLLECTION)) {
+            deals.forEach(deal -> {
+                String dealId = deal.get("_id").toString();
+                Instant archivedAt = deal.getDate("archivedAt").toInstant();
+                if (!archivedAt.equals(seenArchived.put(dealId, archivedAt))) {
+                    dealIds.add(dealId);
+                }
+            });
+        }
+        return load(dealIds, DealArchiveService.ARCHIVE_COLLECTION);
+    }
+
+    private Map<String, Deal> load(Collection<String> dealIds, String collection) {
+        List<String> ids = new ArrayList<>(dealIds);
+        Map<String, Deal> byId = new LinkedHashMap<>();
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            byId.putAll(mongoTemplate.find(Query.query(Criteria.where("id").in(batch)), Deal.class, collection)
+                    .stream()
+                    .collect(Collectors.toMap(Deal::getId, Function.identity())));
+        }
+        return byId;
+    }
+
+    private void forgetBefore(Instant since) {
+        seenEntries.values().removeIf(occurredAt -> occurredAt.isBefore(since));
+        seenArchived.values().removeIf(archivedAt -> archivedAt.isBefore(since));
+        replayed.values().removeIf(loadedAt -> loadedAt.isBefore(since));
+    }
+
+    // The deal's entries since the last poll: its position before the first, the type of the last
+    private static final class RemoteChange {
+
+        private final DealPosition before;
+        private DealChangeType type;
+
+        private RemoteChange(DealPosition before) {
+            this.before = before;
+        }
+
+        private DealChangedEvent toEvent(String dealId, Deal after, Instant occurredAt) {
+            if (after == null) {
+                // A delete still needs the deal id, even for a deal created since the last poll
+                Deal deleted = before != null ? toDeal(dealId, before) : Deal.builder().id(dealId).build();
+                return new DealChangedEvent(DealChangeType.DELETED, deleted, null, null, occurredAt);
+            }
+            return before == null
+                    ? new DealChangedEvent(DealChangeType.CREATED, null, after, null, occurredAt)
+                    : new DealChangedEvent(type, toDeal(dealId, before), after, null, occurredAt);
+        }
+
+        private static Deal toDeal(String dealId, DealPosition position) {
+            return Deal.builder()
+                    .id(dealId)
+                    .stage(position.getStage())
+                    .sector(position.getSector())
+                    .dealValue(position.getDealValue())
+                    .ownerId(position.getOwnerId())
+                    .build();
+        }
+    }
+}
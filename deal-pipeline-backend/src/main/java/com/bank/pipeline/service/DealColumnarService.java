@@ -0,0 +1,16 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealScanQuery;
+import com.bank.pipeline.dto.DealScanResponse;
+
+/** Count and sum scans over an in-process columnar copy of the deal book. */
+public interface DealColumnarService {
+
+    /** False until the snapshot has been loaded (or when it is disabled). */
+    boolean isReady();
+
+    DealScanResponse scan(DealScanQuery query);
+
+    /** Reloads the snapshot from deals and deals_archive. */
+    void rebuild();
+}
@@ -0,0 +1,188 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealScanQuery;
+import com.bank.pipeline.dto.DealScanResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Holds a columnar copy of every deal, live and archived, for count/sum
+ * scans that never touch Mongo. The snapshot is loaded at startup (on a
+ * background thread) and then kept current from deal change events; see
+ * LiveDealIndex. Archiving moves a deal between collections without
+ * changing it, so the snapshot needs no archive hook.
+ */
+@Service
+public class DealColumnarServiceImpl implements DealColumnarService {
+
+    private static final String[] COLUMNS = {"stage", "dealType", "sector", "dealValue", "createdAt", "updatedAt"};
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+    private final boolean enabled;
+    private final LiveDealIndex<DealColumns> columns;
+    private volatile Instant loadedAt;
+
+    public DealColumnarServiceImpl(
+            MongoTemplate mongoTemplate,
+            SectorCatalogService sectorCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.analytics.columnar.enabled:false}") boolean enabled) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.sectorCatalog = sectorCatalog;
+        this.enabled = enabled;
+        this.columns = new LiveDealIndex<>("deal-columnar-loader", "Columnar snapshot is not loaded",
+                this::build, fresh -> loadedAt = Instant.now());
+
+        columns.gauge(meterRegistry, "deal.columnar.rows", "Deals held in the columnar analytics snapshot", null,
+                DealColumns::liveRows);
+        columns.gauge(meterRegistry, "deal.columnar.off-heap",
+                "Direct memory allocated for the columnar analytics snapshot", "bytes", DealColumns::offHeapBytes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            columns.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        columns.stop();
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && columns.isReady();
+    }
+
+    @Override
+    public void rebuild() {
+        columns.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        onChanges(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        onChanges(batch.getChanges());
+    }
+
+    // Archived deals stay in the snapshot; another replica may have changed one just before
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        columns.apply(target -> {
+            event.getChanges().forEach(change -> apply(target, change));
+            event.getArchivedDeals().forEach(target::upsert);
+        });
+    }
+
+    @Override
+    public DealScanResponse scan(DealScanQuery query) {
+        long started = System.nanoTime();
+
+        return columns.query(current -> {
+            DealColumns.ScanResult result = current.scan(
+                    mask(query.getStages()),
+                    mask(query.getDealTypes()),
+                    sectorFilter(current, query.getSectors()),
+                    query.getMinValue() == null ? Double.NEGATIVE_INFINITY : query.getMinValue(),
+                    query.getMaxValue() == null ? Double.POSITIVE_INFINITY : query.getMaxValue(),
+                    from(query.getCreatedFrom()),
+                    to(query.getCreatedTo()),
+                    from(query.getUpdatedFrom()),
+                    to(query.getUpdatedTo()));
+
+            return DealScanResponse.builder()
+                    .matchedDeals(result.count())
+                    .totalValue(result.sum())
+                    .scannedRows(result.scannedRows())
+                    .tookMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started))
+                    .snapshotLoadedAt(loadedAt)
+                    .build();
+        });
+    }
+
+    private void onChanges(Collection<DealChangedEvent> changes) {
+        columns.apply(target -> changes.forEach(change -> apply(target, change)));
+    }
+
+    private DealColumns build() {
+        DealColumns fresh = new DealColumns();
+        loadInto(fresh, mongoTemplate.getCollectionName(Deal.class));
+        loadInto(fresh, DealArchiveService.ARCHIVE_COLLECTION);
+        return fresh;
+    }
+
+    private void loadInto(DealColumns target, String collection) {
+        Query query = new Query();
+        query.fields().include(COLUMNS);
+        try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class, collection)) {
+            deals.forEach(target::upsert);
+        }
+    }
+
+    private static void apply(DealColumns target, DealChangedEvent change) {
+        if (change.getAfter() != null) {
+            target.upsert(change.getAfter());
+        } else {
+            target.remove(change.getDealId());
+        }
+    }
+
+    private static long mask(Collection<? extends Enum<?>> values) {
+        if (values == null || values.isEmpty()) {
+            return DealColumns.ALL;
+        }
+        long mask = 0L;
+        for (Enum<?> value : values) {
+            mask |= 1L << DealColumns.code(value);
+        }
+        return mask;
+    }
+
+    // Sectors the snapshot has never seen match nothing
+    private boolean[] sectorFilter(DealColumns columns, Collection<String> sectors) {
+        if (sectors == null || sectors.isEmpty()) {
+            return null;
+        }
+        boolean[] filter = new boolean[columns.sectorCount()];
+        for (String sector : sectors) {
+            int id = columns.lookupSector(sectorCatalog.canonicalName(sector));
+            if (id >= 0) {
+                filter[id] = true;
+            }
+        }
+        return filter;
+    }
+
+    private static long from(Instant instant) {
+        return instant == null ? Long.MIN_VALUE : instant.toEpochMilli();
+    }
+
+    private static long to(Instant instant) {
+        return instant == null ? Long.MAX_VALUE : instant.toEpochMilli();
+    }
+}
@@ -0,0 +1,221 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Deal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-per-field copy of the deal book in direct (off-heap) buffers, one
+ * row per deal. Stage and type are stored as ordinal byte codes, sectors as
+ * dictionary ids, dealValue as a double and timestamps as epoch millis, so a
+ * scan touches only primitive columns and allocates nothing. Deleted rows are
+ * marked dead and their slot is reused. Not thread-safe; the owning service
+ * guards it with a read/write lock.
+ */
+final class DealColumns {
+
+    // Byte code for a missing stage/type; a 64-bit filter mask covers every code
+    static final byte NONE = 63;
+    static final long ALL = -1L;
+
+    // Sector id 0 is reserved for "no sector"
+    static final int NO_SECTOR = 0;
+
+    // stage + type + live (1 each) + sector (4) + value + createdAt + updatedAt (8 each)
+    static final int BYTES_PER_ROW = 31;
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+
+    private ByteBuffer stages;
+    private ByteBuffer types;
+    private ByteBuffer live;
+    private IntBuffer sectors;
+    private DoubleBuffer values;
+    private LongBuffer createdAt;
+    private LongBuffer updatedAt;
+    private int capacity;
+
+    private int rows;        // high-water mark; rows beyond it were never used
+    private int liveRows;
+    private int[] freeRows = new int[64];
+    private int freeCount;
+
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Map<String, Integer> sectorIds = new HashMap<>();
+    private final List<String> sectorNames = new ArrayList<>();
+
+    DealColumns() {
+        allocate(INITIAL_CAPACITY);
+        sectorNames.add(null);
+    }
+
+    void upsert(Deal deal) {
+        Integer existing = rowById.get(deal.getId());
+        int row = existing != null ? existing : newRow(deal.getId());
+
+        stages.put(row, code(deal.getStage()));
+        types.put(row, code(deal.getDealType()));
+        sectors.put(row, sectorId(deal.getSector()));
+        values.put(row, deal.getDealValue() == null ? Double.NaN : deal.getDealValue());
+        createdAt.put(row, deal.getCreatedAt() == null ? Long.MIN_VALUE : deal.getCreatedAt().toEpochMilli());
+        updatedAt.put(row, deal.getUpdatedAt() == null ? Long.MIN_VALUE : deal.getUpdatedAt().toEpochMilli());
+        live.put(row, (byte) 1);
+    }
+
+    void remove(String dealId) {
+        Integer row = rowById.remove(dealId);
+        if (row == null) {
+            return;
+        }
+        live.put(row, (byte) 0);
+        liveRows--;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    /**
+     * Counts and sums matching rows. Masks have bit n set for code n; sectorFilter
+     * is indexed by sector id (null = any). Rows without a value only match when
+     * no value bound is given.
+     */
+    ScanResult scan(
+            long stageMask,
+            long typeMask,
+            boolean[] sectorFilter,
+            double minValue,
+            double maxValue,
+            long createdFrom,
+            long createdTo,
+            long updatedFrom,
+            long updatedTo) {
+
+        boolean valueBounded = minValue != Double.NEGATIVE_INFINITY || maxValue != Double.POSITIVE_INFINITY;
+        long count = 0;
+        double sum = 0d;
+
+        for (int row = 0; row < rows; row++) {
+            if (live.get(row) == 0
+                    || (stageMask >>> stages.get(row) & 1L) == 0
+                    || (typeMask >>> types.get(row) & 1L) == 0) {
+                continue;
+            }
+            if (sectorFilter != null) {
+                int sector = sectors.get(row);
+                if (sector >= sectorFilter.length || !sectorFilter[sector]) {
+                    continue;
+                }
+            }
+            long created = createdAt.get(row);
+            long updated = updatedAt.get(row);
+            if (created < createdFrom || created > createdTo || updated < updatedFrom || updated > updatedTo) {
+                continue;
+            }
+            double value = values.get(row);
+            if (valueBounded && !(value >= minValue && value <= maxValue)) {
+                continue;
+            }
+            count++;
+            if (value == value) { // not NaN
+                sum += value;
+            }
+        }
+        return new ScanResult(count, sum, rows);
+    }
+
+    /** Sector id for a name already in the dictionary, or -1. */
+    int lookupSector(String sector) {
+        if (sector == null) {
+            return NO_SECTOR;
+        }
+        return sectorIds.getOrDefault(sector, -1);
+    }
+
+    int sectorCount() {
+        return sectorNames.size();
+    }
+
+    int liveRows() {
+        return liveRows;
+    }
+
+    long offHeapBytes() {
+        return (long) capacity * BYTES_PER_ROW;
+    }
+
+    static byte code(Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+
+    private int newRow(String dealId) {
+        int row;
+        if (freeCount > 0) {
+            row = freeRows[--freeCount];
+        } else {
+            if (rows == capacity) {
+                allocate(capacity * 2);
+            }
+            row = rows++;
+        }
+        rowById.put(dealId, row);
+        liveRows++;
+        return row;
+    }
+
+    private int sectorId(String sector) {
+        if (sector == null) {
+            return NO_SECTOR;
+        }
+        return sectorIds.computeIfAbsent(sector, name -> {
+            sectorNames.add(name);
+            return sectorNames.size() - 1;
+        });
+    }
+
+    // Grows every column; the old buffers are released when collected
+    private void allocate(int newCapacity) {
+        ByteBuffer newStages = ByteBuffer.allocateDirect(newCapacity);
+        ByteBuffer newTypes = ByteBuffer.allocateDirect(newCapacity);
+        ByteBuffer newLive = ByteBuffer.allocateDirect(newCapacity);
+        IntBuffer newSectors = direct(newCapacity * Integer.BYTES).asIntBuffer();
+        DoubleBuffer newValues = direct(newCapacity * Double.BYTES).asDoubleBuffer();
+        LongBuffer newCreatedAt = direct(newCapacity * Long.BYTES).asLongBuffer();
+        LongBuffer newUpdatedAt = direct(newCapacity * Long.BYTES).asLongBuffer();
+
+        if (capacity > 0) {
+            newStages.put(0, stages, 0, rows);
+            newTypes.put(0, types, 0, rows);
+            newLive.put(0, live, 0, rows);
+            newSectors.put(0, sectors, 0, rows);
+            newValues.put(0, values, 0, rows);
+            newCreatedAt.put(0, createdAt, 0, rows);
+            newUpdatedAt.put(0, updatedAt, 0, rows);
+        }
+
+        stages = newStages;
+        types = newTypes;
+        live = newLive;
+        sectors = newSectors;
+        values = newValues;
+        createdAt = newCreatedAt;
+        updatedAt = newUpdatedAt;
+        capacity = newCapacity;
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    record ScanResult(long count, double sum, int scannedRows) {
+    }
+}
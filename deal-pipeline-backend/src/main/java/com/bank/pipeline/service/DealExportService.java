@@ -0,0 +1,18 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealExportFormat;
+import com.bank.pipeline.model.DealStage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface DealExportService {
+
+    void exportDeals(
+            DealStage stage,
+            String sector,
+            DealExportFormat format,
+            boolean admin,
+            OutputStream out
+    ) throws IOException;
+}
@@ -0,0 +1,164 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealExportFormat;
+import com.bank.pipeline.mapper.DealJsonWriter;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
+import com.bank.pipeline.util.CsvSupport;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams deals from a Mongo cursor straight into the response. Only one
+ * cursor batch is held at a time and the cursor is not advanced until the
+ * previous rows have been written, so a slow client slows the export down
+ * instead of growing the heap.
+ */
+@Service
+public class DealExportServiceImpl implements DealExportService {
+
+    private static final String CSV_USER_HEADER =
+            "id,title,sector,dealType,stage,ownerId,noteCount,createdAt,updatedAt";
+    private static final String CSV_ADMIN_HEADER =
+            "id,title,sector,dealType,stage,dealValue,ownerId,noteCount,createdAt,updatedAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+    private final int batchSize;
+
+    public DealExportServiceImpl(
+            MongoTemplate mongoTemplate,
+            SectorCatalogService sectorCatalog,
+            ObjectMapper objectMapper,
+            @Value("${pipeline.export.batch-size:500}") int batchSize) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.sectorCatalog = sectorCatalog;
+        this.objectMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void exportDeals(
+            DealStage stage,
+            String sector,
+            DealExportFormat format,
+            boolean admin,
+            OutputStream out) throws IOException {
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        if (stage != null) {
+            query.addCriteria(Criteria.where("stage").is(stage));
+        }
+        if (sector != null && !sector.isBlank()) {
+            // Deals store the catalog id; an unknown name can only match a raw legacy value
+            query.addCriteria(Criteria.where("sector").is(
+                    sectorCatalog.resolve(sector).map(Sector::getId).orElse(sector)));
+        }
+        if (!admin) {
+            // Never read the sensitive field for non-admin exports
+            query.fields().exclude("dealValue");
+        }
+        query.cursorBatchSize(batchSize);
+
+        try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class)) {
+            Iterator<Deal> iterator = deals.iterator();
+
+            switch (format) {
+                case CSV -> writeCsv(iterator, admin, out);
+                case NDJSON -> writeSequence(iterator, admin, objectMapper, true, out);
+                case CBOR -> writeSequence(iterator, admin, cborMapper, false, out);
+                case SMILE -> writeSequence(iterator, admin, smileMapper, false, out);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Deal> deals, boolean admin, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(admin ? CSV_ADMIN_HEADER : CSV_USER_HEADER);
+        writer.write('\n');
+
+        int rows = 0;
+        while (deals.hasNext()) {
+            Deal deal = deals.next();
+
+            writer.write(CsvSupport.escape(deal.getId()));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getTitle()));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getSector()));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getDealType()));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getStage()));
+            writer.write(',');
+            if (admin) {
+                writer.write(CsvSupport.escape(deal.getDealValue()));
+                writer.write(',');
+            }
+            writer.write(CsvSupport.escape(deal.getOwnerId()));
+            writer.write(',');
+            writer.write(String.valueOf(deal.getNotes() != null ? deal.getNotes().size() : 0));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getCreatedAt()));
+            writer.write(',');
+            writer.write(CsvSupport.escape(deal.getUpdatedAt()));
+            writer.write('\n');
+
+            if (++rows % batchSize == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    // Rows are written straight from the Deal; no per-row response DTO is built
+    private void writeSequence(
+            Iterator<Deal> deals,
+            boolean admin,
+            ObjectMapper mapper,
+            boolean newlineDelimited,
+            OutputStream out) throws IOException {
+
+        SerializerProvider provider = mapper.getSerializerProviderInstance();
+
+        try (JsonGenerator gen = mapper.createGenerator(out)) {
+            if (newlineDelimited) {
+                gen.setRootValueSeparator(new SerializedString("\n"));
+            }
+            int rows = 0;
+            while (deals.hasNext()) {
+                DealJsonWriter.write(deals.next(), admin, gen, provider);
+
+                if (++rows % batchSize == 0) {
+                    gen.flush();
+                }
+            }
+        }
+    }
+}
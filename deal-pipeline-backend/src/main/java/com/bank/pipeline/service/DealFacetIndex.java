@@ -0,0 +1,174 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFacet;
+import com.bank.pipeline.model.Deal;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * One compressed bitmap of row numbers per facet value (per stage, sector,
+ * deal type and owner). A filter is the OR of its values' bitmaps, filters
+ * are ANDed, and counts come from intersection cardinalities without
+ * materialising the intersection. Each deal keeps its row for life and freed
+ * rows are reused, so the bitmaps stay dense. Not thread-safe; the owning
+ * service guards it with a read/write lock.
+ */
+final class DealFacetIndex {
+
+    private static final DealFacet[] FACETS = DealFacet.values();
+
+    private final Map<DealFacet, Map<String, RoaringBitmap>> postings = new EnumMap<>(DealFacet.class);
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap freeRows = new RoaringBitmap();
+    private final Map<String, Row> rows = new HashMap<>();
+    private int nextRow;
+
+    DealFacetIndex() {
+        for (DealFacet facet : FACETS) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+
+    void upsert(Deal deal) {
+        Row existing = rows.get(deal.getId());
+        int row;
+        if (existing != null) {
+            unindex(existing);
+            row = existing.row();
+        } else {
+            row = allocate();
+            live.add(row);
+        }
+
+        String[] keys = keys(deal);
+        for (DealFacet facet : FACETS) {
+            String key = keys[facet.ordinal()];
+            if (key != null) {
+                postings.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(row);
+            }
+        }
+        rows.put(deal.getId(), new Row(row, keys));
+    }
+
+    void remove(String dealId) {
+        Row existing = rows.remove(dealId);
+        if (existing == null) {
+            return;
+        }
+        unindex(existing);
+        live.remove(existing.row());
+        freeRows.add(existing.row());
+    }
+
+    /** Compacts runs after a bulk load. */
+    void optimize() {
+        live.runOptimize();
+        postings.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+    }
+
+    long total(Map<DealFacet, Set<String>> filters) {
+        return matching(selections(filters), null).getLongCardinality();
+    }
+
+    /**
+     * Counts per value of one facet, with every other facet's filter applied.
+     * Values with no matches are left out unless they were selected.
+     */
+    Map<String, Long> counts(DealFacet facet, Map<DealFacet, Set<String>> filters) {
+        RoaringBitmap base = matching(selections(filters), facet);
+        Set<String> selected = filters.getOrDefault(facet, Set.of());
+
+        Map<String, Long> counts = new TreeMap<>();
+        postings.get(facet).forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(base, bitmap);
+            if (count > 0 || selected.contains(value)) {
+                counts.put(value, count);
+            }
+        });
+        selected.forEach(value -> counts.putIfAbsent(value, 0L));
+        return counts;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    long sizeInBytes() {
+        long bytes = live.getLongSizeInBytes();
+        for (Map<String, RoaringBitmap> values : postings.values()) {
+            for (RoaringBitmap bitmap : values.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    // One OR-ed bitmap per filtered facet; unknown values contribute nothing
+    private Map<DealFacet, RoaringBitmap> selections(Map<DealFacet, Set<String>> filters) {
+        Map<DealFacet, RoaringBitmap> selections = new LinkedHashMap<>();
+        filters.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                Map<String, RoaringBitmap> facetPostings = postings.get(facet);
+                selections.put(facet, RoaringBitmap.or(values.stream()
+                        .map(facetPostings::get)
+                        .filter(bitmap -> bitmap != null)
+                        .iterator()));
+            }
+        });
+        return selections;
+    }
+
+    private RoaringBitmap matching(Map<DealFacet, RoaringBitmap> selections, DealFacet skip) {
+        RoaringBitmap result = live.clone();
+        for (Map.Entry<DealFacet, RoaringBitmap> selection : selections.entrySet()) {
+            if (selection.getKey() != skip) {
+                result.and(selection.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void unindex(Row existing) {
+        for (DealFacet facet : FACETS) {
+            String key = existing.keys()[facet.ordinal()];
+            if (key == null) {
+                continue;
+            }
+            Map<String, RoaringBitmap> values = postings.get(facet);
+            RoaringBitmap bitmap = values.get(key);
+            if (bitmap != null) {
+                bitmap.remove(existing.row());
+                if (bitmap.isEmpty()) {
+                    values.remove(key);
+                }
+            }
+        }
+    }
+
+    private int allocate() {
+        if (!freeRows.isEmpty()) {
+            int row = freeRows.first();
+            freeRows.remove(row);
+            return row;
+        }
+        return nextRow++;
+    }
+
+    private static String[] keys(Deal deal) {
+        String[] keys = new String[FACETS.length];
+        keys[DealFacet.STAGE.ordinal()] = deal.getStage() == null ? null : deal.getStage().name();
+        keys[DealFacet.SECTOR.ordinal()] = deal.getSector();
+        keys[DealFacet.DEAL_TYPE.ordinal()] = deal.getDealType() == null ? null : deal.getDealType().name();
+        keys[DealFacet.OWNER.ordinal()] = deal.getOwnerId();
+        return keys;
+    }
+
+    private record Row(int row, String[] keys) {
+    }
+}
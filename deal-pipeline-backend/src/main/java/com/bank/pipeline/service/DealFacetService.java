@@ -0,0 +1,24 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFacet;
+import com.bank.pipeline.dto.DealFacetResponse;
+
+import java.util.Map;
+import java.util.Set;
+
+/** Live facet counts for the deal filter sidebar, served from in-memory bitmaps. */
+public interface DealFacetService {
+
+    /** False until the index has been built (or when it is disabled). */
+    boolean isReady();
+
+    /**
+     * Values within a facet are ORed and facets are ANDed. Each facet's counts
+     * ignore that facet's own filter, so every option shows what selecting it
+     * would add.
+     */
+    DealFacetResponse count(Map<DealFacet, Set<String>> filters);
+
+    /** Rebuilds the index from the deals collection. */
+    void rebuild();
+}
@@ -0,0 +1,133 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFacet;
+import com.bank.pipeline.dto.DealFacetResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a bitmap index of the working deals (not the archive, like the
+ * default deal lists) for facet counts. Built from Mongo on startup on a
+ * background thread, then maintained from deal change and archive events;
+ * see LiveDealIndex.
+ */
+@Service
+public class DealFacetServiceImpl implements DealFacetService {
+
+    private static final String[] FIELDS = {"stage", "sector", "dealType", "ownerId"};
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final LiveDealIndex<DealFacetIndex> index;
+
+    public DealFacetServiceImpl(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.facets.enabled:false}") boolean enabled) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.index = new LiveDealIndex<>("deal-facets-loader", "Facet index is not built",
+                this::build, DealFacetIndex::optimize);
+
+        index.gauge(meterRegistry, "deal.facets.deals", "Deals in the facet bitmap index", null,
+                DealFacetIndex::size);
+        index.gauge(meterRegistry, "deal.facets.size", "Heap used by the facet bitmaps", "bytes",
+                DealFacetIndex::sizeInBytes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            index.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        index.stop();
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    @Override
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        index.apply(target -> applyChange(target, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        index.apply(target -> batch.getChanges().forEach(change -> applyChange(target, change)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsArchived(DealsArchivedEvent event) {
+        index.apply(target -> event.getDealIds().forEach(target::remove));
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        index.apply(target -> {
+            event.getChanges().forEach(change -> applyChange(target, change));
+            event.getArchivedDeals().forEach(deal -> target.remove(deal.getId()));
+        });
+    }
+
+    @Override
+    public DealFacetResponse count(Map<DealFacet, Set<String>> filters) {
+        return index.query(current -> {
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (DealFacet facet : DealFacet.values()) {
+                facets.put(facet.getField(), current.counts(facet, filters));
+            }
+
+            return DealFacetResponse.builder()
+                    .total(current.total(filters))
+                    .facets(facets)
+                    .build();
+        });
+    }
+
+    private DealFacetIndex build() {
+        DealFacetIndex fresh = new DealFacetIndex();
+        Query query = new Query();
+        query.fields().include(FIELDS);
+        try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class)) {
+            deals.forEach(fresh::upsert);
+        }
+        return fresh;
+    }
+
+    private static void applyChange(DealFacetIndex target, DealChangedEvent change) {
+        if (change.getAfter() != null) {
+            target.upsert(change.getAfter());
+        } else {
+            target.remove(change.getDealId());
+        }
+    }
+}
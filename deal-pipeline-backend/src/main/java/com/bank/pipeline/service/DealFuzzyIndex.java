@@ -0,0 +1,238 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over deal titles for typo-tolerant search. Each title is
+ * split into words and every word contributes its padded trigrams ("acme"
+ * gives "  a", " ac", "acm", "cme", "me "); each trigram has a compressed
+ * bitmap of the rows that contain it. A query needs a minimum share of its
+ * trigrams in a title, so candidates are only gathered from the rarest
+ * postings that could still reach that share; the remaining trigrams are
+ * counted per candidate. Candidates are then verified word by word with a
+ * bounded edit distance and ranked by similarity. Rows are reused like in
+ * DealFacetIndex. Not thread-safe; the owning service guards it with a
+ * read/write lock.
+ */
+final class DealFuzzyIndex {
+
+    private final Map<String, Integer> trigramIds = new HashMap<>();
+    private final List<RoaringBitmap> postings = new ArrayList<>();
+    private final Map<String, Integer> rowsByDeal = new HashMap<>();
+    private final List<Row> rows = new ArrayList<>();
+    private final RoaringBitmap freeRows = new RoaringBitmap();
+
+    void upsert(Deal deal) {
+        remove(deal.getId());
+        String[] words = words(deal.getTitle());
+        if (words.length == 0) {
+            return;
+        }
+
+        int[] trigrams = trigrams(words).stream()
+                .mapToInt(trigram -> trigramIds.computeIfAbsent(trigram, t -> {
+                    postings.add(new RoaringBitmap());
+                    return postings.size() - 1;
+                }))
+                .sorted()
+                .toArray();
+
+        int row = allocate();
+        rows.set(row, new Row(deal.getId(), words, trigrams, deal.getStage(), deal.getSector()));
+        rowsByDeal.put(deal.getId(), row);
+        for (int trigram : trigrams) {
+            postings.get(trigram).add(row);
+        }
+    }
+
+    void remove(String dealId) {
+        Integer row = rowsByDeal.remove(dealId);
+        if (row == null) {
+            return;
+        }
+        for (int trigram : rows.get(row).trigrams()) {
+            postings.get(trigram).remove(row);
+        }
+        rows.set(row, null);
+        freeRows.add(row);
+    }
+
+    /**
+     * Verified matches, best first. A title must share at least minSimilarity
+     * of the query's trigrams, and every query word must be within a few edits
+     * of one of its words (none for two letters, one up to five, two up to
+     * nine, three beyond).
+     */
+    List<Match> search(String query, DealStage stage, String sector, double minSimilarity) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0) {
+            return List.of();
+        }
+
+        Set<String> queryTrigrams = trigrams(queryWords);
+        int needed = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.size()));
+        int[] known = queryTrigrams.stream()
+                .map(trigramIds::get)
+                .filter(id -> id != null && !postings.get(id).isEmpty())
+                .mapToInt(Integer::intValue)
+                .toArray();
+        if (known.length < needed) {
+            return List.of();
+        }
+
+        // A row sharing `needed` trigrams must hold at least one of the (known - needed + 1) rarest
+        Integer[] byRarity = Arrays.stream(known).boxed()
+                .sorted(Comparator.comparingLong(id -> postings.get(id).getLongCardinality()))
+                .toArray(Integer[]::new);
+        RoaringBitmap candidates = new RoaringBitmap();
+        for (int i = 0; i < known.length - needed + 1; i++) {
+            candidates.or(postings.get(byRarity[i]));
+        }
+
+        int queryLength = Arrays.stream(queryWords).mapToInt(String::length).sum();
+        List<Match> matches = new ArrayList<>();
+        candidates.forEach((int row) -> {
+            Row candidate = rows.get(row);
+            if ((stage != null && stage != candidate.stage())
+                    || (sector != null && !sector.equals(candidate.sector()))) {
+                return;
+            }
+
+            int shared = 0;
+            for (int trigram : known) {
+                if (Arrays.binarySearch(candidate.trigrams(), trigram) >= 0) {
+                    shared++;
+                }
+            }
+            if (shared < needed) {
+                return;
+            }
+
+            int edits = 0;
+            for (String word : queryWords) {
+                int best = closest(word, candidate.words());
+                if (best > maxEdits(word)) {
+                    return;
+                }
+                edits += best;
+            }
+
+            double trigramScore = (double) shared / queryTrigrams.size();
+            double editScore = 1.0 - (double) edits / queryLength;
+            matches.add(new Match(candidate.dealId(), (trigramScore + editScore) / 2));
+        });
+
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparing(Match::dealId));
+        return matches;
+    }
+
+    int size() {
+        return rowsByDeal.size();
+    }
+
+    long sizeInBytes() {
+        long bytes = freeRows.getLongSizeInBytes();
+        for (RoaringBitmap posting : postings) {
+            bytes += posting.getLongSizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int allocate() {
+        if (!freeRows.isEmpty()) {
+            int row = freeRows.first();
+            freeRows.remove(row);
+            return row;
+        }
+        rows.add(null);
+        return rows.size() - 1;
+    }
+
+    private static int maxEdits(String word) {
+        int length = word.length();
+        return length <= 2 ? 0 : length <= 5 ? 1 : length <= 9 ? 2 : 3;
+    }
+
+    private static int closest(String word, String[] candidates) {
+        int limit = maxEdits(word);
+        int best = Integer.MAX_VALUE;
+        for (String candidate : candidates) {
+            best = Math.min(best, editDistance(word, candidate, limit));
+            if (best == 0) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    // Levenshtein distance, giving up with limit + 1 once it cannot stay within the limit
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    // Lower-cased, accents stripped, split on anything that is not a letter or digit
+    static String[] words(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static Set<String> trigrams(String[] words) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    record Match(String dealId, double score) {
+    }
+
+    private record Row(String dealId, String[] words, int[] trigrams, DealStage stage, String sector) {
+    }
+}
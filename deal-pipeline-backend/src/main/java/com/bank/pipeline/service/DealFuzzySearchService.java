@@ -0,0 +1,20 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** Typo-tolerant title search over the working deals, ranked by similarity. */
+public interface DealFuzzySearchService {
+
+    /** False until the index has been built (or when it is disabled). */
+    boolean isReady();
+
+    /** Best matches first; the page's deals are then read from Mongo. */
+    Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    /** Rebuilds the index from the deals collection. */
+    void rebuild();
+}
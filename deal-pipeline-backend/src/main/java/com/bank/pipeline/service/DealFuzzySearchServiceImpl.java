@@ -0,0 +1,159 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a trigram index of the working deals' titles (not the archive, like
+ * search without includeArchived). Built from Mongo on startup on a
+ * background thread, then maintained from deal change and archive events;
+ * see LiveDealIndex. Matching and ranking happen in memory; only the
+ * requested page of deals is read from Mongo.
+ */
+@Service
+public class DealFuzzySearchServiceImpl implements DealFuzzySearchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+    private final boolean enabled;
+    private final double minSimilarity;
+    private final LiveDealIndex<DealFuzzyIndex> index;
+
+    public DealFuzzySearchServiceImpl(
+            MongoTemplate mongoTemplate,
+            SectorCatalogService sectorCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.search.fuzzy.enabled:false}") boolean enabled,
+            @Value("${pipeline.search.fuzzy.min-similarity:0.3}") double minSimilarity) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.sectorCatalog = sectorCatalog;
+        this.enabled = enabled;
+        this.minSimilarity = minSimilarity;
+        this.index = new LiveDealIndex<>("deal-fuzzy-loader", "Fuzzy index is not built",
+                this::build, fresh -> { });
+
+        index.gauge(meterRegistry, "deal.fuzzy.deals", "Deals in the fuzzy title index", null,
+                DealFuzzyIndex::size);
+        index.gauge(meterRegistry, "deal.fuzzy.size", "Heap used by the trigram postings", "bytes",
+                DealFuzzyIndex::sizeInBytes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            index.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        index.stop();
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    @Override
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        index.apply(target -> applyChange(target, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        index.apply(target -> batch.getChanges().forEach(change -> applyChange(target, change)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsArchived(DealsArchivedEvent event) {
+        index.apply(target -> event.getDealIds().forEach(target::remove));
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        index.apply(target -> {
+            event.getChanges().forEach(change -> applyChange(target, change));
+            event.getArchivedDeals().forEach(deal -> target.remove(deal.getId()));
+        });
+    }
+
+    @Override
+    public Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        String sectorName = sector == null || sector.isEmpty() ? null : sectorCatalog.canonicalName(sector);
+
+        List<DealFuzzyIndex.Match> matches = index.query(
+                current -> current.search(query, stage, sectorName, minSimilarity));
+
+        List<DealFuzzyIndex.Match> page = matches;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            page = matches.subList(from, Math.min(from + pageable.getPageSize(), matches.size()));
+        }
+        return new PageImpl<>(load(page, fields), pageable, matches.size());
+    }
+
+    // In rank order; a deal deleted since the lookup is simply left out
+    private List<Deal> load(List<DealFuzzyIndex.Match> page, DealFieldSet fields) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(page.stream().map(DealFuzzyIndex.Match::dealId).toList()));
+        fields.getFields().forEach(field -> query.fields().include(field));
+
+        Map<String, Deal> byId = mongoTemplate.find(query, Deal.class).stream()
+                .collect(Collectors.toMap(Deal::getId, Function.identity()));
+        return page.stream()
+                .map(match -> byId.get(match.dealId()))
+                .filter(deal -> deal != null)
+                .toList();
+    }
+
+    private DealFuzzyIndex build() {
+        DealFuzzyIndex fresh = new DealFuzzyIndex();
+        Query query = new Query();
+        query.fields().include("title", "stage", "sector");
+        try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class)) {
+            deals.forEach(fresh::upsert);
+        }
+        return fresh;
+    }
+
+    private static void applyChange(DealFuzzyIndex target, DealChangedEvent change) {
+        if (change.getAfter() != null) {
+            target.upsert(change.getAfter());
+        } else {
+            target.remove(change.getDealId());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.DealImportJob;
+import com.bank.pipeline.model.DealImportRowError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of a running import. Updated by the reader and the batch
+ * writers concurrently and copied onto the job document when it is flushed.
+ */
+final class DealImportProgress {
+
+    private final int maxReportedErrors;
+
+    final AtomicLong bytesRead = new AtomicLong();
+    final AtomicLong rowsRead = new AtomicLong();
+    final AtomicLong rowsImported = new AtomicLong();
+    final AtomicLong errorRows = new AtomicLong();
+
+    private final List<DealImportRowError> errors = new ArrayList<>();
+
+    DealImportProgress(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    synchronized void reject(long row, String message) {
+        errorRows.incrementAndGet();
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new DealImportRowError(row, message));
+        }
+    }
+
+    synchronized void applyTo(DealImportJob job) {
+        job.setBytesRead(bytesRead.get());
+        job.setRowsRead(rowsRead.get());
+        job.setRowsImported(rowsImported.get());
+        job.setErrorRows(errorRows.get());
+        job.setErrors(new ArrayList<>(errors));
+    }
+}
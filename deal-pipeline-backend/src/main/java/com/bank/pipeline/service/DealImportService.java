@@ -0,0 +1,11 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface DealImportService {
+
+    DealImportJobResponse startImport(MultipartFile file, String userId);
+
+    DealImportJobResponse getJob(String jobId);
+}
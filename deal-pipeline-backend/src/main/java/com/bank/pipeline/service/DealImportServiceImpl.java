@@ -0,0 +1,658 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealImportJobResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.exception.ResourceNotFoundException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealImportJob;
+import com.bank.pipeline.model.DealImportStatus;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.repository.DealImportJobRepository;
+import com.bank.pipeline.util.CsvSupport;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Imports deals from a CSV upload in the background. The upload is spooled to
+ * a temp file and read back one record at a time; each chunk of records is
+ * parsed and validated on a dedicated fork-join pool and handed to a writer
+ * as one unordered bulk insert. The number of chunks waiting on Mongo is
+ * bounded, so a slow database stalls the reader instead of filling the heap.
+ * The spooled file and the live counters only exist on the instance that
+ * accepted the upload, which keeps its jobs' heartbeat fresh. A queued or
+ * running job whose heartbeat has gone stale lost its instance and can never
+ * finish, so it is marked failed on startup and by every heartbeat sweep.
+ */
+@Service
+public class DealImportServiceImpl implements DealImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MISSED_HEARTBEATS_BEFORE_ORPHANED = 4;
+    private static final String ORPHANED_MESSAGE = "Import was interrupted: the instance running it stopped";
+
+    private static final String COL_TITLE = "title";
+    private static final String COL_SECTOR = "sector";
+    private static final String COL_DEAL_TYPE = "dealtype";
+    private static final String COL_STAGE = "stage";
+    private static final String COL_DEAL_VALUE = "dealvalue";
+    private static final String COL_OWNER_ID = "ownerid";
+    private static final String COL_CREATED_AT = "createdat";
+
+    private final MongoTemplate mongoTemplate;
+    private final DealImportJobRepository jobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final int maxRecordChars;
+    private final Duration orphanedAfter;
+
+    private final ForkJoinPool parsePool;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService writeExecutor;
+
+    // Jobs running on this instance; other instances only see the flushed document
+    private final Map<String, DealImportProgress> running = new ConcurrentHashMap<>();
+
+    public DealImportServiceImpl(
+            MongoTemplate mongoTemplate,
+            DealImportJobRepository jobRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${pipeline.import.batch-size:1000}") int batchSize,
+            @Value("${pipeline.import.max-in-flight-batches:4}") int maxInFlightBatches,
+            @Value("${pipeline.import.parallelism:0}") int parallelism,
+            @Value("${pipeline.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${pipeline.import.max-record-chars:1048576}") int maxRecordChars,
+            @Value("${pipeline.import.heartbeat-interval-ms:30000}") long heartbeatIntervalMs) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.maxRecordChars = maxRecordChars;
+        this.orphanedAfter = Duration.ofMillis(heartbeatIntervalMs * MISSED_HEARTBEATS_BEFORE_ORPHANED);
+
+        this.parsePool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs);
+        this.writeExecutor = Executors.newFixedThreadPool(maxInFlightBatches);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        writeExecutor.shutdownNow();
+        parsePool.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failOrphanedJobs() {
+        Instant now = Instant.now();
+        Query orphaned = Query.query(Criteria.where("status").in(DealImportStatus.QUEUED, DealImportStatus.RUNNING)
+                .orOperator(
+                        Criteria.where("heartbeatAt").lt(now.minus(orphanedAfter)),
+                        Criteria.where("heartbeatAt").exists(false)));
+
+        mongoTemplate.updateMulti(orphaned, new Update()
+                .set("status", DealImportStatus.FAILED)
+                .set("failureMessage", ORPHANED_MESSAGE)
+                .set("finishedAt", now), DealImportJob.class);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.import.heartbeat-interval-ms:30000}",
+            initialDelayString = "${pipeline.import.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!running.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(running.keySet())
+                            .and("status").in(DealImportStatus.QUEUED, DealImportStatus.RUNNING)),
+                    Update.update("heartbeatAt", Instant.now()),
+                    DealImportJob.class);
+        }
+        failOrphanedJobs();
+    }
+
+    @Override
+    public DealImportJobResponse startImport(MultipartFile file, String userId) {
+
+        if (file == null || file.isEmpty()) {
+            throw new InvalidRequestException("CSV file is required");
+        }
+
+        Path spooled;
+        try {
+            spooled = Files.createTempFile("deal-import-", ".csv");
+            // Moves the multipart temp file where possible; the upload is never read into memory
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not store the uploaded file", e);
+        }
+
+        DealImportJob job = jobRepository.save(DealImportJob.builder()
+                .fileName(file.getOriginalFilename())
+                .createdBy(userId)
+                .status(DealImportStatus.QUEUED)
+                .totalBytes(file.getSize())
+                .errors(new ArrayList<>())
+                .createdAt(Instant.now())
+                .heartbeatAt(Instant.now())
+                .build());
+
+        DealImportProgress progress = new DealImportProgress(MAX_REPORTED_ERRORS);
+        running.put(job.getId(), progress);
+
+        jobExecutor.execute(() -> {
+            try {
+                runImport(job, spooled, progress);
+            } finally {
+                running.remove(job.getId());
+                try {
+                    Files.deleteIfExists(spooled);
+                } catch (IOException ignored) {
+                    // temp directory cleanup will pick it up
+                }
+            }
+        });
+
+        return toResponse(job, Instant.now());
+    }
+
+    @Override
+    public DealImportJobResponse getJob(String jobId) {
+
+        DealImportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+
+        DealImportProgress progress = running.get(jobId);
+        if (progress != null && job.getStatus() == DealImportStatus.RUNNING) {
+            progress.applyTo(job);
+        }
+
+        return toResponse(job, Instant.now());
+    }
+
+    void runImport(DealImportJob job, Path file, DealImportProgress progress) {
+
+        job.setStatus(DealImportStatus.RUNNING);
+        job.setStartedAt(Instant.now());
+        job.setHeartbeatAt(Instant.now());
+        jobRepository.save(job);
+
+        Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        AtomicReference<RuntimeException> writeFailure = new AtomicReference<>();
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(file), progress.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+
+            RecordReader csv = new RecordReader(reader, maxRecordChars);
+            String header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> columns = columnIndexes(CsvSupport.parseRecord(stripBom(header)));
+
+            Instant now = Instant.now();
+            long rowNumber = 0;
+            List<String> records = new ArrayList<>(batchSize);
+            String record;
+
+            while ((record = csv.next()) != null) {
+                if (record.isBlank()) {
+                    continue;
+                }
+                records.add(record);
+
+                if (records.size() == batchSize) {
+                    submitChunk(records, rowNumber, columns, job.getCreatedBy(), now,
+                            progress, inFlight, writeFailure);
+                    rowNumber += records.size();
+                    records = new ArrayList<>(batchSize);
+                    flush(job, progress);
+                }
+            }
+            if (!records.isEmpty()) {
+                submitChunk(records, rowNumber, columns, job.getCreatedBy(), now,
+                        progress, inFlight, writeFailure);
+            }
+
+            // Wait for the last batches to land
+            inFlight.acquire(maxInFlightBatches);
+            inFlight.release(maxInFlightBatches);
+
+            if (writeFailure.get() != null) {
+                throw writeFailure.get();
+            }
+            job.setStatus(DealImportStatus.COMPLETED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.setStatus(DealImportStatus.FAILED);
+            job.setFailureMessage("Import was interrupted");
+        } catch (IOException | RuntimeException e) {
+            job.setStatus(DealImportStatus.FAILED);
+            job.setFailureMessage(e.getMessage());
+            // Let batches already handed to the writers finish so the counters are final
+            inFlight.acquireUninterruptibly(maxInFlightBatches);
+            inFlight.release(maxInFlightBatches);
+        }
+
+        progress.applyTo(job);
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+    }
+
+    private void submitChunk(
+            List<String> records,
+            long firstRowOffset,
+            Map<String, Integer> columns,
+            String userId,
+            Instant now,
+            DealImportProgress progress,
+            Semaphore inFlight,
+            AtomicReference<RuntimeException> writeFailure) throws InterruptedException {
+
+        if (writeFailure.get() != null) {
+            throw writeFailure.get();
+        }
+
+        RowParser parser = new RowParser(columns, userId, now);
+        ParsedRow[] parsed = parsePool.submit(() -> IntStream.range(0, records.size())
+                        .parallel()
+                        .mapToObj(i -> parser.parse(records.get(i), firstRowOffset + i + 1))
+                        .toArray(ParsedRow[]::new))
+                .join();
+
+        progress.rowsRead.addAndGet(records.size());
+
+        List<Deal> deals = new ArrayList<>(parsed.length);
+        List<Long> rows = new ArrayList<>(parsed.length);
+        for (ParsedRow row : parsed) {
+            if (row.error != null) {
+                progress.reject(row.rowNumber, row.error);
+            } else {
+                deals.add(row.deal);
+                rows.add(row.rowNumber);
+            }
+        }
+        if (deals.isEmpty()) {
+            return;
+        }
+
+        // Blocks the reader once maxInFlightBatches are waiting on Mongo
+        inFlight.acquire();
+        try {
+            writeExecutor.execute(() -> {
+                try {
+                    insertBatch(deals, rows, userId, now, progress);
+                } catch (RuntimeException e) {
+                    writeFailure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void insertBatch(
+            List<Deal> deals,
+            List<Long> rows,
+            String userId,
+            Instant now,
+            DealImportProgress progress) {
+
+        String[] failures = new String[deals.size()];
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class)
+                    .insert(deals)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures[error.getIndex()] = error.getMessage();
+            }
+        }
+
+        List<DealChangedEvent> created = new ArrayList<>(deals.size());
+        for (int i = 0; i < deals.size(); i++) {
+            if (failures[i] != null) {
+                progress.reject(rows.get(i), failures[i]);
+            } else {
+                created.add(new DealChangedEvent(DealChangeType.CREATED, null, deals.get(i), userId, now));
+            }
+        }
+
+        progress.rowsImported.addAndGet(created.size());
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new DealBatchChangedEvent(created));
+        }
+    }
+
+    private void flush(DealImportJob job, DealImportProgress progress) {
+        progress.applyTo(job);
+        // The whole document is saved, so the heartbeat is carried forward rather than overwritten
+        job.setHeartbeatAt(Instant.now());
+        jobRepository.save(job);
+    }
+
+    private Map<String, Integer> columnIndexes(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String required : List.of(COL_TITLE, COL_SECTOR, COL_DEAL_TYPE)) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private DealImportJobResponse toResponse(DealImportJob job, Instant now) {
+
+        double rowsPerSecond = 0;
+        Long etaSeconds = null;
+
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+            double elapsed = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1) / 1000.0;
+            rowsPerSecond = job.getRowsRead() / elapsed;
+
+            if (job.getStatus() == DealImportStatus.COMPLETED) {
+                etaSeconds = 0L;
+            } else if (job.getStatus() == DealImportStatus.RUNNING && job.getBytesRead() > 0) {
+                // Rows vary in length, so the estimate is driven by bytes rather than rows
+                double bytesPerSecond = job.getBytesRead() / elapsed;
+                long remaining = Math.max(job.getTotalBytes() - job.getBytesRead(), 0);
+                etaSeconds = (long) Math.ceil(remaining / bytesPerSecond);
+            }
+        }
+
+        return DealImportJobResponse.builder()
+                .jobId(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .totalBytes(job.getTotalBytes())
+                .bytesRead(job.getBytesRead())
+                .rowsRead(job.getRowsRead())
+                .rowsImported(job.getRowsImported())
+                .errorRows(job.getErrorRows())
+                .rowsPerSecond(rowsPerSecond)
+                .etaSeconds(etaSeconds)
+                .errors(job.getErrors())
+                .failureMessage(job.getFailureMessage())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    private static final class ParsedRow {
+
+        private final long rowNumber;
+        private final Deal deal;
+        private final String error;
+
+        private ParsedRow(long rowNumber, Deal deal, String error) {
+            this.rowNumber = rowNumber;
+            this.deal = deal;
+            this.error = error;
+        }
+    }
+
+    /** Maps one CSV record to a deal; shared by the parse workers, so it holds no mutable state. */
+    private static final class RowParser {
+
+        private final Map<String, Integer> columns;
+        private final String userId;
+        private final Instant now;
+
+        private RowParser(Map<String, Integer> columns, String userId, Instant now) {
+            this.columns = columns;
+            this.userId = userId;
+            this.now = now;
+        }
+
+        private ParsedRow parse(String record, long rowNumber) {
+            List<String> fields = CsvSupport.parseRecord(record);
+
+            if (fields.size() > columns.size()) {
+                return new ParsedRow(rowNumber, null,
+                        "Expected " + columns.size() + " columns but found " + fields.size());
+            }
+
+            String title = field(fields, COL_TITLE);
+            if (title == null) {
+                return new ParsedRow(rowNumber, null, "Title is required");
+            }
+            String sector = field(fields, COL_SECTOR);
+            if (sector == null) {
+                return new ParsedRow(rowNumber, null, "Sector is required");
+            }
+
+            String rawType = field(fields, COL_DEAL_TYPE);
+            DealType dealType = parseEnum(DealType.class, rawType);
+            if (dealType == null) {
+                return new ParsedRow(rowNumber, null, "Unknown deal type: " + rawType);
+            }
+
+            String rawStage = field(fields, COL_STAGE);
+            DealStage stage = rawStage == null ? DealStage.LEAD : parseEnum(DealStage.class, rawStage);
+            if (stage == null) {
+                return new ParsedRow(rowNumber, null, "Unknown stage: " + rawStage);
+            }
+
+            Double dealValue = null;
+            String rawValue = field(fields, COL_DEAL_VALUE);
+            if (rawValue != null) {
+                try {
+                    dealValue = Double.valueOf(rawValue);
+                } catch (NumberFormatException e) {
+                    return new ParsedRow(rowNumber, null, "Invalid deal value: " + rawValue);
+                }
+                if (dealValue < 0 || dealValue.isNaN() || dealValue.isInfinite()) {
+                    return new ParsedRow(rowNumber, null, "Deal value must not be negative");
+                }
+            }
+
+            Instant createdAt = now;
+            String rawCreatedAt = field(fields, COL_CREATED_AT);
+            if (rawCreatedAt != null) {
+                createdAt = parseInstant(rawCreatedAt);
+                if (createdAt == null) {
+                    return new ParsedRow(rowNumber, null, "Invalid createdAt: " + rawCreatedAt);
+                }
+            }
+
+            String ownerId = field(fields, COL_OWNER_ID);
+
+            Deal deal = Deal.builder()
+                    // Ids are assigned up front so failed inserts can be traced back to a row
+                    .id(new ObjectId().toHexString())
+                    .title(title)
+                    .sector(sector)
+                    .dealType(dealType)
+                    .stage(stage)
+                    // The legacy export has no stage history; the creation date is the best guess
+                    .stageEnteredAt(createdAt)
+                    .dealValue(dealValue)
+                    .notes(new ArrayList<>())
+                    .ownerId(ownerId != null ? ownerId : userId)
+                    .createdAt(createdAt)
+                    .updatedAt(now)
+                    .build();
+
+            return new ParsedRow(rowNumber, deal, null);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // Accepts "Due Diligence", "due-diligence" and DUE_DILIGENCE alike
+        private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+            if (value == null) {
+                return null;
+            }
+            String normalized = value.trim()
+                    .toUpperCase(Locale.ROOT)
+                    .replace(' ', '_')
+                    .replace('-', '_');
+            try {
+                return Enum.valueOf(type, normalized);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static Instant parseInstant(String value) {
+            try {
+                return Instant.parse(value);
+            } catch (DateTimeParseException e) {
+                try {
+                    return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+                } catch (DateTimeParseException ignored) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /*
+     * Reads one CSV record at a time. A quoted field may span lines, so the
+     * record ends at the first line break outside quotes; quote state is tracked
+     * per character as it is read. An unbalanced quote fails the job once the
+     * record grows past maxRecordChars instead of buffering the rest of the file.
+     */
+    private static final class RecordReader {
+
+        private final BufferedReader reader;
+        private final int maxRecordChars;
+        private final StringBuilder record = new StringBuilder();
+        private long lineNumber;
+
+        private RecordReader(BufferedReader reader, int maxRecordChars) {
+            this.reader = reader;
+            this.maxRecordChars = maxRecordChars;
+        }
+
+        private String next() throws IOException {
+            record.setLength(0);
+            long startLine = ++lineNumber;
+            boolean quoted = false;
+            int c;
+
+            while ((c = reader.read()) != -1) {
+                if (c == '\r') {
+                    // CRLF line endings; a CR inside a quoted field is dropped as well
+                    continue;
+                }
+                if (c == '\n') {
+                    if (!quoted) {
+                        return record.toString();
+                    }
+                    lineNumber++;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                }
+
+                if (record.length() >= maxRecordChars) {
+                    throw new IllegalArgumentException("CSV record starting on line " + startLine
+                            + " is longer than " + maxRecordChars + " characters; check for an unbalanced quote");
+                }
+                record.append((char) c);
+            }
+
+            if (quoted) {
+                throw new IllegalArgumentException(
+                        "CSV record starting on line " + startLine + " has an unterminated quoted field");
+            }
+            return record.length() == 0 ? null : record.toString();
+        }
+    }
+
+    /** Reports bytes consumed from the spooled file so the ETA can be derived from file size. */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.pipeline.service;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Builds a derived deal index on a background thread. A failed build (Mongo
+ * unavailable, an unreadable index) is retried with exponential backoff
+ * instead of leaving the index down until a restart; once built, the index
+ * is checked every CHECK_INTERVAL and rebuilt the same way if it has become
+ * unready, e.g. after a write failure.
+ */
+final class DealIndexLoader {
+
+    static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration CHECK_INTERVAL = Duration.ofSeconds(30);
+
+    private final String threadName;
+    private final BooleanSupplier ready;
+    private final Build build;
+
+    private ScheduledExecutorService executor;
+    private Duration backoff = INITIAL_BACKOFF;
+
+    DealIndexLoader(String threadName, BooleanSupplier ready, Build build) {
+        this.threadName = threadName;
+        this.ready = ready;
+        this.build = build;
+    }
+
+    synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::attempt);
+    }
+
+    synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Only ever runs on the loader thread
+    private void attempt() {
+        Duration next = CHECK_INTERVAL;
+        if (!ready.getAsBoolean()) {
+            try {
+                build.run();
+                backoff = INITIAL_BACKOFF;
+            } catch (Exception e) {
+                next = backoff;
+                Duration doubled = backoff.multipliedBy(2);
+                backoff = doubled.compareTo(MAX_BACKOFF) < 0 ? doubled : MAX_BACKOFF;
+            }
+        }
+        try {
+            executor.schedule(this::attempt, next.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    @FunctionalInterface
+    interface Build {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealCommand;
+import com.bank.pipeline.dto.DealIngestResult;
+
+import java.util.List;
+
+public interface DealIngestService {
+
+    DealIngestResult applyCommands(List<DealCommand> commands);
+}
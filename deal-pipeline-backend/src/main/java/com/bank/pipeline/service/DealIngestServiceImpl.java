@@ -0,0 +1,278 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealCommand;
+import com.bank.pipeline.dto.DealIngestResult;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a poll's worth of deal commands. Commands are deduplicated by
+ * external key (the newest wins), checked against the stored source timestamp
+ * and written as upserts in a single unordered bulk write. The pre-image read
+ * keeps change events (stage history, outbox) accurate for ingested deals.
+ * Commands for a deal that has since been archived are rejected: upserting
+ * them would bring the closed deal back as a second, live copy.
+ */
+@Service
+@RequiredArgsConstructor
+public class DealIngestServiceImpl implements DealIngestService {
+
+    static final String INGEST_ACTOR = "kafka-ingest";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SectorCatalogService sectorCatalog;
+
+    @Override
+    public DealIngestResult applyCommands(List<DealCommand> commands) {
+
+        int invalid = 0;
+        int duplicates = 0;
+        Map<String, DealCommand> latest = new LinkedHashMap<>();
+
+        for (DealCommand command : commands) {
+            if (!isValid(command)) {
+                invalid++;
+                continue;
+            }
+            DealCommand previous = latest.get(command.getExternalKey());
+            if (previous != null) {
+                duplicates++;
+                if (!supersedes(command, previous)) {
+                    continue;
+                }
+            }
+            latest.put(command.getExternalKey(), command);
+        }
+
+        DealIngestResult.DealIngestResultBuilder result = DealIngestResult.builder()
+                .received(commands.size())
+                .invalid(invalid)
+                .duplicates(duplicates);
+
+        if (latest.isEmpty()) {
+            return result.build();
+        }
+
+        Map<String, Deal> existing = findExisting(latest.keySet());
+        Set<String> archived = findArchived(latest.keySet(), existing.keySet());
+        Instant now = Instant.now();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class);
+        List<DealCommand> applied = new ArrayList<>(latest.size());
+        int stale = 0;
+
+        for (DealCommand command : latest.values()) {
+            if (archived.contains(command.getExternalKey())) {
+                continue;
+            }
+            Deal before = existing.get(command.getExternalKey());
+            if (isStale(command, before)) {
+                stale++;
+                continue;
+            }
+            bulk.upsert(Query.query(Criteria.where("externalKey").is(command.getExternalKey())),
+                    toUpdate(command, before, now));
+            applied.add(command);
+        }
+        result.stale(stale).archived(archived.size());
+
+        if (applied.isEmpty()) {
+            return result.build();
+        }
+
+        BulkWriteResult writeResult;
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            writeResult = bulk.execute();
+        } catch (BulkOperationException e) {
+            // Per-document rejections are permanent; anything else propagates and the poll is retried
+            writeResult = e.getResult();
+            e.getErrors().stream().map(BulkWriteError::getIndex).forEach(failedIndexes::add);
+        }
+
+        Map<Integer, String> upsertedIds = new HashMap<>();
+        for (BulkWriteUpsert upsert : writeResult.getUpserts()) {
+            upsertedIds.put(upsert.getIndex(), upsert.getId().asObjectId().getValue().toHexString());
+        }
+
+        int created = 0;
+        int updated = 0;
+        List<DealChangedEvent> changes = new ArrayList<>(applied.size());
+
+        for (int i = 0; i < applied.size(); i++) {
+            if (failedIndexes.contains(i)) {
+                continue;
+            }
+            DealCommand command = applied.get(i);
+            Deal before = existing.get(command.getExternalKey());
+
+            if (before == null) {
+                created++;
+                changes.add(new DealChangedEvent(DealChangeType.CREATED, null,
+                        newDeal(command, upsertedIds.get(i), now), INGEST_ACTOR, now));
+            } else {
+                updated++;
+                changes.add(new DealChangedEvent(DealChangeType.UPDATED, before,
+                        updatedDeal(before, command, now), INGEST_ACTOR, now));
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new DealBatchChangedEvent(changes));
+        }
+
+        return result
+                .created(created)
+                .updated(updated)
+                .failed(failedIndexes.size())
+                .build();
+    }
+
+    private Map<String, Deal> findExisting(Set<String> externalKeys) {
+        Query query = Query.query(Criteria.where("externalKey").in(externalKeys));
+        query.fields().exclude("notes");
+
+        Map<String, Deal> existing = new HashMap<>();
+        for (Deal deal : mongoTemplate.find(query, Deal.class)) {
+            existing.put(deal.getExternalKey(), deal);
+        }
+        return existing;
+    }
+
+    // Archived deals keep their external key in deals_archive, where the live lookup cannot see them
+    private Set<String> findArchived(Set<String> externalKeys, Set<String> live) {
+        Set<String> missing = new HashSet<>(externalKeys);
+        missing.removeAll(live);
+        if (missing.isEmpty()) {
+            return Set.of();
+        }
+
+        Query query = Query.query(Criteria.where("externalKey").in(missing));
+        query.fields().include("externalKey");
+
+        Set<String> archived = new HashSet<>();
+        for (Deal deal : mongoTemplate.find(query, Deal.class, DealArchiveService.ARCHIVE_COLLECTION)) {
+            archived.add(deal.getExternalKey());
+        }
+        return archived;
+    }
+
+    private Update toUpdate(DealCommand command, Deal before, Instant now) {
+        Update update = new Update()
+                .set("title", command.getTitle())
+                // Raw updates skip the mapping callbacks, so the catalog id is set here
+                .set("sector", sectorCatalog.idFor(command.getSector()))
+                .set("dealType", command.getDealType())
+                .set("ownerId", command.getOwnerId())
+                .set("externalUpdatedAt", command.getOccurredAt())
+                .set("updatedAt", now)
+                .setOnInsert("notes", new ArrayList<>())
+                .setOnInsert("createdAt", now);
+
+        if (command.getDealValue() != null) {
+            update.set("dealValue", command.getDealValue());
+        }
+
+        if (command.getStage() != null) {
+            update.set("stage", command.getStage());
+            if (before == null || before.getStage() != command.getStage()) {
+                update.set("stageEnteredAt", now);
+            }
+        } else {
+            update.setOnInsert("stage", DealStage.LEAD)
+                    .setOnInsert("stageEnteredAt", now);
+        }
+        return update;
+    }
+
+    private Deal newDeal(DealCommand command, String id, Instant now) {
+        return Deal.builder()
+                .id(id)
+                .externalKey(command.getExternalKey())
+                .externalUpdatedAt(command.getOccurredAt())
+                .title(command.getTitle())
+                .sector(sectorCatalog.canonicalName(command.getSector()))
+                .dealType(command.getDealType())
+                .stage(command.getStage() != null ? command.getStage() : DealStage.LEAD)
+                .stageEnteredAt(now)
+                .dealValue(command.getDealValue())
+                .ownerId(command.getOwnerId())
+                .notes(new ArrayList<>())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private Deal updatedDeal(Deal before, DealCommand command, Instant now) {
+        Deal.DealBuilder after = before.toBuilder()
+                .title(command.getTitle())
+                .sector(sectorCatalog.canonicalName(command.getSector()))
+                .dealType(command.getDealType())
+                .ownerId(command.getOwnerId())
+                .externalUpdatedAt(command.getOccurredAt())
+                .updatedAt(now);
+
+        if (command.getDealValue() != null) {
+            after.dealValue(command.getDealValue());
+        }
+        if (command.getStage() != null && command.getStage() != before.getStage()) {
+            after.stage(command.getStage()).stageEnteredAt(now);
+        }
+        return after.build();
+    }
+
+    // Within a poll, records for one key arrive in partition order; the source timestamp breaks ties
+    private boolean supersedes(DealCommand command, DealCommand previous) {
+        if (command.getOccurredAt() == null || previous.getOccurredAt() == null) {
+            return true;
+        }
+        return !command.getOccurredAt().isBefore(previous.getOccurredAt());
+    }
+
+    private boolean isStale(DealCommand command, Deal before) {
+        return before != null
+                && before.getExternalUpdatedAt() != null
+                && command.getOccurredAt() != null
+                // Equal timestamps are a redelivery of a command already applied
+                && !command.getOccurredAt().isAfter(before.getExternalUpdatedAt());
+    }
+
+    private boolean isValid(DealCommand command) {
+        return command != null
+                && hasText(command.getExternalKey())
+                && hasText(command.getTitle())
+                && hasText(command.getSector())
+                && hasText(command.getOwnerId())
+                && command.getDealType() != null
+                && (command.getDealValue() == null || command.getDealValue() >= 0);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+/** Deal reads that keep embedded notes as raw BSON until they are accessed. */
+public interface DealLazyReadService {
+
+    /** True when deal detail and list reads should use the lazy path. */
+    boolean isEnabled();
+
+    Optional<Deal> findById(String dealId);
+
+    /** sector is the stored value (the catalog id), not the name. */
+    Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable);
+
+    Page<Deal> findByOwner(String ownerId, Pageable pageable);
+}
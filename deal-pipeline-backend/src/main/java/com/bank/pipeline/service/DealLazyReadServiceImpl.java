@@ -0,0 +1,120 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads deals as RawBsonDocument and maps the top-level fields by hand, so
+ * the notes array is never decoded into DealNote objects unless something
+ * touches Deal.getNotes(). DealJsonWriter copies untouched notes straight
+ * from the raw bytes. Queries and sorts still go through Spring Data's
+ * QueryMapper, so ids and enums are mapped exactly as the repository does.
+ */
+@Service
+public class DealLazyReadServiceImpl implements DealLazyReadService {
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final SectorCatalogService sectorCatalog;
+    private final boolean enabled;
+
+    public DealLazyReadServiceImpl(
+            MongoTemplate mongoTemplate,
+            SectorCatalogService sectorCatalog,
+            @Value("${pipeline.read.lazy-notes:false}") boolean enabled) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.sectorCatalog = sectorCatalog;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Optional<Deal> findById(String dealId) {
+        RawBsonDocument document = collection()
+                .find(mapped(Query.query(Criteria.where("id").is(dealId))))
+                .first();
+        return Optional.ofNullable(document).map(this::toDeal);
+    }
+
+    @Override
+    public Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable) {
+        Criteria criteria = new Criteria();
+        if (stage != null) {
+            criteria.and("stage").is(stage);
+        }
+        if (sector != null) {
+            criteria.and("sector").is(sector);
+        }
+        return find(criteria, pageable);
+    }
+
+    @Override
+    public Page<Deal> findByOwner(String ownerId, Pageable pageable) {
+        return find(Criteria.where("ownerId").is(ownerId), pageable);
+    }
+
+    private Page<Deal> find(Criteria criteria, Pageable pageable) {
+        Query query = Query.query(criteria).with(pageable.getSort());
+
+        FindIterable<RawBsonDocument> documents = collection().find(mapped(query));
+        if (pageable.getSort().isSorted()) {
+            documents = documents.sort(queryMapper.getMappedSort(query.getSortObject(), entity()));
+        }
+        if (pageable.isPaged()) {
+            documents = documents.skip((int) pageable.getOffset()).limit(pageable.getPageSize());
+        }
+
+        List<Deal> deals = new ArrayList<>();
+        for (RawBsonDocument document : documents) {
+            deals.add(toDeal(document));
+        }
+
+        return PageableExecutionUtils.getPage(deals, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), Deal.class));
+    }
+
+    // Raw reads skip the mapping callbacks, so the stored sector id is resolved here
+    private Deal toDeal(RawBsonDocument document) {
+        Deal deal = DealMapper.fromRawBson(document);
+        deal.setSector(sectorCatalog.nameOf(deal.getSector()));
+        return deal;
+    }
+
+    private Document mapped(Query query) {
+        return queryMapper.getMappedObject(query.getQueryObject(), entity());
+    }
+
+    private MongoPersistentEntity<?> entity() {
+        return mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Deal.class);
+    }
+
+    private MongoCollection<RawBsonDocument> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Deal.class))
+                .withDocumentClass(RawBsonDocument.class);
+    }
+}
@@ -0,0 +1,313 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealListView;
+import com.bank.pipeline.model.ProjectorCheckpoint;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps deal_list_view in step with deals by tailing the deals change stream.
+ * One replica projects at a time (lease lock, renewed between batches while
+ * rebuilding and streaming) so changes are applied in order. The resume token
+ * is checkpointed after each batch; without a usable checkpoint the view is
+ * rebuilt from a full scan and the stream picks up from the point it was
+ * opened. Change streams need a replica set.
+ */
+@Component
+@ConditionalOnProperty(name = "pipeline.read-model.projector.enabled", havingValue = "true")
+public class DealListViewProjector {
+
+    static final String PROJECTOR_NAME = "deal-list-view";
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+    private static final Duration RENEW_INTERVAL = Duration.ofSeconds(10);
+
+    // ChangeStreamHistoryLost / ChangeStreamFatalError: the checkpoint fell off the oplog
+    private static final List<Integer> RESUME_FAILED_CODES = List.of(286, 280);
+
+    private final MongoTemplate mongoTemplate;
+    private final DistributedLockService lockService;
+    private final SectorCatalogService sectorCatalog;
+    private final int batchSize;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private volatile boolean running;
+    private Thread worker;
+
+    public DealListViewProjector(
+            MongoTemplate mongoTemplate,
+            DistributedLockService lockService,
+            SectorCatalogService sectorCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.read-model.projector.batch-size:500}") int batchSize) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.lockService = lockService;
+        this.sectorCatalog = sectorCatalog;
+        this.batchSize = batchSize;
+
+        Gauge.builder("deal.list-view.projector.lag", lagMillis, AtomicLong::get)
+                .description("Time between a deal change and its projection into deal_list_view")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "deal-list-view-projector");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (lockService.tryAcquire(PROJECTOR_NAME, LEASE)) {
+                    try {
+                        project();
+                    } finally {
+                        lockService.release(PROJECTOR_NAME);
+                    }
+                } else {
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                // Mongo unavailable or the stream broke; start over from the last checkpoint
+                pause();
+            }
+        }
+    }
+
+    void project() {
+        ProjectorCheckpoint checkpoint = mongoTemplate.findById(PROJECTOR_NAME, ProjectorCheckpoint.class);
+        BsonDocument resumeToken = checkpoint == null || checkpoint.getResumeToken() == null
+                ? null
+                : BsonDocument.parse(checkpoint.getResumeToken());
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Deal.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .batchSize(batchSize)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(stream, resumeToken != null);
+        if (cursor == null) {
+            return;
+        }
+
+        try (cursor) {
+            // The stream is opened first so nothing written during the scan is missed
+            if (resumeToken == null && !rebuild(cursor.getResumeToken())) {
+                return;
+            }
+            stream(cursor);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(
+            ChangeStreamIterable<Document> stream, boolean resuming) {
+        try {
+            return stream.cursor();
+        } catch (MongoCommandException e) {
+            if (resuming && RESUME_FAILED_CODES.contains(e.getErrorCode())) {
+                // Drop the stale checkpoint; the next round rebuilds
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(PROJECTOR_NAME)), ProjectorCheckpoint.class);
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private void stream(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        Map<BsonValue, ChangeStreamDocument<Document>> pending = new LinkedHashMap<>();
+        ChangeStreamDocument<Document> last = null;
+        Instant renewAt = Instant.now().plus(RENEW_INTERVAL);
+
+        while (running) {
+            ChangeStreamDocument<Document> change = cursor.tryNext();
+
+            if (change != null) {
+                if (change.getOperationType() == OperationType.INVALIDATE
+                        || change.getOperationType() == OperationType.DROP) {
+                    mongoTemplate.remove(Query.query(Criteria.where("_id").is(PROJECTOR_NAME)), ProjectorCheckpoint.class);
+                    return;
+                }
+                if (change.getDocumentKey() != null) {
+                    // Only the latest change per deal in a batch matters
+                    BsonValue key = change.getDocumentKey().get("_id");
+                    pending.remove(key);
+                    pending.put(key, change);
+                }
+                last = change;
+            }
+
+            if (last != null && (pending.size() >= batchSize || change == null)) {
+                apply(pending.values());
+                saveCheckpoint(last.getResumeToken(), clusterTime(last));
+                lagMillis.set(Math.max(Duration.between(clusterTime(last), Instant.now()).toMillis(), 0));
+                pending.clear();
+                last = null;
+            } else if (change == null) {
+                // Caught up with the stream
+                lagMillis.set(0);
+            }
+
+            if (Instant.now().isAfter(renewAt)) {
+                if (!lockService.tryAcquire(PROJECTOR_NAME, LEASE)) {
+                    return;
+                }
+                renewAt = Instant.now().plus(RENEW_INTERVAL);
+            }
+        }
+    }
+
+    void apply(Collection<ChangeStreamDocument<Document>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealListView.class);
+
+        for (ChangeStreamDocument<Document> change : changes) {
+            BsonValue key = change.getDocumentKey().get("_id");
+            Object id = key.isObjectId() ? key.asObjectId().getValue().toHexString() : key.asString().getValue();
+            Query byId = Query.query(Criteria.where("_id").is(id));
+
+            // A null full document means the deal was deleted before the lookup ran
+            Document fullDocument = change.getFullDocument();
+            if (change.getOperationType() == OperationType.DELETE || fullDocument == null) {
+                bulk.remove(byId);
+            } else {
+                // Converting directly skips the mapping callbacks, so the sector id is resolved here
+                Deal deal = mongoTemplate.getConverter().read(Deal.class, fullDocument);
+                deal.setSector(sectorCatalog.nameOf(deal.getSector()));
+                bulk.replaceOne(byId, DealMapper.toListView(deal, now), FindAndReplaceOptions.options().upsert());
+            }
+        }
+        bulk.execute();
+    }
+
+    // False when the lease was lost part-way; another replica may be rebuilding by then
+    private boolean rebuild(BsonDocument resumeToken) {
+        Instant startedAt = Instant.now();
+        Instant renewAt = startedAt.plus(RENEW_INTERVAL);
+        Query all = new Query();
+        all.cursorBatchSize(batchSize);
+
+        List<DealListView> batch = new ArrayList<>(batchSize);
+        try (Stream<Deal> deals = mongoTemplate.stream(all, Deal.class)) {
+            Iterator<Deal> it = deals.iterator();
+            while (it.hasNext()) {
+                batch.add(DealMapper.toListView(it.next(), startedAt));
+                if (batch.size() == batchSize) {
+                    replaceAll(batch);
+                    batch.clear();
+
+                    if (Instant.now().isAfter(renewAt)) {
+                        if (!running || !lockService.tryAcquire(PROJECTOR_NAME, LEASE)) {
+                            return false;
+                        }
+                        renewAt = Instant.now().plus(RENEW_INTERVAL);
+                    }
+                }
+            }
+        }
+        replaceAll(batch);
+
+        // The sweep below deletes by projectedAt, so only run it while still holding the lease
+        if (!lockService.tryAcquire(PROJECTOR_NAME, LEASE)) {
+            return false;
+        }
+
+        // Anything not touched by the scan belongs to a deal that no longer exists
+        mongoTemplate.remove(Query.query(Criteria.where("projectedAt").lt(startedAt)), DealListView.class);
+
+        if (resumeToken != null) {
+            saveCheckpoint(resumeToken, startedAt);
+        }
+        return true;
+    }
+
+    private void replaceAll(List<DealListView> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealListView.class);
+        for (DealListView view : views) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(view.getId())), view,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    private void saveCheckpoint(BsonDocument resumeToken, Instant lastEventAt) {
+        mongoTemplate.save(ProjectorCheckpoint.builder()
+                .id(PROJECTOR_NAME)
+                .resumeToken(resumeToken.toJson())
+                .lastEventAt(lastEventAt)
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    private static Instant clusterTime(ChangeStreamDocument<Document> change) {
+        return change.getClusterTime() == null
+                ? Instant.now()
+                : Instant.ofEpochSecond(change.getClusterTime().getTime());
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RENEW_INTERVAL.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
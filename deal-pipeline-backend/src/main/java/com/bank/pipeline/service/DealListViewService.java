@@ -0,0 +1,28 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** List queries against the deal_list_view read model. */
+public interface DealListViewService {
+
+    /** True when list reads should be served from the read model instead of deals. */
+    boolean isReadEnabled();
+
+    Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable);
+
+    Page<Deal> findByOwner(String ownerId, Pageable pageable);
+
+    Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable);
+
+    // Variants that only read the requested fields from the view
+
+    Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    Page<Deal> findByOwner(String ownerId, Pageable pageable, DealFieldSet fields);
+
+    Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+}
@@ -0,0 +1,129 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealListView;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+@Service
+public class DealListViewServiceImpl implements DealListViewService {
+
+    // API sort properties that have a precomputed key in the read model
+    private static final Map<String, String> SORT_KEYS = Map.of(
+            "title", "titleSortKey",
+            "sector", "sectorSortKey",
+            "stage", "stageOrder"
+    );
+
+    // Matches the trailing updatedAt of every list index
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean readEnabled;
+
+    public DealListViewServiceImpl(
+            MongoTemplate mongoTemplate,
+            @Value("${pipeline.read-model.reads-enabled:false}") boolean readEnabled) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.readEnabled = readEnabled;
+    }
+
+    @Override
+    public boolean isReadEnabled() {
+        return readEnabled;
+    }
+
+    @Override
+    public Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable) {
+        return findFiltered(stage, sector, pageable, DealFieldSet.ALL);
+    }
+
+    @Override
+    public Page<Deal> findByOwner(String ownerId, Pageable pageable) {
+        return findByOwner(ownerId, pageable, DealFieldSet.ALL);
+    }
+
+    @Override
+    public Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable) {
+        return search(query, stage, sector, pageable, DealFieldSet.ALL);
+    }
+
+    @Override
+    public Page<Deal> findFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        Criteria criteria = new Criteria();
+        if (stage != null) {
+            criteria.and("stage").is(stage);
+        }
+        if (sector != null) {
+            criteria.and("sector").is(sector);
+        }
+        return find(criteria, pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> findByOwner(String ownerId, Pageable pageable, DealFieldSet fields) {
+        return find(Criteria.where("ownerId").is(ownerId), pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> search(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        Criteria criteria = new Criteria();
+        if (query != null && !query.isBlank()) {
+            // Sort keys are already lower-cased, so a plain contains match is case-insensitive
+            Pattern contains = Pattern.compile(Pattern.quote(DealMapper.sortKey(query)));
+            criteria.orOperator(
+                    Criteria.where("titleSortKey").regex(contains),
+                    Criteria.where("sectorSortKey").regex(contains));
+        }
+        if (stage != null) {
+            criteria.and("stage").is(stage);
+        }
+        if (sector != null && !sector.isEmpty()) {
+            criteria.and("sector").is(sector);
+        }
+        return find(criteria, pageable, fields);
+    }
+
+    private Page<Deal> find(Criteria criteria, Pageable pageable, DealFieldSet fields) {
+        Query query = Query.query(criteria).with(sortFor(pageable));
+        if (!fields.isAll()) {
+            // The view keeps only the latest note, so notes maps to lastNote
+            fields.getFields().forEach(field ->
+                    query.fields().include(field.equals("notes") ? "lastNote" : field));
+        }
+        if (pageable.isPaged()) {
+            query.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        List<Deal> deals = mongoTemplate.find(query, DealListView.class).stream()
+                .map(DealMapper::fromListView)
+                .toList();
+
+        // The count is skipped when the first page is not full
+        return PageableExecutionUtils.getPage(deals, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), DealListView.class));
+    }
+
+    private Sort sortFor(Pageable pageable) {
+        if (pageable.getSort().isUnsorted()) {
+            return DEFAULT_SORT;
+        }
+        return Sort.by(pageable.getSort().stream()
+                .map(order -> order.withProperty(SORT_KEYS.getOrDefault(order.getProperty(), order.getProperty())))
+                .toList());
+    }
+}
@@ -0,0 +1,219 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lucene index of the working deals: title, sector and note text are
+ * analysed (lower-cased, accents folded, stemmed) and searched together with
+ * title boosted over sector over notes; stage and the canonical sector name
+ * are kept as exact terms for filtering. Searches go through a
+ * SearcherManager, so they see writes once the owning service refreshes it.
+ * Commits carry the time they were taken, which the service uses to catch up
+ * after a restart. Thread-safe.
+ */
+final class DealLuceneIndex implements Closeable {
+
+    private static final String WATERMARK = "watermark";
+    private static final String[] TEXT_FIELDS = {"title", "sector", "notes"};
+    private static final Map<String, Float> BOOSTS = Map.of("title", 3f, "sector", 2f, "notes", 1f);
+    private static final Set<String> ID_FIELD = Set.of("id");
+
+    private final Analyzer analyzer = analyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+
+    DealLuceneIndex(Directory directory) throws IOException {
+        // Only explicit commits are snapshots; closing mid-build must not persist half an index
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setCommitOnClose(false));
+        this.searchers = new SearcherManager(writer, null);
+    }
+
+    /** When the last commit was taken; null if the index has never been committed. */
+    Instant watermark() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (WATERMARK.equals(entry.getKey())) {
+                return Instant.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    // For a rebuild after clear(); skips the delete-by-id that upsert needs
+    void add(Deal deal) throws IOException {
+        writer.addDocument(document(deal));
+    }
+
+    void upsert(Deal deal) throws IOException {
+        writer.updateDocument(idTerm(deal.getId()), document(deal));
+    }
+
+    void remove(String dealId) throws IOException {
+        writer.deleteDocuments(idTerm(dealId));
+    }
+
+    void clear() throws IOException {
+        writer.deleteAll();
+    }
+
+    void refresh() throws IOException {
+        searchers.maybeRefresh();
+    }
+
+    void commit(Instant watermark) throws IOException {
+        writer.setLiveCommitData(Map.of(WATERMARK, watermark.toString()).entrySet());
+        writer.commit();
+    }
+
+    int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Ids of the matching deals, best first. The query uses Lucene syntax
+     * ("phrases", -exclusions, field:term); every word must match unless
+     * OR is given, and input that does not parse is searched as plain words.
+     */
+    Page<String> search(String text, DealStage stage, String sector, Pageable pageable) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(parse(text), BooleanClause.Occur.MUST);
+        if (stage != null) {
+            builder.add(new TermQuery(new Term("stage", stage.name())), BooleanClause.Occur.FILTER);
+        }
+        if (sector != null) {
+            builder.add(new TermQuery(new Term("sectorExact", sector)), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        IndexSearcher searcher = searchers.acquire();
+        try {
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE - 1) : 0;
+            int size = pageable.isPaged() ? pageable.getPageSize() : Math.max(1, searcher.count(query));
+            TopDocs top = searcher.search(query, (int) Math.min((long) from + size, Integer.MAX_VALUE));
+
+            // Past the default threshold Lucene only gives a lower bound, so count exactly
+            long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                    ? top.totalHits.value
+                    : searcher.count(query);
+
+            StoredFields stored = searcher.storedFields();
+            List<String> ids = new ArrayList<>();
+            for (int i = from; i < top.scoreDocs.length; i++) {
+                ids.add(stored.document(top.scoreDocs[i].doc, ID_FIELD).get("id"));
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            searchers.release(searcher);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searchers.close();
+        writer.close();
+    }
+
+    private Query parse(String text) {
+        // Not thread-safe, and cheap to create
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(TEXT_FIELDS, analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(text));
+            } catch (ParseException escaped) {
+                throw new InvalidRequestException("Invalid search query: " + text);
+            }
+        }
+    }
+
+    private static Document document(Deal deal) {
+        Document document = new Document();
+        document.add(new StringField("id", deal.getId(), Field.Store.YES));
+        if (deal.getTitle() != null) {
+            document.add(new TextField("title", deal.getTitle(), Field.Store.NO));
+        }
+        if (deal.getSector() != null) {
+            document.add(new TextField("sector", deal.getSector(), Field.Store.NO));
+            document.add(new StringField("sectorExact", deal.getSector(), Field.Store.NO));
+        }
+        if (deal.getStage() != null) {
+            document.add(new StringField("stage", deal.getStage().name(), Field.Store.NO));
+        }
+        if (deal.getNotes() != null) {
+            for (DealNote note : deal.getNotes()) {
+                if (note.getNote() != null) {
+                    document.add(new TextField("notes", note.getNote(), Field.Store.NO));
+                }
+            }
+        }
+        return document;
+    }
+
+    private static Term idTerm(String dealId) {
+        return new Term("id", dealId);
+    }
+
+    private static Analyzer analyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                StandardTokenizer source = new StandardTokenizer();
+                TokenStream stream = new LowerCaseFilter(source);
+                stream = new ASCIIFoldingFilter(stream);
+                return new TokenStreamComponents(source, new PorterStemFilter(stream));
+            }
+
+            @Override
+            protected TokenStream normalize(String fieldName, TokenStream in) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+            }
+        };
+    }
+}
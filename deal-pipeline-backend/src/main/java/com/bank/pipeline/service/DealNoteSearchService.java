@@ -0,0 +1,17 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealNoteSearchHit;
+
+import java.util.List;
+
+/** Full-text search over deal note text. */
+public interface DealNoteSearchService {
+
+    /**
+     * The most relevant deals owned by the user (the same rule as reading a
+     * deal by id) whose notes match the query, with snippets of the matching
+     * notes. The query uses Mongo text search syntax: words, "phrases" and
+     * -exclusions.
+     */
+    List<DealNoteSearchHit> search(String query, String userId, boolean includeArchived, int limit);
+}
@@ -0,0 +1,151 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealNoteSearchHit;
+import com.bank.pipeline.dto.DealNoteSnippet;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Searches the owner-prefixed text index on notes.note (see MongoIndexConfig),
+ * so every query only walks the caller's slice of the index however many notes
+ * other users hold. Mongo ranks the deals; snippets are cut here from the notes
+ * the matched deals already carry, with a rough stem match because the index
+ * stems words and the notes do not.
+ */
+@Service
+@RequiredArgsConstructor
+public class DealNoteSearchServiceImpl implements DealNoteSearchService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_SNIPPETS = 3;
+    private static final int SNIPPET_CONTEXT = 60;
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+
+    @Override
+    public List<DealNoteSearchHit> search(String query, String userId, boolean includeArchived, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Pattern terms = terms(query);
+
+        List<DealNoteSearchHit> hits = new ArrayList<>(
+                find(query, userId, max, mongoTemplate.getCollectionName(Deal.class), false, terms));
+        if (includeArchived) {
+            // Each collection returns its own top hits; merged, the best `max` of both remain
+            hits.addAll(find(query, userId, max, DealArchiveService.ARCHIVE_COLLECTION, true, terms));
+            hits.sort(Comparator.comparingDouble(DealNoteSearchHit::getScore).reversed());
+        }
+        return hits.size() > max ? new ArrayList<>(hits.subList(0, max)) : hits;
+    }
+
+    private List<DealNoteSearchHit> find(
+            String text, String userId, int max, String collection, boolean archived, Pattern terms) {
+
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .includeScore("score")
+                .sortByScore()
+                .addCriteria(Criteria.where("ownerId").is(userId))
+                .limit(max);
+        query.fields().include("title", "stage", "sector", "notes");
+
+        // Read as raw documents to keep the text score; sector ids are mapped back to names here
+        List<DealNoteSearchHit> hits = new ArrayList<>();
+        for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+            Deal deal = mongoTemplate.getConverter().read(Deal.class, document);
+            Number score = (Number) document.get("score");
+            hits.add(DealNoteSearchHit.builder()
+                    .dealId(deal.getId())
+                    .title(deal.getTitle())
+                    .stage(deal.getStage())
+                    .sector(sectorCatalog.nameOf(deal.getSector()))
+                    .archived(archived)
+                    .score(score == null ? 0 : score.doubleValue())
+                    .notes(snippets(deal.getNotes(), terms))
+                    .build());
+        }
+        return hits;
+    }
+
+    // Up to MAX_SNIPPETS matching notes, newest first
+    static List<DealNoteSnippet> snippets(List<DealNote> notes, Pattern terms) {
+        if (notes == null || terms == null) {
+            return List.of();
+        }
+        List<DealNoteSnippet> snippets = new ArrayList<>();
+        for (int i = notes.size() - 1; i >= 0 && snippets.size() < MAX_SNIPPETS; i--) {
+            DealNote note = notes.get(i);
+            if (note.getNote() == null) {
+                continue;
+            }
+            Matcher matcher = terms.matcher(note.getNote());
+            if (matcher.find()) {
+                snippets.add(DealNoteSnippet.builder()
+                        .noteId(note.getNoteId())
+                        .userId(note.getUserId())
+                        .createdAt(note.getCreatedAt())
+                        .snippet(snippet(note.getNote(), matcher.start(), matcher.end()))
+                        .build());
+            }
+        }
+        return snippets;
+    }
+
+    // SNIPPET_CONTEXT characters either side of the match, widened to whole words
+    static String snippet(String text, int matchStart, int matchEnd) {
+        int start = Math.max(0, matchStart - SNIPPET_CONTEXT);
+        int end = Math.min(text.length(), matchEnd + SNIPPET_CONTEXT);
+        while (start > 0 && !Character.isWhitespace(text.charAt(start - 1))) {
+            start--;
+        }
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        String snippet = text.substring(start, end).strip().replaceAll("\\s+", " ");
+        return (start > 0 ? "\u2026" : "") + snippet + (end < text.length() ? "\u2026" : "");
+    }
+
+    /**
+     * Word-start pattern for the query's positive terms; null when there are
+     * none. Each term is cut to about two thirds of its length (at least four
+     * letters), so "financing" also highlights "financed" as the stemmed index
+     * matched it.
+     */
+    static Pattern terms(String query) {
+        List<String> roots = new ArrayList<>();
+        for (String token : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (token.startsWith("-")) {
+                continue; // excluded term
+            }
+            for (String term : token.split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty()) {
+                    int length = Math.max(Math.min(term.length(), 4), term.length() * 2 / 3);
+                    roots.add(Pattern.quote(term.substring(0, length)));
+                }
+            }
+        }
+        if (roots.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile("(?<![\\p{L}\\p{N}])(" + String.join("|", roots) + ")",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+}
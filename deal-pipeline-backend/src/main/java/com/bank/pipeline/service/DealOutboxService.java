@@ -0,0 +1,14 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealChangedEvent;
+
+import java.util.List;
+
+public interface DealOutboxService {
+
+    /** Writes outbox records for the changes; joins the caller's transaction when there is one. */
+    void append(List<DealChangedEvent> changes);
+
+    /** Sends one batch of pending records to Kafka and returns how many were acked. */
+    int relay();
+}
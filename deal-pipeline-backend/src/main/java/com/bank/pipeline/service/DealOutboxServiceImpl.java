@@ -0,0 +1,232 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealEventMessage;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealOutboxRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for deal events. Records are appended by a synchronous
+ * listener, so inside a @Transactional DealServiceImpl method they commit or
+ * roll back together with the deal. A single relay (held by a distributed
+ * lock) sends pending records in createdAt order, keyed by deal id, and marks
+ * each one published once the broker has acked it. At most one record per
+ * deal is in flight in a batch, so a failed send is retried before any later
+ * event for that deal goes out. A crash between send and mark causes a
+ * resend, so consumers must dedupe on eventId.
+ * <p>
+ * Bulk create/update, CSV import and Kafka ingest are not covered by that
+ * guarantee. They write with unordered bulk operations that keep the
+ * documents that succeeded when others are rejected, which a transaction
+ * would roll back as a whole, so their records are inserted after the bulk
+ * write returns. A crash in between loses those events: delivery for bulk
+ * paths is at most once.
+ */
+@Service
+@ConditionalOnProperty(name = "pipeline.outbox.enabled", havingValue = "true")
+public class DealOutboxServiceImpl implements DealOutboxService {
+
+    private static final String RELAY_LOCK = "deal-outbox-relay";
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final DistributedLockService lockService;
+    private final String topic;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Duration relayLease;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+
+    public DealOutboxServiceImpl(
+            MongoTemplate mongoTemplate,
+            KafkaTemplate<String, String> kafkaTemplate,
+            ObjectMapper objectMapper,
+            DistributedLockService lockService,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.outbox.topic:deal-events}") String topic,
+            @Value("${pipeline.outbox.batch-size:500}") int batchSize,
+            @Value("${pipeline.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.lockService = lockService;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        // A batch waits at most sendTimeoutMs for its acks, so one always fits in the lease
+        this.relayLease = Duration.ofMillis(Math.max(Duration.ofMinutes(1).toMillis(), 2 * sendTimeoutMs));
+
+        Gauge.builder("deal.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox records not yet acked by Kafka")
+                .register(meterRegistry);
+        Gauge.builder("deal.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox record")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("deal.outbox.published")
+                .description("Outbox records relayed to Kafka")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onDealChanged(DealChangedEvent event) {
+        append(List.of(event));
+    }
+
+    // Bulk paths publish once their write has returned, outside any transaction (at most once, see above)
+    @EventListener
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        append(batch.getChanges());
+    }
+
+    @Override
+    public void append(List<DealChangedEvent> changes) {
+        Instant now = Instant.now();
+        mongoTemplate.insertAll(changes.stream()
+                .map(change -> toRecord(change, now))
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${pipeline.outbox.poll-interval-ms:500}")
+    public void scheduledRelay() {
+        if (lockService.tryAcquire(RELAY_LOCK, relayLease)) {
+            try {
+                // Keep draining while batches make progress, renewing the lease before each one;
+                // if another replica has taken it over, stop rather than relay alongside it
+                while (relay() > 0 && lockService.tryAcquire(RELAY_LOCK, relayLease)) {
+                    // next batch
+                }
+            } finally {
+                lockService.release(RELAY_LOCK);
+            }
+        }
+        refreshLag();
+    }
+
+    @Override
+    public int relay() {
+        List<DealOutboxRecord> pendingRecords =
+                mongoTemplate.find(pendingQuery().limit(batchSize), DealOutboxRecord.class);
+
+        // A deal's later records wait for the next batch, so they can never overtake a failed send
+        Set<String> dealsInFlight = new HashSet<>();
+        List<DealOutboxRecord> records = pendingRecords.stream()
+                .filter(record -> dealsInFlight.add(record.getDealId()))
+                .toList();
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        // Sends are pipelined; the producer batches and compresses them per partition. The whole
+        // batch shares one deadline (no flush, which can block past it), so it fits in the lease.
+        List<CompletableFuture<SendResult<String, String>>> sends = records.stream()
+                .map(record -> kafkaTemplate.send(topic, record.getDealId(), record.getPayload()))
+                .toList();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        List<String> acked = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(records.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                // Only this record is retried; the others were each delivered on their own
+            }
+        }
+
+        if (!acked.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(acked)),
+                    new Update().set("publishedAt", Instant.now()),
+                    DealOutboxRecord.class);
+            publishedCounter.increment(acked.size());
+        }
+        return acked.size();
+    }
+
+    private void refreshLag() {
+        Query oldestQuery = pendingQuery().limit(1);
+        oldestQuery.fields().include("createdAt");
+        DealOutboxRecord oldest = mongoTemplate.findOne(oldestQuery, DealOutboxRecord.class);
+
+        pending.set(oldest == null ? 0 : mongoTemplate.count(pendingQuery(), DealOutboxRecord.class));
+        lagMillis.set(oldest == null || oldest.getCreatedAt() == null
+                ? 0
+                : Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis());
+    }
+
+    private Query pendingQuery() {
+        // createdAt, not _id: ObjectIds from different replicas within one second sort by their
+        // random part. _id only breaks ties, which come from one append on one replica.
+        return Query.query(Criteria.where("publishedAt").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"));
+    }
+
+    private DealOutboxRecord toRecord(DealChangedEvent change, Instant now) {
+        String id = new ObjectId().toHexString();
+        Deal state = change.getType() == DealChangeType.DELETED ? change.getBefore() : change.getAfter();
+
+        DealEventMessage message = DealEventMessage.builder()
+                .eventId(id)
+                .type(change.getType())
+                .dealId(change.getDealId())
+                .actorId(change.getActorId())
+                .occurredAt(change.getOccurredAt())
+                .previousStage(change.getPreviousStage())
+                .deal(state == null ? null : DealMapper.toAdminResponse(state))
+                .build();
+
+        try {
+            return DealOutboxRecord.builder()
+                    .id(id)
+                    .dealId(change.getDealId())
+                    .type(change.getType())
+                    .payload(objectMapper.writeValueAsString(message))
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize deal event", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Relevance-ranked text search over the working deals, used by
+ * DealService.searchDeals when it is ready; Mongo stays the fallback.
+ */
+public interface DealSearchEngine {
+
+    /** False until the index has been built or restored (or when it is disabled). */
+    boolean isReady();
+
+    /** Ids of the matching deals, best first, with the total number of matches. */
+    Page<String> search(String query, DealStage stage, String sector, Pageable pageable);
+
+    /** Rebuilds the index from the deals collection. */
+    void rebuild();
+}
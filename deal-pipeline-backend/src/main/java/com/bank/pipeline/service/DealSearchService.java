@@ -0,0 +1,20 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.dto.DealSearchResponse;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import org.springframework.data.domain.Pageable;
+
+/** Deal search backed by Mongo aggregations. */
+public interface DealSearchService {
+
+    /**
+     * A page of hits for the query (title or sector contains it, ignoring case)
+     * plus stage, sector and deal type counts over every match, all from one
+     * aggregation.
+     */
+    DealSearchResponse<Deal> searchWithFacets(
+            String query, DealStage stage, String sector, boolean includeArchived,
+            Pageable pageable, DealFieldSet fields);
+}
@@ -0,0 +1,150 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.dto.DealSearchResponse;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the match once and fans out with $facet: one sub-pipeline pages the
+ * hits, one counts them and one per facet field groups them, so the counts
+ * cost a single round trip. Only the match can use indexes; the sub-pipelines
+ * work on the matched deals. With includeArchived the archive is unioned in
+ * before the $facet, so hits and counts span both collections.
+ */
+@Service
+@RequiredArgsConstructor
+public class DealSearchServiceImpl implements DealSearchService {
+
+    private static final String[] FACET_FIELDS = {"stage", "sector", "dealType"};
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "updatedAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+
+    @Override
+    public DealSearchResponse<Deal> searchWithFacets(
+            String query, DealStage stage, String sector, boolean includeArchived,
+            Pageable pageable, DealFieldSet fields) {
+
+        Criteria criteria = criteria(query, stage, sector);
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(criteria));
+        if (includeArchived) {
+            operations.add(UnionWithOperation.unionWith(DealArchiveService.ARCHIVE_COLLECTION)
+                    .pipeline(Aggregation.match(criteria)));
+        }
+
+        FacetOperation facet = Aggregation.facet(hitsPipeline(pageable, fields)).as("hits")
+                .and(Aggregation.count().as("total")).as("total");
+        for (String field : FACET_FIELDS) {
+            facet = facet.and(Aggregation.sortByCount(field)).as(field);
+        }
+        operations.add(facet);
+
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(Deal.class), Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+
+        // Raw documents bypass the read callbacks, so sector ids are mapped back to names here
+        List<Deal> hits = new ArrayList<>();
+        for (Document hit : result.getList("hits", Document.class, List.of())) {
+            Deal deal = mongoTemplate.getConverter().read(Deal.class, hit);
+            deal.setSector(sectorCatalog.nameOf(deal.getSector()));
+            hits.add(deal);
+        }
+
+        List<Document> total = result.getList("total", Document.class, List.of());
+        long count = total.isEmpty() ? 0 : ((Number) total.get(0).get("total")).longValue();
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String field : FACET_FIELDS) {
+            facets.put(field, counts(field, result.getList(field, Document.class, List.of())));
+        }
+
+        return DealSearchResponse.<Deal>builder()
+                .hits(new PageImpl<>(hits, pageable, count))
+                .facets(facets)
+                .build();
+    }
+
+    // Values are plain strings because the archive sub-pipeline is not type-mapped
+    private Criteria criteria(String query, DealStage stage, String sector) {
+        List<Criteria> filters = new ArrayList<>();
+        if (query != null && !query.isBlank()) {
+            Pattern contains = Pattern.compile(Pattern.quote(query.trim()), Pattern.CASE_INSENSITIVE);
+            // Sector names live in the catalog; the regex still catches raw legacy values
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("title").regex(contains),
+                    Criteria.where("sector").in(sectorCatalog.findIdsContaining(query)),
+                    Criteria.where("sector").regex(contains)));
+        }
+        if (stage != null) {
+            filters.add(Criteria.where("stage").is(stage.name()));
+        }
+        if (sector != null && !sector.isEmpty()) {
+            filters.add(Criteria.where("sector").is(
+                    sectorCatalog.resolve(sector).map(Sector::getId).orElse(sector)));
+        }
+        return filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+    }
+
+    private static AggregationOperation[] hitsPipeline(Pageable pageable, DealFieldSet fields) {
+        List<AggregationOperation> hits = new ArrayList<>();
+        hits.add(Aggregation.sort(sortFor(pageable)));
+        if (pageable.isPaged()) {
+            hits.add(Aggregation.skip(pageable.getOffset()));
+            hits.add(Aggregation.limit(pageable.getPageSize()));
+        }
+        if (!fields.isAll()) {
+            // _id is always kept by $project
+            hits.add(Aggregation.project(fields.getFields().stream()
+                    .filter(field -> !field.equals("id"))
+                    .toArray(String[]::new)));
+        }
+        return hits.toArray(AggregationOperation[]::new);
+    }
+
+    // $sortByCount output, largest first; a legacy raw name and its catalog id fold into one count
+    private Map<String, Long> counts(String field, List<Document> buckets) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document bucket : buckets) {
+            Object value = bucket.get("_id");
+            if (value == null) {
+                continue;
+            }
+            String key = field.equals("sector") ? sectorCatalog.nameOf(value.toString()) : value.toString();
+            counts.merge(key, ((Number) bucket.get("count")).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    private static Sort sortFor(Pageable pageable) {
+        Sort sort = pageable.getSort().isUnsorted() ? DEFAULT_SORT : Sort.by(pageable.getSort().stream()
+                .map(order -> order.getProperty().equals("id") ? order.withProperty("_id") : order)
+                .toList());
+        // Stable paging when sort keys tie
+        return sort.getOrderFor("_id") == null ? sort.and(Sort.by(Sort.Direction.ASC, "_id")) : sort;
+    }
+}
@@ -2,13 +2,18 @@ package com.bank.pipeline.service;
 
 import com.bank.pipeline.dto.DealUpdateRequest;
 import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.dto.DealFieldSet;
 import com.bank.pipeline.model.Deal;
 import com.bank.pipeline.model.DealStage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Collation;
 
 public interface DealService {
 
+    /** Ignores case and accents; title filters must run with it to use the title indexes. */
+    Collation TITLE_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.primary());
+
     Deal createDeal(DealCreateRequest request, String userId);
 
     Deal updateDeal(String dealId, DealUpdateRequest request, String userId);
@@ -36,6 +41,20 @@ public interface DealService {
 
     Page<Deal> searchDeals(String query, DealStage stage, String sector, Pageable pageable);
 
+    // SPARSE FIELDSETS: only the requested fields are read; the rest stay null
+
+    Page<Deal> getDealsByOwner(String userId, Pageable pageable, DealFieldSet fields);
+
+    Page<Deal> getDealsFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    Deal getDealById(String dealId, String userId, DealFieldSet fields);
+
+    Page<Deal> searchDeals(String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
+    /** Deals whose title starts with the given text, ignoring case and accents. */
+    Page<Deal> getDealsByTitle(
+            String title, DealStage stage, String sector, Pageable pageable, DealFieldSet fields);
+
 
 
 }
@@ -3,33 +3,64 @@ package com.bank.pipeline.service;
 
 import com.bank.pipeline.dto.DealUpdateRequest;
 import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
 import com.bank.pipeline.exception.ResourceNotFoundException;
+import com.bank.pipeline.mapper.DealMapper;
 import org.springframework.security.access.AccessDeniedException;
 import com.bank.pipeline.model.Deal;
 import com.bank.pipeline.model.DealNote;
 import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
 import com.bank.pipeline.repository.DealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/*
+ * Mutations are @Transactional so the Kafka outbox record and the change log
+ * entry commit together with the deal. Other change listeners run after
+ * commit, so a write conflict on shared analytics documents cannot abort the
+ * deal update. Transactions are
+ * only active when pipeline.outbox.enabled provides a MongoTransactionManager.
+ */
 @Service
 @RequiredArgsConstructor
 public class DealServiceImpl implements DealService {
 
     private final DealRepository dealRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealListViewService listViewService;
+    private final DealLazyReadService lazyReadService;
+    private final DealArchiveService archiveService;
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+    private final DealSearchEngine searchEngine;
 
     // ---------------- USER ----------------
 
     @Override
+    @Transactional
     public Deal createDeal(DealCreateRequest request, String userId) {
 
         boolean isAdmin =
@@ -39,31 +70,17 @@ public class DealServiceImpl implements DealService {
                         .stream()
                         .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
-        Deal.DealBuilder builder = Deal.builder()
-                .title(request.getTitle())
-                .sector(request.getSector())
-                .dealType(request.getDealType())
-                .notes(new ArrayList<>())
-                .stage(DealStage.LEAD)
-                .ownerId(userId)
-                .createdAt(Instant.now())
-                .updatedAt(Instant.now());
-
-
-        // ✅ ONLY ADMIN can set dealValue at creation
-        if (isAdmin) {
-            builder.dealValue(request.getDealValue());
-        } else {
-            builder.dealValue(null);
-        }
-
-        return dealRepository.save(builder.build());
+        Deal saved = dealRepository.save(
+                DealMapper.fromCreateRequest(request, userId, isAdmin, Instant.now()));
+        publish(DealChangeType.CREATED, null, saved, userId);
+        return saved;
     }
 
 
 
 
     @Override
+    @Transactional
     public Deal updateDeal(String dealId, DealUpdateRequest request, String userId) {
         Deal deal = dealRepository.findById(dealId)
                 .orElseThrow(() -> new ResourceNotFoundException("Deal not found: " + dealId));
@@ -79,6 +96,8 @@ public class DealServiceImpl implements DealService {
             throw new AccessDeniedException("Not allowed to update this deal");
         }
 
+        Deal before = snapshot(deal);
+
         // ✅ UPDATE ONLY IF VALUE IS PROVIDED
         if (request.getTitle() != null) {
             deal.setTitle(request.getTitle());
@@ -89,12 +108,16 @@ public class DealServiceImpl implements DealService {
         if (request.getDealType() != null) {
             deal.setDealType(request.getDealType());
         }
-        if (request.getStage() != null) {
+        Instant now = Instant.now();
+        if (request.getStage() != null && request.getStage() != deal.getStage()) {
             deal.setStage(request.getStage());
+            deal.setStageEnteredAt(now);
         }
 
-        deal.setUpdatedAt(Instant.now());
-        return dealRepository.save(deal);
+        deal.setUpdatedAt(now);
+        Deal saved = dealRepository.save(deal);
+        publish(DealChangeType.UPDATED, before, saved, userId);
+        return saved;
     }
 
 
@@ -105,12 +128,19 @@ public class DealServiceImpl implements DealService {
             String userId,
             Pageable pageable) {
 
+        if (listViewService.isReadEnabled()) {
+            return listViewService.findByOwner(userId, pageable);
+        }
+        if (lazyReadService.isEnabled()) {
+            return lazyReadService.findByOwner(userId, pageable);
+        }
         return dealRepository.findByOwnerId(userId, pageable);
     }
 
     // ---------------- ADMIN ----------------
 
     @Override
+    @Transactional
     public Deal updateDealValue(
             String dealId,
             DealUpdateRequest request) {
@@ -120,13 +150,17 @@ public class DealServiceImpl implements DealService {
                         new ResourceNotFoundException(
                                 "Deal not found: " + dealId));
 
+        Deal before = snapshot(deal);
         deal.setDealValue(request.getDealValue());
         deal.setUpdatedAt(Instant.now());
 
-        return dealRepository.save(deal);
+        Deal saved = dealRepository.save(deal);
+        publish(DealChangeType.VALUE_UPDATED, before, saved, currentUsername());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteDeal(String dealId) {
 
         Deal deal = dealRepository.findById(dealId)
@@ -135,6 +169,7 @@ public class DealServiceImpl implements DealService {
                                 "Deal not found: " + dealId));
 
         dealRepository.delete(deal);
+        publish(DealChangeType.DELETED, deal, null, currentUsername());
     }
 
     @Override
@@ -143,16 +178,25 @@ public class DealServiceImpl implements DealService {
             String sector,
             Pageable pageable) {
 
-        if (stage != null && sector != null) {
-            return dealRepository.findByStageAndSector(stage, sector, pageable);
+        if (listViewService.isReadEnabled()) {
+            return listViewService.findFiltered(stage, sectorCatalog.canonicalName(sector), pageable);
+        }
+
+        String storedSector = storedSector(sector);
+        if (lazyReadService.isEnabled()) {
+            return lazyReadService.findFiltered(stage, storedSector, pageable);
+        }
+
+        if (stage != null && storedSector != null) {
+            return dealRepository.findByStageAndSector(stage, storedSector, pageable);
         }
 
         if (stage != null) {
             return dealRepository.findByStage(stage, pageable);
         }
 
-        if (sector != null) {
-            return dealRepository.findBySector(sector, pageable);
+        if (storedSector != null) {
+            return dealRepository.findBySector(storedSector, pageable);
         }
 
         return dealRepository.findAll(pageable);
@@ -160,7 +204,11 @@ public class DealServiceImpl implements DealService {
 
     @Override
     public Deal getDealById(String dealId, String userId) {
-        Deal deal = dealRepository.findById(dealId)
+        // Archived deals are read-only but still found by id
+        Deal deal = (lazyReadService.isEnabled()
+                ? lazyReadService.findById(dealId)
+                : dealRepository.findById(dealId))
+                .or(() -> archiveService.findArchivedById(dealId, DealFieldSet.ALL))
                 .orElseThrow(() -> new ResourceNotFoundException("Deal not found: " + dealId));
 
         if (!deal.getOwnerId().equals(userId)) {
@@ -171,18 +219,23 @@ public class DealServiceImpl implements DealService {
     }
 
     @Override
+    @Transactional
     public Deal addNote(String dealId, String userId, String noteText) {
         Deal deal = dealRepository.findById(dealId)
                 .orElseThrow(() -> new ResourceNotFoundException("Deal not found"));
 
+        Deal before = snapshot(deal);
         DealNote note = new DealNote(userId, noteText);
         deal.getNotes().add(note);
 
         deal.setUpdatedAt(Instant.now());
-        return dealRepository.save(deal);
+        Deal saved = dealRepository.save(deal);
+        publish(DealChangeType.NOTE_ADDED, before, saved, userId);
+        return saved;
     }
 
     @Override
+    @Transactional
     public Deal deleteNote(String dealId, String noteId, String userId) {
 
         Deal deal = dealRepository.findById(dealId)
@@ -194,6 +247,7 @@ public class DealServiceImpl implements DealService {
                 .stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
+        Deal before = snapshot(deal);
         boolean removed = deal.getNotes().removeIf(note ->
                 note.getNoteId().equals(noteId) &&
                         (isAdmin || note.getUserId().equals(userId))
@@ -204,22 +258,37 @@ public class DealServiceImpl implements DealService {
         }
 
         deal.setUpdatedAt(Instant.now());
-        return dealRepository.save(deal);
+        Deal saved = dealRepository.save(deal);
+        publish(DealChangeType.NOTE_DELETED, before, saved, userId);
+        return saved;
     }
 
     @Override
     public Page<Deal> searchDeals(String query, DealStage stage, String sector, Pageable pageable) {
+        if (useSearchEngine(query, pageable)) {
+            return searchWithEngine(query, stage, sector, pageable, DealFieldSet.ALL);
+        }
+        if (listViewService.isReadEnabled()) {
+            return listViewService.search(query, stage, sectorCatalog.canonicalName(sector), pageable);
+        }
+
         // For now, implement basic text search on title and sector
         // In a real implementation, you might use MongoDB text indexes
         if (query == null || query.trim().isEmpty()) {
             return dealRepository.findAll(pageable);
         }
 
-        // Simple case-insensitive search on title and sector
+        return filterSearchPage(dealRepository.findAll(pageable).getContent(), query, stage, sector, pageable);
+    }
+
+    // Simple case-insensitive search on title and sector
+    private Page<Deal> filterSearchPage(
+            List<Deal> pageDeals, String query, DealStage stage, String sector, Pageable pageable) {
+
         String searchQuery = query.toLowerCase().trim();
-        Page<Deal> allDeals = dealRepository.findAll(pageable);
-        
-        List<Deal> filteredDeals = allDeals.getContent().stream()
+        String sectorName = sectorCatalog.canonicalName(sector);
+
+        List<Deal> filteredDeals = pageDeals.stream()
                 .filter(deal -> {
                     boolean matchesTitle = deal.getTitle() != null && 
                             deal.getTitle().toLowerCase().contains(searchQuery);
@@ -229,7 +298,7 @@ public class DealServiceImpl implements DealService {
                     return (matchesTitle || matchesSector);
                 })
                 .filter(deal -> stage == null || deal.getStage() == stage)
-                .filter(deal -> sector == null || sector.isEmpty() || deal.getSector().equals(sector))
+                .filter(deal -> sectorName == null || sectorName.isEmpty() || sectorName.equals(deal.getSector()))
                 .collect(Collectors.toList());
 
         return new org.springframework.data.domain.PageImpl<>(
@@ -239,5 +308,172 @@ public class DealServiceImpl implements DealService {
         );
     }
 
+    // ---------------- SPARSE FIELDSETS ----------------
 
+    @Override
+    public Page<Deal> getDealsByOwner(String userId, Pageable pageable, DealFieldSet fields) {
+        if (fields.isAll()) {
+            return getDealsByOwner(userId, pageable);
+        }
+        if (listViewService.isReadEnabled()) {
+            return listViewService.findByOwner(userId, pageable, fields);
+        }
+        return findProjected(Criteria.where("ownerId").is(userId), pageable, fields);
+    }
+
+    @Override
+    public Page<Deal> getDealsFiltered(DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+        if (fields.isAll()) {
+            return getDealsFiltered(stage, sector, pageable);
+        }
+        if (listViewService.isReadEnabled()) {
+            return listViewService.findFiltered(stage, sectorCatalog.canonicalName(sector), pageable, fields);
+        }
+
+        Criteria criteria = new Criteria();
+        if (stage != null) {
+            criteria.and("stage").is(stage);
+        }
+        if (sector != null) {
+            criteria.and("sector").is(storedSector(sector));
+        }
+        return findProjected(criteria, pageable, fields);
+    }
+
+    @Override
+    public Deal getDealById(String dealId, String userId, DealFieldSet fields) {
+        if (fields.isAll()) {
+            return getDealById(dealId, userId);
+        }
+
+        // ownerId is always read for the ownership check
+        Query query = Query.query(Criteria.where("id").is(dealId));
+        include(query, fields, "ownerId");
+
+        Deal deal = Optional.ofNullable(mongoTemplate.findOne(query, Deal.class))
+                .or(() -> archiveService.findArchivedById(dealId, fields))
+                .orElseThrow(() -> new ResourceNotFoundException("Deal not found: " + dealId));
+        if (!deal.getOwnerId().equals(userId)) {
+            throw new AccessDeniedException("You do not own this deal");
+        }
+        return deal;
+    }
+
+    @Override
+    public Page<Deal> searchDeals(
+            String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+
+        if (fields.isAll()) {
+            return searchDeals(query, stage, sector, pageable);
+        }
+        if (useSearchEngine(query, pageable)) {
+            return searchWithEngine(query, stage, sector, pageable, fields);
+        }
+        if (listViewService.isReadEnabled()) {
+            return listViewService.search(query, stage, sectorCatalog.canonicalName(sector), pageable, fields);
+        }
+        if (query == null || query.trim().isEmpty()) {
+            return findProjected(new Criteria(), pageable, fields);
+        }
+
+        // The in-memory filter needs the matched fields even if they are not returned
+        Query page = new Query().with(pageable);
+        include(page, fields, "title", "sector", "stage");
+        return filterSearchPage(mongoTemplate.find(page, Deal.class), query, stage, sector, pageable);
+    }
+
+    @Override
+    public Page<Deal> getDealsByTitle(
+            String title, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+
+        // Always a Mongo query: the title index is only used by queries carrying its collation
+        Criteria criteria = titlePrefix(title);
+        if (stage != null) {
+            criteria.and("stage").is(stage);
+        }
+        if (sector != null) {
+            criteria.and("sector").is(storedSector(sector));
+        }
+
+        Query query = Query.query(criteria).collation(TITLE_COLLATION).with(pageable);
+        include(query, fields);
+
+        List<Deal> deals = mongoTemplate.find(query, Deal.class);
+        return PageableExecutionUtils.getPage(deals, pageable,
+                () -> mongoTemplate.count(Query.query(criteria).collation(TITLE_COLLATION), Deal.class));
+    }
+
+    // A range rather than a regex, so it is an index seek. Under the collation U+FFFF sorts after
+    // every character, so the upper bound covers any continuation of the prefix.
+    private static Criteria titlePrefix(String title) {
+        String prefix = title.trim();
+        return Criteria.where("title").gte(prefix).lt(prefix + "\uFFFF");
+    }
+
+    // Deals store the sector id; a name the catalog does not know can only match a raw legacy value
+    private String storedSector(String sector) {
+        return sector == null ? null : sectorCatalog.resolve(sector).map(Sector::getId).orElse(sector);
+    }
+
+    // Relevance order; a request that names its own sort stays on the Mongo path
+    private boolean useSearchEngine(String query, Pageable pageable) {
+        return query != null && !query.isBlank() && pageable.getSort().isUnsorted() && searchEngine.isReady();
+    }
+
+    // The engine ranks ids; the page itself is read from Mongo and put back in rank order
+    private Page<Deal> searchWithEngine(
+            String query, DealStage stage, String sector, Pageable pageable, DealFieldSet fields) {
+
+        Page<String> ranked = searchEngine.search(query.trim(), stage, sector, pageable);
+        if (ranked.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ranked.getTotalElements());
+        }
+        Query page = Query.query(Criteria.where("id").in(ranked.getContent()));
+        include(page, fields);
+
+        Map<String, Deal> byId = mongoTemplate.find(page, Deal.class).stream()
+                .collect(Collectors.toMap(Deal::getId, Function.identity()));
+        // A deal deleted since the index was last refreshed is simply left out
+        List<Deal> deals = ranked.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(deals, pageable, ranked.getTotalElements());
+    }
+
+    private Page<Deal> findProjected(Criteria criteria, Pageable pageable, DealFieldSet fields) {
+        Query query = Query.query(criteria).with(pageable);
+        include(query, fields);
+
+        List<Deal> deals = mongoTemplate.find(query, Deal.class);
+        return PageableExecutionUtils.getPage(deals, pageable,
+                () -> mongoTemplate.count(Query.query(criteria), Deal.class));
+    }
+
+    private static void include(Query query, DealFieldSet fields, String... alsoRead) {
+        fields.getFields().forEach(field -> query.fields().include(field));
+        for (String field : alsoRead) {
+            query.fields().include(field);
+        }
+    }
+
+    // ---------------- EVENTS ----------------
+
+    private void publish(DealChangeType type, Deal before, Deal after, String actorId) {
+        eventPublisher.publishEvent(
+                new DealChangedEvent(type, before, after, actorId, Instant.now()));
+    }
+
+    // Detached copy so listeners can compare old and new state
+    private Deal snapshot(Deal deal) {
+        return deal.toBuilder()
+                .notes(deal.getNotes() == null ? null : new ArrayList<>(deal.getNotes()))
+                .build();
+    }
+
+    private String currentUsername() {
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
 }
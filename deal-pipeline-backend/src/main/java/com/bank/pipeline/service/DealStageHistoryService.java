@@ -0,0 +1,16 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.StageConversionResponse;
+import com.bank.pipeline.dto.StageDwellResponse;
+import com.bank.pipeline.event.DealChangedEvent;
+
+import java.util.List;
+
+public interface DealStageHistoryService {
+
+    void recordTransitions(List<DealChangedEvent> events);
+
+    List<StageConversionResponse> getConversionRates();
+
+    List<StageDwellResponse> getTimeInStage();
+}
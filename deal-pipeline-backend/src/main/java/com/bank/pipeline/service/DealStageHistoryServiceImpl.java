@@ -0,0 +1,215 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.StageConversionResponse;
+import com.bank.pipeline.dto.StageDwellResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealStageEvent;
+import com.bank.pipeline.model.DealStageStats;
+import com.bank.pipeline.repository.DealStageEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+public class DealStageHistoryServiceImpl implements DealStageHistoryService {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private final DealStageEventRepository stageEventRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // After commit: concurrent transitions $inc the same deal_stage_stats document, which inside
+    // the deal's transaction would abort it with a write conflict
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        if (event.isStageChanged()) {
+            recordTransitions(List.of(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        List<DealChangedEvent> transitions = batch.getChanges().stream()
+                .filter(DealChangedEvent::isStageChanged)
+                .toList();
+
+        if (!transitions.isEmpty()) {
+            recordTransitions(transitions);
+        }
+    }
+
+    @Override
+    public void recordTransitions(List<DealChangedEvent> events) {
+
+        // Stages each deal has already been in (read before appending the new events)
+        Map<String, Set<DealStage>> visitedByDeal = new HashMap<>();
+        List<String> existingDealIds = events.stream()
+                .filter(e -> e.getPreviousStage() != null)
+                .map(DealChangedEvent::getDealId)
+                .toList();
+        if (!existingDealIds.isEmpty()) {
+            stageEventRepository.findByDealIdIn(existingDealIds).forEach(e ->
+                    visitedByDeal.computeIfAbsent(e.getDealId(), id -> EnumSet.noneOf(DealStage.class))
+                            .add(e.getToStage()));
+        }
+
+        List<DealStageEvent> stageEvents = new ArrayList<>();
+        // stage -> (counter field -> increment), folded into one upsert per stage
+        Map<DealStage, Map<String, Long>> increments = new EnumMap<>(DealStage.class);
+
+        for (DealChangedEvent event : events) {
+            DealStage from = event.getPreviousStage();
+            DealStage to = event.getCurrentStage();
+            Long dwellMillis = from != null ? dwellMillis(event.getBefore(), event.getOccurredAt()) : null;
+
+            stageEvents.add(DealStageEvent.builder()
+                    .dealId(event.getDealId())
+                    .fromStage(from)
+                    .toStage(to)
+                    .dwellMillis(dwellMillis)
+                    .changedBy(event.getActorId())
+                    .changedAt(event.getOccurredAt())
+                    .build());
+
+            Set<DealStage> visited = visitedByDeal.computeIfAbsent(
+                    event.getDealId(), id -> EnumSet.noneOf(DealStage.class));
+
+            if (from != null) {
+                // Deals created before history existed: count their first known stage lazily
+                if (visited.isEmpty()) {
+                    visited.add(from);
+                    increment(increments, from, "dealsEntered", 1);
+                }
+
+                increment(increments, from, "exits", 1);
+                increment(increments, from, "transitions." + to.name(), 1);
+                if (dwellMillis != null) {
+                    increment(increments, from, "dwellBuckets." + DwellHistogram.bucketFor(dwellMillis), 1);
+                    increment(increments, from, "dwellSamples", 1);
+                    increment(increments, from, "dwellTotalMillis", dwellMillis);
+                }
+            }
+
+            // First time this deal reaches the stage
+            if (visited.add(to)) {
+                increment(increments, to, "dealsEntered", 1);
+                for (DealStage earlier : visited) {
+                    if (earlier != to) {
+                        increment(increments, earlier, "reached." + to.name(), 1);
+                    }
+                }
+            }
+        }
+
+        stageEventRepository.saveAll(stageEvents);
+
+        BulkOperations stats = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, DealStageStats.class);
+        increments.forEach((stage, fields) -> {
+            Update update = new Update();
+            fields.forEach(update::inc);
+            stats.upsert(byStage(stage), update);
+        });
+        stats.execute();
+    }
+
+    @Override
+    public List<StageConversionResponse> getConversionRates() {
+
+        List<StageConversionResponse> response = new ArrayList<>();
+
+        for (DealStageStats stats : mongoTemplate.findAll(DealStageStats.class)) {
+            long deals = stats.getDealsEntered();
+
+            Set<String> targets = new TreeSet<>(stats.getTransitions().keySet());
+            targets.addAll(stats.getReached().keySet());
+
+            for (String target : targets) {
+                long direct = stats.getTransitions().getOrDefault(target, 0L);
+                long reached = stats.getReached().getOrDefault(target, 0L);
+
+                response.add(StageConversionResponse.builder()
+                        .fromStage(DealStage.valueOf(stats.getId()))
+                        .toStage(DealStage.valueOf(target))
+                        .deals(deals)
+                        .directTransitions(direct)
+                        .directRate(rate(direct, deals))
+                        .reached(reached)
+                        .reachRate(rate(reached, deals))
+                        .build());
+            }
+        }
+
+        return response;
+    }
+
+    @Override
+    public List<StageDwellResponse> getTimeInStage() {
+
+        List<StageDwellResponse> response = new ArrayList<>();
+
+        for (DealStageStats stats : mongoTemplate.findAll(DealStageStats.class)) {
+            if (stats.getDwellSamples() == 0) {
+                continue;
+            }
+
+            Map<String, Long> buckets = stats.getDwellBuckets();
+
+            response.add(StageDwellResponse.builder()
+                    .stage(DealStage.valueOf(stats.getId()))
+                    .samples(stats.getDwellSamples())
+                    .meanHours(stats.getDwellTotalMillis() / (double) stats.getDwellSamples() / MILLIS_PER_HOUR)
+                    .medianHours(DwellHistogram.percentile(buckets, 0.50) / MILLIS_PER_HOUR)
+                    .p75Hours(DwellHistogram.percentile(buckets, 0.75) / MILLIS_PER_HOUR)
+                    .p90Hours(DwellHistogram.percentile(buckets, 0.90) / MILLIS_PER_HOUR)
+                    .p95Hours(DwellHistogram.percentile(buckets, 0.95) / MILLIS_PER_HOUR)
+                    .build());
+        }
+
+        return response;
+    }
+
+    private Long dwellMillis(Deal before, Instant changedAt) {
+        Instant enteredAt = before.getStageEnteredAt() != null
+                ? before.getStageEnteredAt()
+                : before.getCreatedAt();
+
+        if (enteredAt == null) {
+            return null;
+        }
+
+        return Math.max(0L, Duration.between(enteredAt, changedAt).toMillis());
+    }
+
+    private void increment(Map<DealStage, Map<String, Long>> increments, DealStage stage, String field, long by) {
+        increments.computeIfAbsent(stage, k -> new HashMap<>()).merge(field, by, Long::sum);
+    }
+
+    private Query byStage(DealStage stage) {
+        return Query.query(Criteria.where("_id").is(stage.name()));
+    }
+
+    private double rate(long count, long total) {
+        return total == 0 ? 0d : (double) count / total;
+    }
+}
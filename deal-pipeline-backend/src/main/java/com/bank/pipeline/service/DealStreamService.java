@@ -0,0 +1,9 @@
+package com.bank.pipeline.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface DealStreamService {
+
+    /** Opens a push stream of changes to the deals the caller can see. */
+    SseEmitter subscribe(String username, boolean admin);
+}
@@ -0,0 +1,347 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealStreamMessage;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes deal changes to SSE subscribers. Idle subscribers cost only their
+ * emitter and an entry in the routing maps; no thread is held per connection.
+ * Changes are queued per subscriber and coalesced by deal id, and a flush
+ * tick hands subscribers with pending changes to a sender pool, one drain at
+ * a time per subscriber. Writes block, so the pool grows on demand up to
+ * max-sender-threads, and a drain still writing after send-timeout-ms is
+ * treated as stalled: the subscriber is dropped and its thread is left to
+ * the container's write timeout, so a few clients with full TCP buffers
+ * cannot hold up the rest. A subscriber that cannot keep up keeps
+ * coalescing; once it has more distinct deals pending than the limit it is
+ * treated as a slow consumer and disconnected. EventSource reconnects to the
+ * same URL, whose stream token stays valid for the rest of the session.
+ */
+@Service
+public class DealStreamServiceImpl implements DealStreamService {
+
+    private final long timeoutMs;
+    private final int maxPending;
+    private final long sendTimeoutNanos;
+
+    // Routing: admins see every change, users only changes to deals they own or owned
+    private final Set<Subscriber> admins = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final Queue<Subscriber> ready = new ConcurrentLinkedQueue<>();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor senders;
+
+    private final Counter sentCounter;
+    private final Counter coalescedCounter;
+    private final Counter slowConsumerCounter;
+
+    public DealStreamServiceImpl(
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${pipeline.stream.flush-interval-ms:250}") long flushIntervalMs,
+            @Value("${pipeline.stream.heartbeat-interval-ms:30000}") long heartbeatIntervalMs,
+            @Value("${pipeline.stream.max-pending:500}") int maxPending,
+            @Value("${pipeline.stream.sender-threads:4}") int senderThreads,
+            @Value("${pipeline.stream.max-sender-threads:64}") int maxSenderThreads,
+            @Value("${pipeline.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+
+        this.timeoutMs = timeoutMs;
+        this.maxPending = maxPending;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deal-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // No queue: a drain either gets a thread now or waits for the next tick
+        this.senders = new ThreadPoolExecutor(
+                senderThreads, Math.max(senderThreads, maxSenderThreads), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "deal-stream-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        ticker.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::dropStalledSends, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("deal.stream.connections", this, DealStreamServiceImpl::connectionCount)
+                .description("Open deal SSE connections")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("deal.stream.events.sent")
+                .description("Deal SSE events written to clients")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("deal.stream.events.coalesced")
+                .description("Deal changes folded into a newer pending change for the same deal")
+                .register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("deal.stream.slow-consumers")
+                .description("SSE clients disconnected for falling behind")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        admins.forEach(subscriber -> subscriber.emitter.complete());
+        byUser.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    @Override
+    public SseEmitter subscribe(String username, boolean admin) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(username, admin, emitter);
+
+        if (admin) {
+            admins.add(subscriber);
+        } else {
+            byUser.computeIfAbsent(username, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+
+        // Lets proxies and the browser see the stream open straight away
+        subscriber.heartbeatDue = true;
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // After commit when a transaction is active, so rolled-back changes are never pushed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        batch.getChanges().forEach(this::dispatch);
+    }
+
+    // Subscribers connected here see other replicas' changes too; archiving is never pushed
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        event.getChanges().forEach(this::dispatch);
+    }
+
+    void dispatch(DealChangedEvent change) {
+        if (!admins.isEmpty()) {
+            DealStreamMessage message = message(change, change.getType().name(), true, current(change));
+            admins.forEach(subscriber -> offer(subscriber, change.getDealId(), message));
+        }
+
+        String ownerBefore = change.getBefore() != null ? change.getBefore().getOwnerId() : null;
+        String ownerAfter = change.getAfter() != null ? change.getAfter().getOwnerId() : null;
+
+        if (ownerAfter != null) {
+            deliverToUser(ownerAfter, change, message(change, change.getType().name(), false, change.getAfter()));
+        }
+        if (ownerBefore != null && !ownerBefore.equals(ownerAfter)) {
+            // Deleted, or reassigned away from the previous owner
+            String type = change.getType() == DealChangeType.DELETED
+                    ? DealChangeType.DELETED.name()
+                    : DealStreamMessage.REVOKED;
+            deliverToUser(ownerBefore, change, message(change, type, false, null));
+        }
+    }
+
+    private void deliverToUser(String username, DealChangedEvent change, DealStreamMessage message) {
+        Set<Subscriber> subscribers = byUser.get(username);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> offer(subscriber, change.getDealId(), message));
+        }
+    }
+
+    private void offer(Subscriber subscriber, String dealId, DealStreamMessage message) {
+        boolean overflow;
+        synchronized (subscriber) {
+            if (subscriber.pending.put(dealId, message) != null) {
+                coalescedCounter.increment();
+            }
+            overflow = subscriber.pending.size() > maxPending;
+        }
+
+        if (overflow) {
+            slowConsumerCounter.increment();
+            unregister(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            ready.add(subscriber);
+        }
+    }
+
+    void flush() {
+        Subscriber subscriber;
+        while ((subscriber = ready.poll()) != null) {
+            Subscriber next = subscriber;
+            try {
+                senders.execute(() -> drain(next));
+            } catch (RejectedExecutionException e) {
+                // Every sender is busy; it stays scheduled for the next tick
+                ready.add(next);
+                return;
+            }
+        }
+    }
+
+    void dropStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            if (now - subscriber.sendingSince > sendTimeoutNanos && sending.remove(subscriber)) {
+                subscriber.stalled = true;
+                slowConsumerCounter.increment();
+                unregister(subscriber);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        admins.forEach(this::markHeartbeat);
+        byUser.values().forEach(subscribers -> subscribers.forEach(this::markHeartbeat));
+    }
+
+    private void markHeartbeat(Subscriber subscriber) {
+        subscriber.heartbeatDue = true;
+        schedule(subscriber);
+    }
+
+    private void drain(Subscriber subscriber) {
+        List<DealStreamMessage> messages;
+        synchronized (subscriber) {
+            messages = new ArrayList<>(subscriber.pending.values());
+            subscriber.pending.clear();
+        }
+
+        subscriber.sendingSince = System.nanoTime();
+        sending.add(subscriber);
+        try {
+            if (messages.isEmpty() && subscriber.heartbeatDue) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            for (DealStreamMessage message : messages) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(message.getType())
+                        .id(message.getDealId())
+                        .data(message, MediaType.APPLICATION_JSON));
+                sentCounter.increment();
+            }
+            subscriber.heartbeatDue = false;
+        } catch (Exception e) {
+            // Client went away or the async request already timed out
+            unregister(subscriber);
+            return;
+        } finally {
+            sending.remove(subscriber);
+        }
+
+        if (subscriber.stalled) {
+            // Dropped while the write was blocked; it got through in the end, so close it cleanly
+            subscriber.emitter.complete();
+            return;
+        }
+
+        // Changes that arrived while sending go out on the next tick
+        subscriber.scheduled.set(false);
+        boolean hasPending;
+        synchronized (subscriber) {
+            hasPending = !subscriber.pending.isEmpty();
+        }
+        if (hasPending) {
+            schedule(subscriber);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscriber.admin) {
+            admins.remove(subscriber);
+            return;
+        }
+        byUser.computeIfPresent(subscriber.username, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private int connectionCount() {
+        return admins.size() + byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private static Deal current(DealChangedEvent change) {
+        return change.getAfter() != null ? change.getAfter() : change.getBefore();
+    }
+
+    private static DealStreamMessage message(DealChangedEvent change, String type, boolean admin, Deal deal) {
+        Object body = null;
+        if (deal != null && change.getType() != DealChangeType.DELETED) {
+            body = admin ? DealMapper.toAdminResponse(deal) : DealMapper.toUserResponse(deal);
+        }
+        return DealStreamMessage.builder()
+                .type(type)
+                .dealId(change.getDealId())
+                .occurredAt(change.getOccurredAt())
+                .deal(body)
+                .build();
+    }
+
+    private static final class Subscriber {
+
+        private final String username;
+        private final boolean admin;
+        private final SseEmitter emitter;
+
+        // Latest pending change per deal, in arrival order; guarded by the subscriber
+        private final Map<String, DealStreamMessage> pending = new LinkedHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile long sendingSince;  // System.nanoTime() when the current drain began
+        private volatile boolean stalled;    // dropped by the watchdog mid-write
+
+        private Subscriber(String username, boolean admin, SseEmitter emitter) {
+            this.username = username;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Deal;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Sorted prefix maps of deal titles and sectors, one set for everyone (admins)
+ * and one per owner, so a user's lookup only ever walks their own deals. Each
+ * title and sector is keyed from every word start ("Acme Bond Issue" is found
+ * by "acm", "bon" and "iss"), with keys folded for case, accents and spacing.
+ * A lookup is a range scan from the prefix that stops after the limit, so its
+ * cost does not grow with the number of deals. Not thread-safe; the owning
+ * service guards it with a read/write lock.
+ */
+final class DealSuggestIndex {
+
+    private static final int MAX_WORDS = 8;
+
+    private final Scope all = new Scope();
+    private final Map<String, Scope> byOwner = new HashMap<>();
+    private final Map<String, Entry> deals = new HashMap<>();
+
+    void upsert(Deal deal) {
+        remove(deal.getId());
+        Entry entry = new Entry(deal.getOwnerId(), deal.getTitle(), deal.getSector());
+        deals.put(deal.getId(), entry);
+        all.add(entry);
+        if (entry.ownerId() != null) {
+            byOwner.computeIfAbsent(entry.ownerId(), owner -> new Scope()).add(entry);
+        }
+    }
+
+    void remove(String dealId) {
+        Entry entry = deals.remove(dealId);
+        if (entry == null) {
+            return;
+        }
+        all.remove(entry);
+        Scope owned = entry.ownerId() == null ? null : byOwner.get(entry.ownerId());
+        if (owned != null) {
+            owned.remove(entry);
+            if (owned.isEmpty()) {
+                byOwner.remove(entry.ownerId());
+            }
+        }
+    }
+
+    /** Titles in key order; duplicates collapse to one suggestion. */
+    List<String> titles(String prefix, String ownerId, int limit) {
+        Scope scope = scope(ownerId);
+        String key = normalize(prefix);
+        if (scope == null || key == null) {
+            return List.of();
+        }
+
+        Set<String> titles = new LinkedHashSet<>();
+        for (Map<String, Integer> values : range(scope.titles, key).values()) {
+            for (String title : values.keySet()) {
+                titles.add(title);
+                if (titles.size() == limit) {
+                    return new ArrayList<>(titles);
+                }
+            }
+        }
+        return new ArrayList<>(titles);
+    }
+
+    /** Sectors with the most matching deals first. */
+    List<String> sectors(String prefix, String ownerId, int limit) {
+        Scope scope = scope(ownerId);
+        String key = normalize(prefix);
+        if (scope == null || key == null) {
+            return List.of();
+        }
+
+        // A sector can be reached from several of its words, so counts are taken once per name
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        range(scope.sectors, key).values().forEach(values -> values.forEach(counts::putIfAbsent));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    int size() {
+        return deals.size();
+    }
+
+    int keys() {
+        return all.titles.size() + all.sectors.size();
+    }
+
+    private Scope scope(String ownerId) {
+        return ownerId == null ? all : byOwner.get(ownerId);
+    }
+
+    private static NavigableMap<String, Map<String, Integer>> range(
+            TreeMap<String, Map<String, Integer>> keys, String prefix) {
+        return keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Trimmed, lower-cased, single-spaced, accents stripped; null when blank
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String folded = Normalizer.normalize(text.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return folded.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // The full key and the key from each later word start, up to MAX_WORDS
+    private static List<String> wordStarts(String text) {
+        String key = normalize(text);
+        if (key == null) {
+            return List.of();
+        }
+        List<String> starts = new ArrayList<>();
+        starts.add(key);
+        for (int i = key.indexOf(' '); i >= 0 && starts.size() < MAX_WORDS; i = key.indexOf(' ', i + 1)) {
+            starts.add(key.substring(i + 1));
+        }
+        return starts;
+    }
+
+    private record Entry(String ownerId, String title, String sector) {
+    }
+
+    private static final class Scope {
+
+        // word-start key -> display value -> deals carrying it
+        final TreeMap<String, Map<String, Integer>> titles = new TreeMap<>();
+        final TreeMap<String, Map<String, Integer>> sectors = new TreeMap<>();
+
+        void add(Entry entry) {
+            adjust(titles, entry.title(), 1);
+            adjust(sectors, entry.sector(), 1);
+        }
+
+        void remove(Entry entry) {
+            adjust(titles, entry.title(), -1);
+            adjust(sectors, entry.sector(), -1);
+        }
+
+        boolean isEmpty() {
+            return titles.isEmpty() && sectors.isEmpty();
+        }
+
+        private static void adjust(TreeMap<String, Map<String, Integer>> keys, String value, int delta) {
+            if (value == null) {
+                return;
+            }
+            String display = value.trim();
+            for (String key : wordStarts(value)) {
+                Map<String, Integer> values = keys.computeIfAbsent(key, k -> new HashMap<>(2));
+                if (values.merge(display, delta, Integer::sum) <= 0) {
+                    values.remove(display);
+                }
+                if (values.isEmpty()) {
+                    keys.remove(key);
+                }
+            }
+        }
+    }
+}
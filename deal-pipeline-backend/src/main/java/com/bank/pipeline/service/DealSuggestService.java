@@ -0,0 +1,19 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealSuggestResponse;
+
+/** Search box typeahead over deal titles and sectors, served from memory. */
+public interface DealSuggestService {
+
+    /** False until the index has been built (or when it is disabled). */
+    boolean isReady();
+
+    /**
+     * Titles and sectors with a word starting with the prefix. Admins see every
+     * working deal; users only deals they own.
+     */
+    DealSuggestResponse suggest(String prefix, String username, boolean isAdmin, int limit);
+
+    /** Rebuilds the index from the deals collection. */
+    void rebuild();
+}
@@ -0,0 +1,125 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealSuggestResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.stream.Stream;
+
+/**
+ * Keeps a prefix index of the working deals' titles and sectors (not the
+ * archive, like search without includeArchived). Built from Mongo on startup
+ * on a background thread, then maintained from deal change and archive
+ * events; see LiveDealIndex. Lookups never touch Mongo.
+ */
+@Service
+public class DealSuggestServiceImpl implements DealSuggestService {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final LiveDealIndex<DealSuggestIndex> index;
+
+    public DealSuggestServiceImpl(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.suggest.enabled:false}") boolean enabled) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.index = new LiveDealIndex<>("deal-suggest-loader", "Suggest index is not built",
+                this::build, fresh -> { });
+
+        index.gauge(meterRegistry, "deal.suggest.deals", "Deals in the typeahead index", null,
+                DealSuggestIndex::size);
+        index.gauge(meterRegistry, "deal.suggest.keys", "Title and sector keys in the shared typeahead index", null,
+                DealSuggestIndex::keys);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            index.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        index.stop();
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && index.isReady();
+    }
+
+    @Override
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        index.apply(target -> applyChange(target, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        index.apply(target -> batch.getChanges().forEach(change -> applyChange(target, change)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsArchived(DealsArchivedEvent event) {
+        index.apply(target -> event.getDealIds().forEach(target::remove));
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        index.apply(target -> {
+            event.getChanges().forEach(change -> applyChange(target, change));
+            event.getArchivedDeals().forEach(deal -> target.remove(deal.getId()));
+        });
+    }
+
+    @Override
+    public DealSuggestResponse suggest(String prefix, String username, boolean isAdmin, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String ownerId = isAdmin ? null : username;
+
+        return index.query(current -> DealSuggestResponse.builder()
+                .titles(current.titles(prefix, ownerId, max))
+                .sectors(current.sectors(prefix, ownerId, max))
+                .build());
+    }
+
+    private DealSuggestIndex build() {
+        DealSuggestIndex fresh = new DealSuggestIndex();
+        Query query = new Query();
+        query.fields().include("title", "sector", "ownerId");
+        try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class)) {
+            deals.forEach(fresh::upsert);
+        }
+        return fresh;
+    }
+
+    private static void applyChange(DealSuggestIndex target, DealChangedEvent change) {
+        if (change.getAfter() != null) {
+            target.upsert(change.getAfter());
+        } else {
+            target.remove(change.getDealId());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.pipeline.service;
+
+import java.time.Duration;
+
+public interface DistributedLockService {
+
+    /**
+     * Returns true if this instance now holds the lock until ttl expires or it is released.
+     * Calling it again while holding the lock extends the lease.
+     */
+    boolean tryAcquire(String lockName, Duration ttl);
+
+    void release(String lockName);
+}
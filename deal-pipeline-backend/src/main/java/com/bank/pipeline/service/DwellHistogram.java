@@ -0,0 +1,58 @@
+package com.bank.pipeline.service;
+
+import java.util.Map;
+
+/**
+ * Log-scale histogram used for time-in-stage percentiles.
+ * Bucket i holds durations up to 1 minute * 1.5^i; the last bucket is open-ended.
+ * Counts live in Mongo as a map of bucket index -> count so they can be $inc'ed.
+ */
+public final class DwellHistogram {
+
+    static final int BUCKETS = 41;
+    private static final double BASE_MILLIS = 60_000d;
+    private static final double GROWTH = 1.5d;
+
+    private DwellHistogram() {
+        // utility class - prevent instantiation
+    }
+
+    public static int bucketFor(long millis) {
+        if (millis <= BASE_MILLIS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(millis / BASE_MILLIS) / Math.log(GROWTH));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    static double upperBound(int bucket) {
+        return BASE_MILLIS * Math.pow(GROWTH, bucket);
+    }
+
+    /** Estimated percentile in millis, interpolating linearly inside the bucket. */
+    public static double percentile(Map<String, Long> buckets, double percentile) {
+        long total = buckets.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return 0d;
+        }
+
+        double rank = percentile * total;
+        long cumulative = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = buckets.getOrDefault(String.valueOf(i), 0L);
+            if (count == 0) {
+                continue;
+            }
+            if (cumulative + count >= rank) {
+                double lower = i == 0 ? 0d : upperBound(i - 1);
+                double upper = upperBound(i);
+                double fraction = (rank - cumulative) / count;
+                return lower + (upper - lower) * fraction;
+            }
+            cumulative += count;
+        }
+
+        return upperBound(BUCKETS - 1);
+    }
+}
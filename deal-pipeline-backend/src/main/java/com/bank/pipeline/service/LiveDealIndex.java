@@ -0,0 +1,138 @@
+package com.bank.pipeline.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An in-memory index derived from the deals, shared by the facet, suggest,
+ * fuzzy and columnar services. Built from Mongo by a DealIndexLoader, then
+ * kept current by applying changes, this replica's from its deal events and
+ * other replicas' from the DealChangeFeed; changes that arrive while a build
+ * is running are queued and replayed on top of it. A build swaps in a fresh
+ * instance, so searches see the previous one until it completes.
+ */
+final class LiveDealIndex<T> {
+
+    private final Supplier<T> builder;
+    private final Consumer<T> onPublish;
+    private final String notReadyMessage;
+    private final DealIndexLoader loader;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private T index;                          // null until the first build completes
+    private List<Consumer<T>> pendingChanges; // non-null while a build is running
+
+    /**
+     * builder reads Mongo into a fresh index; onPublish runs on it after the
+     * queued changes are replayed, just before it replaces the current one.
+     */
+    LiveDealIndex(String loaderThreadName, String notReadyMessage, Supplier<T> builder, Consumer<T> onPublish) {
+        this.builder = builder;
+        this.onPublish = onPublish;
+        this.notReadyMessage = notReadyMessage;
+        this.loader = new DealIndexLoader(loaderThreadName, this::isReady, this::rebuild);
+    }
+
+    /** Builds in the background, retrying until it succeeds. */
+    void start() {
+        loader.start();
+    }
+
+    void stop() {
+        loader.stop();
+    }
+
+    boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                return; // a build is already running
+            }
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            T fresh = builder.get();
+
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> change.accept(fresh));
+                onPublish.accept(fresh);
+                index = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    void apply(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (index != null) {
+                change.accept(index);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Runs the query under the read lock; IllegalStateException until the first build completes. */
+    <R> R query(Function<T, R> query) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                throw new IllegalStateException(notReadyMessage);
+            }
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Registers a gauge over the current index; it reads 0 until the first build completes. */
+    void gauge(MeterRegistry meterRegistry, String name, String description, String baseUnit,
+               ToDoubleFunction<T> metric) {
+        Gauge.builder(name, this, live -> live.read(metric))
+                .description(description)
+                .baseUnit(baseUnit)
+                .register(meterRegistry);
+    }
+
+    private double read(ToDoubleFunction<T> metric) {
+        lock.readLock().lock();
+        try {
+            return index == null ? 0 : metric.applyAsDouble(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
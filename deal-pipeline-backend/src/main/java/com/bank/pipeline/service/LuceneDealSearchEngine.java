@@ -0,0 +1,456 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealStage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.store.FSDirectory;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a Lucene index of the working deals (not the archive, like search
+ * without includeArchived) on local disk. Deal change and archive events,
+ * and other replicas' changes from the DealChangeFeed, are written as they
+ * arrive and become searchable at the next refresh (every refresh-ms); a
+ * commit every commit-interval-ms is the on-disk snapshot.
+ * On startup a snapshot is served straight away while the deals changed or
+ * archived since it was taken are re-read from Mongo; without one the index
+ * is rebuilt from the deals collection first. During a build or catch-up,
+ * searches see the previous state and events are queued, then replayed on
+ * top once it finishes. A failed start, or a write failure later on, is
+ * recovered by the loader: the failed writer is dropped and the index
+ * restored from its last commit (or rebuilt), retried with backoff.
+ */
+@Service
+public class LuceneDealSearchEngine implements DealSearchEngine {
+
+    // Events are published after the write commits, so one can reach the index shortly
+    // after its occurredAt; catch-up re-reads this far before the snapshot
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final String[] INDEXED_FIELDS = {"title", "sector", "stage", "notes"};
+
+    private final MongoTemplate mongoTemplate;
+    private final SectorCatalogService sectorCatalog;
+    private final boolean enabled;
+    private final Path path;
+    private final Timer queryTimer;
+    private final DealIndexLoader loader;
+
+    // Held for a whole build or catch-up, and by commits and refreshes, which skip a build in progress
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final ReentrantLock changeLock = new ReentrantLock();
+    private volatile DealLuceneIndex index;     // null until opened
+    private volatile boolean ready;             // false until built or restored, and after a write failure
+    private List<IndexChange> pendingChanges;   // non-null while a build or catch-up is running
+
+    public LuceneDealSearchEngine(
+            MongoTemplate mongoTemplate,
+            SectorCatalogService sectorCatalog,
+            MeterRegistry meterRegistry,
+            @Value("${pipeline.search.lucene.enabled:false}") boolean enabled,
+            @Value("${pipeline.search.lucene.path:data/lucene/deals}") String path) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.sectorCatalog = sectorCatalog;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.loader = new DealIndexLoader("deal-lucene-loader", this::isReady, this::start);
+
+        Gauge.builder("deal.search.lucene.deals", this, LuceneDealSearchEngine::size)
+                .description("Deals in the Lucene search index")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("deal.search.lucene.query")
+                .description("Lucene deal search latency, excluding the Mongo page read")
+                .register(meterRegistry);
+    }
+
+    // Search stays on Mongo until the loader has the index ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            loader.start();
+        }
+    }
+
+    // Restores the snapshot on disk if there is one, otherwise builds from Mongo
+    void start() throws IOException {
+        discardFailedWriter();
+        if (!restore()) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.stop();
+        DealLuceneIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (ready && buildLock.tryLock()) {
+                try {
+                    current.commit(Instant.now());
+                } finally {
+                    buildLock.unlock();
+                }
+            }
+            current.close();
+        } catch (IOException e) {
+            // The last scheduled snapshot stands
+        } finally {
+            ready = false;
+            index = null;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return enabled && ready && index != null;
+    }
+
+    @Override
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            open();
+            if (!buildLock.tryLock()) {
+                return; // a build is already running
+            }
+            boolean built = false;
+            try {
+                queueChanges();
+                Instant started = Instant.now();
+                index.clear();
+
+                Query query = new Query();
+                query.fields().include(INDEXED_FIELDS);
+                try (Stream<Deal> deals = mongoTemplate.stream(query, Deal.class)) {
+                    Iterator<Deal> iterator = deals.iterator();
+                    while (iterator.hasNext()) {
+                        index.add(iterator.next());
+                    }
+                }
+
+                publish(started);
+                built = true;
+            } finally {
+                stopQueueing(built);
+                buildLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pipeline.search.lucene.refresh-ms:500}")
+    public void refresh() {
+        DealLuceneIndex current = index;
+        if (!ready || current == null || !buildLock.tryLock()) {
+            return;
+        }
+        try {
+            current.refresh();
+        } catch (IOException e) {
+            ready = false;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.search.lucene.commit-interval-ms:60000}",
+            initialDelayString = "${pipeline.search.lucene.commit-interval-ms:60000}")
+    public void commit() {
+        DealLuceneIndex current = index;
+        if (!ready || current == null || !buildLock.tryLock()) {
+            return;
+        }
+        try {
+            // Taken before the commit; anything written meanwhile is re-read on restart anyway
+            current.commit(Instant.now());
+        } catch (IOException e) {
+            ready = false;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealChanged(DealChangedEvent event) {
+        apply(target -> applyChange(target, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        apply(target -> {
+            for (DealChangedEvent change : batch.getChanges()) {
+                applyChange(target, change);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsArchived(DealsArchivedEvent event) {
+        apply(target -> {
+            for (String dealId : event.getDealIds()) {
+                target.remove(dealId);
+            }
+        });
+    }
+
+    @EventListener
+    public void onRemoteChanges(RemoteDealChangesEvent event) {
+        apply(target -> {
+            for (DealChangedEvent change : event.getChanges()) {
+                applyChange(target, change);
+            }
+            for (Deal deal : event.getArchivedDeals()) {
+                target.remove(deal.getId());
+            }
+        });
+    }
+
+    @Override
+    public Page<String> search(String query, DealStage stage, String sector, Pageable pageable) {
+        DealLuceneIndex current = index;
+        if (!isReady() || current == null) {
+            throw new IllegalStateException("Search index is not open");
+        }
+        String sectorName = sector == null || sector.isEmpty() ? null : sectorCatalog.canonicalName(sector);
+
+        long start = System.nanoTime();
+        try {
+            return current.search(query, stage, sectorName, pageable);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            queryTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    // A writer left unready by a failed build or write is closed, rolling back to its last commit
+    private void discardFailedWriter() throws IOException {
+        if (ready || !buildLock.tryLock()) {
+            return;
+        }
+        try {
+            DealLuceneIndex failed;
+            changeLock.lock();
+            try {
+                failed = index;
+                index = null;
+            } finally {
+                changeLock.unlock();
+            }
+            if (failed != null) {
+                failed.close();
+            }
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        changeLock.lock();
+        try {
+            if (index == null) {
+                Files.createDirectories(path);
+                index = new DealLuceneIndex(FSDirectory.open(path));
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    /**
+     * Opens the snapshot on disk and serves it while the deals changed or
+     * archived since it was committed are re-read. False when there is no
+     * snapshot to start from.
+     */
+    private boolean restore() throws IOException {
+        open();
+        Instant watermark = index.watermark();
+        if (watermark == null) {
+            return false;
+        }
+        if (!buildLock.tryLock()) {
+            return true; // a rebuild got there first
+        }
+        boolean caughtUp = false;
+        try {
+            queueChanges();
+            ready = true;
+            Instant started = Instant.now();
+            Instant since = watermark.minus(CATCH_UP_OVERLAP);
+
+            reindex(changedSince(since));
+            for (String dealId : archivedSince(since)) {
+                index.remove(dealId);
+            }
+
+            publish(started);
+            caughtUp = true;
+        } finally {
+            stopQueueing(caughtUp);
+            buildLock.unlock();
+        }
+        return true;
+    }
+
+    // Every deal mutation is in the change log, deletes included
+    private Set<String> changedSince(Instant since) {
+        Query query = Query.query(Criteria.where("occurredAt").gte(since));
+        query.fields().include("dealId");
+        Set<String> dealIds = new LinkedHashSet<>();
+        try (Stream<DealChangeLogEntry> entries = mongoTemplate.stream(query, DealChangeLogEntry.class)) {
+            entries.forEach(entry -> dealIds.add(entry.getDealId()));
+        }
+        return dealIds;
+    }
+
+    // Archiving is not a logged change; the archive stamps archivedAt instead
+    private Set<String> archivedSince(Instant since) {
+        Query query = Query.query(Criteria.where("archivedAt").gte(since));
+        query.fields().include("_id");
+        Set<String> dealIds = new LinkedHashSet<>();
+        try (Stream<Document> deals = mongoTemplate.stream(query, Document.class, DealArchiveService.ARCHIVE_COLLECTION)) {
+            deals.forEach(deal -> dealIds.add(deal.get("_id").toString()));
+        }
+        return dealIds;
+    }
+
+    // Current state from Mongo; a deal no longer there is dropped
+    private void reindex(Set<String> dealIds) throws IOException {
+        List<String> ids = new ArrayList<>(dealIds);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            Query query = Query.query(Criteria.where("id").in(batch));
+            query.fields().include(INDEXED_FIELDS);
+            Map<String, Deal> byId = mongoTemplate.find(query, Deal.class).stream()
+                    .collect(Collectors.toMap(Deal::getId, Function.identity()));
+
+            for (String dealId : batch) {
+                Deal deal = byId.get(dealId);
+                if (deal != null) {
+                    index.upsert(deal);
+                } else {
+                    index.remove(dealId);
+                }
+            }
+        }
+    }
+
+    private void queueChanges() {
+        changeLock.lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    // Replays what arrived during the build, then commits and opens it to searches
+    private void publish(Instant watermark) throws IOException {
+        changeLock.lock();
+        try {
+            for (IndexChange change : pendingChanges) {
+                change.applyTo(index);
+            }
+            pendingChanges = null;
+        } finally {
+            changeLock.unlock();
+        }
+        index.commit(watermark);
+        index.refresh();
+        ready = true;
+    }
+
+    private void stopQueueing(boolean succeeded) {
+        changeLock.lock();
+        try {
+            pendingChanges = null;
+            if (!succeeded) {
+                ready = false; // the writer holds a partial build; search goes back to Mongo
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    // Unlike the in-memory indexes, a change is only queued during a build: the build
+    // writes to the same index, so the replay has to land after it
+    private void apply(IndexChange change) {
+        if (!enabled) {
+            return;
+        }
+        changeLock.lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            } else if (index != null) {
+                change.applyTo(index);
+            }
+        } catch (IOException e) {
+            ready = false; // the writer failed; search goes back to Mongo until the loader recovers it
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    private static void applyChange(DealLuceneIndex target, DealChangedEvent change) throws IOException {
+        if (change.getAfter() != null) {
+            target.upsert(change.getAfter());
+        } else {
+            target.remove(change.getDealId());
+        }
+    }
+
+    private double size() {
+        DealLuceneIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void applyTo(DealLuceneIndex target) throws IOException;
+    }
+}
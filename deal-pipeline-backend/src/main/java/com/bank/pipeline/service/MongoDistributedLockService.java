@@ -0,0 +1,58 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.SchedulerLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lease-style lock on the scheduler_locks collection so that only one
+ * replica runs a scheduled job at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class MongoDistributedLockService implements DistributedLockService {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean tryAcquire(String lockName, Duration ttl) {
+        Instant now = Instant.now();
+
+        // Matches a free or expired lock, or one this instance already holds (lease renewal);
+        // otherwise the upsert collides on _id
+        Query query = Query.query(Criteria.where("_id").is(lockName)
+                .orOperator(
+                        Criteria.where("lockedUntil").lte(now),
+                        Criteria.where("owner").is(instanceId)));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("lockedAt", now)
+                .set("lockedUntil", now.plus(ttl));
+
+        try {
+            mongoTemplate.upsert(query, update, SchedulerLock.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String lockName) {
+        Query query = Query.query(Criteria.where("_id").is(lockName)
+                .and("owner").is(instanceId));
+
+        mongoTemplate.updateFirst(query, new Update().set("lockedUntil", Instant.now()), SchedulerLock.class);
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.PipelineSnapshot;
+
+import java.time.Instant;
+
+public interface PipelineHistoryService {
+
+    void recordChange(DealChangedEvent event);
+
+    PipelineAsOfResponse getPipelineAsOf(Instant asOf);
+
+    PipelineSnapshot compact();
+}
@@ -0,0 +1,209 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealPosition;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.PipelineSnapshot;
+import com.bank.pipeline.repository.DealChangeLogRepository;
+import com.bank.pipeline.repository.PipelineSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class PipelineHistoryServiceImpl implements PipelineHistoryService {
+
+    // Entries newer than this are left for the next compaction so in-flight writes are not skipped
+    private static final Duration SETTLE_WINDOW = Duration.ofSeconds(5);
+    private static final int REPLAY_BATCH_SIZE = 1000;
+    private static final String COMPACTION_LOCK = "pipeline-history-compaction";
+
+    private final DealChangeLogRepository changeLogRepository;
+    private final PipelineSnapshotRepository snapshotRepository;
+    private final MongoTemplate mongoTemplate;
+    private final DistributedLockService lockService;
+    private final SectorCatalogService sectorCatalog;
+    private final ReplicaId replicaId;
+
+    // Inside the deal's transaction, like the outbox: an entry is never lost while its deal commits.
+    // Entries are plain inserts, so unlike the stage stats they cannot write-conflict.
+    @EventListener
+    public void onDealChanged(DealChangedEvent event) {
+        recordChange(event);
+    }
+
+    @EventListener
+    public void onDealsChanged(DealBatchChangedEvent batch) {
+        changeLogRepository.saveAll(batch.getChanges().stream()
+                .map(this::toEntry)
+                .toList());
+    }
+
+    @Override
+    public void recordChange(DealChangedEvent event) {
+        changeLogRepository.save(toEntry(event));
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.history.compaction-interval-ms:3600000}",
+            initialDelayString = "${pipeline.history.compaction-initial-delay-ms:60000}")
+    public void scheduledCompaction() {
+        if (!lockService.tryAcquire(COMPACTION_LOCK, Duration.ofMinutes(10))) {
+            return;
+        }
+        try {
+            compact();
+        } finally {
+            lockService.release(COMPACTION_LOCK);
+        }
+    }
+
+    @Override
+    public PipelineSnapshot compact() {
+        Optional<PipelineSnapshot> latest = snapshotRepository.findFirstByOrderByAsOfDesc();
+        if (latest.isEmpty()) {
+            return snapshotRepository.save(baseline());
+        }
+
+        Instant boundary = Instant.now().minus(SETTLE_WINDOW);
+        PipelineSnapshot base = latest.get();
+        if (!boundary.isAfter(base.getAsOf())) {
+            return base;
+        }
+
+        PipelineTotals totals = PipelineTotals.from(base);
+        long replayed = replayForward(totals, base.getAsOf(), boundary);
+        if (replayed == 0) {
+            return base;
+        }
+
+        return snapshotRepository.save(
+                totals.toSnapshot(boundary, base.getCompactedChanges() + replayed));
+    }
+
+    @Override
+    public PipelineAsOfResponse getPipelineAsOf(Instant asOf) {
+
+        PipelineSnapshot snapshot = nearestSnapshot(asOf);
+        PipelineTotals totals = PipelineTotals.from(snapshot);
+
+        long replayed = asOf.isBefore(snapshot.getAsOf())
+                ? replayBackward(totals, asOf, snapshot.getAsOf())
+                : replayForward(totals, snapshot.getAsOf(), asOf);
+
+        return totals.toResponse(asOf, snapshot.getAsOf(), replayed);
+    }
+
+    // Closest snapshot on either side of asOf, so only the shorter delta is replayed
+    private PipelineSnapshot nearestSnapshot(Instant asOf) {
+        Optional<PipelineSnapshot> before = snapshotRepository.findFirstByAsOfLessThanEqualOrderByAsOfDesc(asOf);
+        Optional<PipelineSnapshot> after = snapshotRepository.findFirstByAsOfGreaterThanOrderByAsOfAsc(asOf);
+
+        if (before.isEmpty()) {
+            // History starts at the first snapshot: the log holds nothing older to revert
+            PipelineSnapshot first = after.orElseGet(this::compact);
+            if (asOf.isBefore(first.getAsOf())) {
+                throw new InvalidRequestException("Pipeline history starts at " + first.getAsOf());
+            }
+            return first;
+        }
+        if (after.isEmpty()) {
+            return before.get();
+        }
+
+        Duration behind = Duration.between(before.get().getAsOf(), asOf);
+        Duration ahead = Duration.between(asOf, after.get().getAsOf());
+        return behind.compareTo(ahead) <= 0 ? before.get() : after.get();
+    }
+
+    private long replayForward(PipelineTotals totals, Instant from, Instant to) {
+        Query query = Query.query(Criteria.where("occurredAt").gt(from).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "occurredAt"))
+                .cursorBatchSize(REPLAY_BATCH_SIZE);
+
+        long replayed = 0;
+        try (Stream<DealChangeLogEntry> entries = mongoTemplate.stream(query, DealChangeLogEntry.class)) {
+            Iterator<DealChangeLogEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                totals.apply(iterator.next());
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private long replayBackward(PipelineTotals totals, Instant to, Instant from) {
+        Query query = Query.query(Criteria.where("occurredAt").gt(to).lte(from))
+                .with(Sort.by(Sort.Direction.DESC, "occurredAt"))
+                .cursorBatchSize(REPLAY_BATCH_SIZE);
+
+        long replayed = 0;
+        try (Stream<DealChangeLogEntry> entries = mongoTemplate.stream(query, DealChangeLogEntry.class)) {
+            Iterator<DealChangeLogEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                totals.revert(iterator.next());
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private DealChangeLogEntry toEntry(DealChangedEvent event) {
+        return DealChangeLogEntry.builder()
+                .dealId(event.getDealId())
+                .type(event.getType())
+                .before(DealPosition.of(event.getBefore()))
+                .after(DealPosition.of(event.getAfter()))
+                .changedBy(event.getActorId())
+                .origin(replicaId.get())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    // First snapshot: current state of the deals collection. It is labelled with the time the
+    // aggregation read the deals, not the settle boundary, so the next compaction does not replay
+    // changes the aggregation already counted.
+    private PipelineSnapshot baseline() {
+        // Archived deals still count towards the pipeline totals. Groups are keyed
+        // by stored sector id; ids and legacy names of one sector add into one bucket.
+        Aggregation aggregation = Aggregation.newAggregation(
+                UnionWithOperation.unionWith(DealArchiveService.ARCHIVE_COLLECTION),
+                Aggregation.group("stage", "sector")
+                        .count().as("count")
+                        .sum("dealValue").as("totalValue"));
+
+        PipelineTotals totals = new PipelineTotals();
+        Instant readAt = Instant.now();
+        for (Document group : mongoTemplate.aggregate(aggregation, Deal.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            String stage = key.getString("stage");
+            totals.addGroup(
+                    stage != null ? DealStage.valueOf(stage) : null,
+                    sectorCatalog.nameOf(key.getString("sector")),
+                    ((Number) group.get("count")).longValue(),
+                    ((Number) group.get("totalValue")).doubleValue());
+        }
+
+        return totals.toSnapshot(readAt, 0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealPosition;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.PipelineBucket;
+import com.bank.pipeline.model.PipelineSectorBucket;
+import com.bank.pipeline.model.PipelineSnapshot;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Mutable stage/sector totals that change log entries are replayed onto. */
+final class PipelineTotals {
+
+    static final String UNSPECIFIED = "UNSPECIFIED";
+
+    private final Map<String, PipelineBucket> byStage = new TreeMap<>();
+    private final Map<String, PipelineBucket> bySector = new TreeMap<>();
+
+    static PipelineTotals from(PipelineSnapshot snapshot) {
+        PipelineTotals totals = new PipelineTotals();
+        copyInto(snapshot.getByStage(), totals.byStage);
+        if (snapshot.getBySector() != null) {
+            snapshot.getBySector().forEach(bucket -> totals.bySector.put(bucket.getSector(),
+                    new PipelineBucket(bucket.getCount(), bucket.getTotalValue(), bucket.getWeightedValue())));
+        }
+        return totals;
+    }
+
+    void add(DealPosition position) {
+        adjust(position, 1);
+    }
+
+    void remove(DealPosition position) {
+        adjust(position, -1);
+    }
+
+    void apply(DealChangeLogEntry entry) {
+        remove(entry.getBefore());
+        add(entry.getAfter());
+    }
+
+    void revert(DealChangeLogEntry entry) {
+        remove(entry.getAfter());
+        add(entry.getBefore());
+    }
+
+    PipelineSnapshot toSnapshot(Instant asOf, long compactedChanges) {
+        return PipelineSnapshot.builder()
+                .asOf(asOf)
+                .byStage(copyOf(byStage))
+                .bySector(sectorList(bySector))
+                .compactedChanges(compactedChanges)
+                .build();
+    }
+
+    PipelineAsOfResponse toResponse(Instant asOf, Instant snapshotAsOf, long replayedChanges) {
+        return PipelineAsOfResponse.builder()
+                .asOf(asOf)
+                .snapshotAsOf(snapshotAsOf)
+                .replayedChanges(replayedChanges)
+                .totalDeals(byStage.values().stream().mapToLong(PipelineBucket::getCount).sum())
+                .totalValue(byStage.values().stream().mapToDouble(PipelineBucket::getTotalValue).sum())
+                .weightedValue(byStage.values().stream().mapToDouble(PipelineBucket::getWeightedValue).sum())
+                .byStage(copyOf(byStage))
+                .bySector(copyOf(bySector))
+                .build();
+    }
+
+    // Folds pre-aggregated deals (e.g. a $group over the deals collection) into the totals
+    void addGroup(DealStage stage, String sector, long count, double totalValue) {
+        adjust(stage, sector, count, totalValue);
+    }
+
+    private void adjust(DealPosition position, int sign) {
+        if (position == null) {
+            return;
+        }
+
+        double value = position.getDealValue() != null ? position.getDealValue() : 0d;
+        adjust(position.getStage(), position.getSector(), sign, sign * value);
+    }
+
+    private void adjust(DealStage stage, String sector, long count, double value) {
+        double weighted = stage != null ? value * stage.getWinProbability() : 0d;
+
+        adjust(byStage, stage != null ? stage.name() : UNSPECIFIED, count, value, weighted);
+        adjust(bySector, sector != null ? sector : UNSPECIFIED, count, value, weighted);
+    }
+
+    private static void adjust(
+            Map<String, PipelineBucket> buckets, String key, long count, double value, double weighted) {
+
+        PipelineBucket bucket = buckets.computeIfAbsent(key, k -> new PipelineBucket());
+        bucket.setCount(bucket.getCount() + count);
+        bucket.setTotalValue(bucket.getTotalValue() + value);
+        bucket.setWeightedValue(bucket.getWeightedValue() + weighted);
+
+        if (bucket.getCount() == 0) {
+            buckets.remove(key);
+        }
+    }
+
+    private static void copyInto(Map<String, PipelineBucket> source, Map<String, PipelineBucket> target) {
+        if (source != null) {
+            source.forEach((key, bucket) ->
+                    target.put(key, new PipelineBucket(
+                            bucket.getCount(), bucket.getTotalValue(), bucket.getWeightedValue())));
+        }
+    }
+
+    // Stored form of per-sector totals, ordered by sector
+    static List<PipelineSectorBucket> sectorList(Map<String, PipelineBucket> bySector) {
+        if (bySector == null) {
+            return List.of();
+        }
+        return new TreeMap<>(bySector).entrySet().stream()
+                .map(entry -> new PipelineSectorBucket(entry.getKey(), entry.getValue().getCount(),
+                        entry.getValue().getTotalValue(), entry.getValue().getWeightedValue()))
+                .toList();
+    }
+
+    private static Map<String, PipelineBucket> copyOf(Map<String, PipelineBucket> source) {
+        Map<String, PipelineBucket> copy = new HashMap<>();
+        copyInto(source, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.pipeline.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identifies this process among the replicas sharing the database. Change
+ * log entries are tagged with it so the change feed can tell the changes
+ * its own in-process events already applied from other replicas' changes.
+ */
+@Component
+public class ReplicaId {
+
+    private final String id = UUID.randomUUID().toString();
+
+    public String get() {
+        return id;
+    }
+}
@@ -0,0 +1,39 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Sector;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Canonical sectors and their aliases, cached in memory. Deals store the
+ * sector id; names are resolved at the edges.
+ */
+public interface SectorCatalogService {
+
+    /** Id to store for a name or alias, registering a new sector if unknown. Null for a blank name. */
+    String idFor(String name);
+
+    /** Sector for a name or alias (any case, accents or spacing), without registering anything. */
+    Optional<Sector> resolve(String name);
+
+    /** Canonical name for a name or alias; an unknown name is returned as given. */
+    String canonicalName(String name);
+
+    /** Name for a stored value: an id, or a raw name written before the catalog existed. */
+    String nameOf(String stored);
+
+    /** Ids of sectors whose name or one of its aliases contains the text, ignoring case. */
+    List<String> findIdsContaining(String text);
+
+    List<Sector> getSectors();
+
+    /**
+     * Adds an alias. If the alias is another sector's name or alias, that sector
+     * is merged into this one and its deals are re-pointed.
+     */
+    Sector addAlias(String sectorId, String alias);
+
+    /** Re-reads the catalog from Mongo. */
+    void reload();
+}
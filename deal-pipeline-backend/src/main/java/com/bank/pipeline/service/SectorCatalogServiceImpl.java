@@ -0,0 +1,306 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.exception.ResourceNotFoundException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.Sector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sector catalog held as an immutable in-memory snapshot, swapped on every
+ * reload so lookups never touch Mongo. Other replicas' changes are picked up
+ * by a periodic reload. Unknown names are registered on first write with the
+ * next base-36 id; a concurrent registration of the same name or id trips the
+ * unique indexes and is resolved by reloading. An id missing from the
+ * snapshot was most likely registered on another replica since the last
+ * reload, so it is looked up by id and added before falling back to the raw
+ * value; a miss is remembered for a short while, as the lookup runs on every
+ * deal read. Registration runs outside any transaction of the caller (a deal
+ * save, when the outbox is on), so a rolled-back deal cannot leave a cached
+ * id without its catalog document. On startup, deals still holding a raw sector name are re-pointed to
+ * its id.
+ */
+@Service
+public class SectorCatalogServiceImpl implements SectorCatalogService {
+
+    private static final String MIGRATION_LOCK = "sector-migration";
+    private static final Duration MIGRATION_LEASE = Duration.ofMinutes(30);
+    private static final int MAX_REGISTER_ATTEMPTS = 5;
+    private static final Duration MISS_TTL = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final DistributedLockService lockService;
+    private final TransactionTemplate outsideTransaction;   // null without a transaction manager
+
+    private volatile Catalog catalog = new Catalog(List.of());
+    private final Map<String, Instant> misses = new ConcurrentHashMap<>();
+
+    public SectorCatalogServiceImpl(
+            MongoTemplate mongoTemplate,
+            DistributedLockService lockService,
+            Optional<PlatformTransactionManager> transactionManager) {
+
+        this.mongoTemplate = mongoTemplate;
+        this.lockService = lockService;
+        this.outsideTransaction = transactionManager.map(manager -> {
+            TransactionTemplate template = new TransactionTemplate(manager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+            return template;
+        }).orElse(null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        if (lockService.tryAcquire(MIGRATION_LOCK, MIGRATION_LEASE)) {
+            try {
+                migrateStoredNames(mongoTemplate.getCollectionName(Deal.class));
+                migrateStoredNames(DealArchiveService.ARCHIVE_COLLECTION);
+            } finally {
+                lockService.release(MIGRATION_LOCK);
+            }
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${pipeline.sectors.reload-interval-ms:30000}",
+            initialDelayString = "${pipeline.sectors.reload-interval-ms:30000}")
+    @Override
+    public void reload() {
+        catalog = new Catalog(mongoTemplate.findAll(Sector.class));
+        misses.clear();
+    }
+
+    @Override
+    public String idFor(String name) {
+        String key = key(name);
+        if (key == null) {
+            return null;
+        }
+        Sector sector = catalog.byKey().get(key);
+        return sector != null ? sector.getId() : register(name, key).getId();
+    }
+
+    @Override
+    public Optional<Sector> resolve(String name) {
+        String key = key(name);
+        return key == null ? Optional.empty() : Optional.ofNullable(catalog.byKey().get(key));
+    }
+
+    @Override
+    public String canonicalName(String name) {
+        return resolve(name).map(Sector::getName).orElse(name);
+    }
+
+    @Override
+    public String nameOf(String stored) {
+        if (stored == null) {
+            return null;
+        }
+        Sector sector = catalog.byId().get(stored);
+        if (sector != null) {
+            return sector.getName();
+        }
+        return resolve(stored)
+                .or(() -> loadById(stored))
+                .map(Sector::getName)
+                .orElse(stored);
+    }
+
+    @Override
+    public List<String> findIdsContaining(String text) {
+        String needle = key(text);
+        if (needle == null) {
+            return List.of();
+        }
+        return catalog.byId().values().stream()
+                .filter(sector -> sector.getAliases().stream().anyMatch(alias -> key(alias).contains(needle)))
+                .map(Sector::getId)
+                .toList();
+    }
+
+    @Override
+    public List<Sector> getSectors() {
+        return catalog.byId().values().stream()
+                .sorted((a, b) -> a.getName().compareToIgnoreCase(b.getName()))
+                .toList();
+    }
+
+    @Override
+    public synchronized Sector addAlias(String sectorId, String alias) {
+        String key = key(alias);
+        if (key == null) {
+            throw new InvalidRequestException("Alias is required");
+        }
+
+        reload();
+        Sector target = catalog.byId().get(sectorId);
+        if (target == null) {
+            throw new ResourceNotFoundException("Sector not found: " + sectorId);
+        }
+
+        Sector other = catalog.byKey().get(key);
+        if (other == target) {
+            return target;
+        }
+
+        List<String> aliases = new ArrayList<>(target.getAliases());
+        if (other == null) {
+            aliases.add(key);
+        } else {
+            // Re-point deals first, so a crash part-way leaves nothing dangling
+            repoint(other.getId(), target.getId());
+            mongoTemplate.remove(other);
+            aliases.addAll(other.getAliases());
+        }
+
+        // Snapshots are shared with readers, so the cached entry is never mutated
+        Sector updated = Sector.builder()
+                .id(target.getId())
+                .name(target.getName())
+                .aliases(aliases)
+                .updatedAt(Instant.now())
+                .build();
+        mongoTemplate.save(updated);
+        reload();
+        return updated;
+    }
+
+    // Registered on another replica since the last reload. Read outside the monitor,
+    // so a slow lookup never holds up registrations or other readers.
+    private Optional<Sector> loadById(String id) {
+        Instant missedAt = misses.get(id);
+        if (missedAt != null && missedAt.plus(MISS_TTL).isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+
+        Sector sector = mongoTemplate.findById(id, Sector.class);
+        if (sector == null) {
+            misses.put(id, Instant.now());
+            return Optional.empty();
+        }
+        synchronized (this) {
+            if (!catalog.byId().containsKey(id)) {
+                catalog = catalog.with(sector);
+            }
+        }
+        return Optional.of(sector);
+    }
+
+    private synchronized Sector register(String name, String key) {
+        for (int attempt = 0; attempt < MAX_REGISTER_ATTEMPTS; attempt++) {
+            Sector existing = catalog.byKey().get(key);
+            if (existing != null) {
+                return existing;
+            }
+
+            Sector sector = Sector.builder()
+                    .id(Long.toString(catalog.nextId(), Character.MAX_RADIX))
+                    .name(name.trim().replaceAll("\\s+", " "))
+                    .aliases(List.of(key))
+                    .updatedAt(Instant.now())
+                    .build();
+            try {
+                insertOutsideTransaction(sector);
+                catalog = catalog.with(sector);
+                return sector;
+            } catch (DuplicateKeyException e) {
+                // Another replica took the name or the id first
+                reload();
+            }
+        }
+        throw new IllegalStateException("Could not register sector: " + name);
+    }
+
+    // Suspends the caller's transaction: the insert commits on its own, and a racing
+    // registration surfaces as a duplicate key rather than a transient write conflict
+    private void insertOutsideTransaction(Sector sector) {
+        if (outsideTransaction == null) {
+            mongoTemplate.insert(sector);
+        } else {
+            outsideTransaction.executeWithoutResult(status -> mongoTemplate.insert(sector));
+        }
+    }
+
+    private void migrateStoredNames(String collection) {
+        for (String stored : mongoTemplate.findDistinct(new Query(), "sector", collection, String.class)) {
+            if (!catalog.byId().containsKey(stored)) {
+                String id = idFor(stored);
+                if (id != null) {
+                    mongoTemplate.updateMulti(Query.query(Criteria.where("sector").is(stored)),
+                            Update.update("sector", id), collection);
+                }
+            }
+        }
+    }
+
+    private void repoint(String fromId, String toId) {
+        Query query = Query.query(Criteria.where("sector").is(fromId));
+        Update update = Update.update("sector", toId);
+        mongoTemplate.updateMulti(query, update, Deal.class);
+        mongoTemplate.updateMulti(query, update, DealArchiveService.ARCHIVE_COLLECTION);
+    }
+
+    // Trimmed, lower-cased, single-spaced, accents stripped; null when blank
+    static String key(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String folded = Normalizer.normalize(name.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return folded.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Catalog(Map<String, Sector> byId, Map<String, Sector> byKey) {
+
+        Catalog(List<Sector> sectors) {
+            this(new HashMap<>(), new HashMap<>());
+            sectors.forEach(this::index);
+        }
+
+        Catalog with(Sector sector) {
+            Catalog copy = new Catalog(new HashMap<>(byId), new HashMap<>(byKey));
+            copy.index(sector);
+            return copy;
+        }
+
+        long nextId() {
+            long max = 0;
+            for (String id : byId.keySet()) {
+                try {
+                    max = Math.max(max, Long.parseLong(id, Character.MAX_RADIX));
+                } catch (NumberFormatException e) {
+                    // not a generated id
+                }
+            }
+            return max + 1;
+        }
+
+        private void index(Sector sector) {
+            byId.put(sector.getId(), sector);
+            // Re-keyed so aliases stored under an older normalisation still resolve
+            sector.getAliases().forEach(alias -> byKey.put(key(alias), sector));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.pipeline.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvSupport {
+
+    private CsvSupport() {
+        // utility class - prevent instantiation
+    }
+
+    /** Quotes a value if it contains a delimiter, quote or line break (RFC 4180). */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        boolean needsQuotes = text.indexOf(',') >= 0
+                || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0;
+
+        return needsQuotes ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+
+    /** Splits one RFC 4180 record into its fields. */
+    public static List<String> parseRecord(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
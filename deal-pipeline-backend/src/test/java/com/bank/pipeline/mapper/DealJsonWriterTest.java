@@ -0,0 +1,106 @@
+package com.bank.pipeline.mapper;
+
+import com.bank.pipeline.dto.DealView;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.LazyDealNotes;
+import com.bank.pipeline.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealJsonWriterTest {
+
+    private ObjectMapper objectMapper;
+    private Deal deal;
+
+    @BeforeEach
+    void setup() {
+        // Same date handling as the application mapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        deal = TestDataBuilder.createTestDeal();
+        deal.getNotes().add(new DealNote("user123", "Sponsor call \"went well\""));
+    }
+
+    @Test
+    void write_adminView_shouldMatchAdminResponse() throws Exception {
+        // Act
+        JsonNode direct = objectMapper.valueToTree(new DealView(deal, true));
+        JsonNode viaDto = objectMapper.valueToTree(DealMapper.toAdminResponse(deal));
+
+        // Assert
+        assertEquals(viaDto, direct);
+        assertEquals(1000000.0, direct.get("dealValue").asDouble());
+    }
+
+    @Test
+    void write_userView_shouldMatchUserResponseAndOmitValue() throws Exception {
+        // Act
+        String direct = objectMapper.writeValueAsString(new DealView(deal, false));
+        String viaDto = objectMapper.writeValueAsString(DealMapper.toUserResponse(deal));
+
+        // Assert - byte-for-byte, field order included
+        assertEquals(viaDto, direct);
+        assertFalse(direct.contains("dealValue"));
+    }
+
+    @Test
+    void write_missingOptionalFields_shouldWriteNulls() throws Exception {
+        // Arrange
+        deal.setNotes(null);
+        deal.setDealValue(null);
+        deal.setStage(null);
+
+        // Act
+        JsonNode direct = objectMapper.valueToTree(new DealView(deal, true));
+        JsonNode viaDto = objectMapper.valueToTree(DealMapper.toAdminResponse(deal));
+
+        // Assert
+        assertEquals(viaDto, direct);
+        assertTrue(direct.get("notes").isNull());
+    }
+
+    @Test
+    void write_lazyNotes_shouldCopyRawBsonWithoutDecoding() throws Exception {
+        // Arrange - stored the way Spring Data writes a Deal
+        DealNote note = deal.getNotes().get(0);
+        Document stored = new Document("_id", new ObjectId())
+                .append("title", deal.getTitle())
+                .append("sector", deal.getSector())
+                .append("dealType", deal.getDealType().name())
+                .append("stage", deal.getStage().name())
+                .append("dealValue", deal.getDealValue())
+                .append("notes", List.of(new Document("noteId", note.getNoteId())
+                        .append("userId", note.getUserId())
+                        .append("note", note.getNote())
+                        .append("createdAt", Date.from(note.getCreatedAt()))))
+                .append("ownerId", deal.getOwnerId())
+                .append("createdAt", Date.from(deal.getCreatedAt()))
+                .append("updatedAt", Date.from(deal.getUpdatedAt()));
+        Deal lazy = DealMapper.fromRawBson(new RawBsonDocument(stored, new DocumentCodec()));
+
+        // Act
+        JsonNode direct = objectMapper.valueToTree(new DealView(lazy, true));
+
+        // Assert
+        assertFalse(((LazyDealNotes) lazy.getNotes()).isDecoded());
+        assertEquals(objectMapper.valueToTree(DealMapper.toAdminResponse(lazy)), direct);
+        assertEquals(note.getNote(), direct.get("notes").get(0).get("note").asText());
+        assertEquals(note.getNoteId(), lazy.getNotes().get(0).getNoteId());
+    }
+}
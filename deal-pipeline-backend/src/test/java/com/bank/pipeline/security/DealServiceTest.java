@@ -1,36 +1,54 @@
 package com.bank.pipeline.security;
 
 import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.dto.DealFieldSet;
 import com.bank.pipeline.dto.DealUpdateRequest;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
 import com.bank.pipeline.exception.ResourceNotFoundException;
 import com.bank.pipeline.model.Deal;
 import com.bank.pipeline.model.DealNote;
 import com.bank.pipeline.model.DealStage;
 import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.model.Sector;
 import com.bank.pipeline.repository.DealRepository;
+import com.bank.pipeline.service.DealArchiveService;
+import com.bank.pipeline.service.DealLazyReadService;
+import com.bank.pipeline.service.DealListViewService;
+import com.bank.pipeline.service.DealSearchEngine;
+import com.bank.pipeline.service.DealService;
 import com.bank.pipeline.service.DealServiceImpl;
+import com.bank.pipeline.service.SectorCatalogService;
 import com.bank.pipeline.util.SecurityTestUtils;
 import com.bank.pipeline.util.TestDataBuilder;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +57,27 @@ class DealServiceTest {
     @Mock
     private DealRepository dealRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DealListViewService listViewService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DealLazyReadService lazyReadService;
+
+    @Mock
+    private DealArchiveService archiveService;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    @Mock
+    private DealSearchEngine searchEngine;
+
     @InjectMocks
     private DealServiceImpl dealService;
 
@@ -125,6 +164,31 @@ class DealServiceTest {
         verify(dealRepository).save(any(Deal.class));
     }
 
+    @Test
+    void updateDeal_stageChange_shouldPublishEventWithPreviousStage() {
+        // Arrange
+        SecurityTestUtils.setupUserSecurityContext();
+        testDeal.setOwnerId(userId);
+        when(dealRepository.findById(testDeal.getId()))
+                .thenReturn(Optional.of(testDeal));
+        when(dealRepository.save(any(Deal.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Deal result = dealService.updateDeal(testDeal.getId(), updateRequest, userId);
+
+        // Assert
+        ArgumentCaptor<DealChangedEvent> captor = ArgumentCaptor.forClass(DealChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+
+        DealChangedEvent event = captor.getValue();
+        assertEquals(DealChangeType.UPDATED, event.getType());
+        assertEquals(DealStage.LEAD, event.getPreviousStage());
+        assertEquals(DealStage.PROSPECTING, event.getCurrentStage());
+        assertTrue(event.isStageChanged());
+        assertNotNull(result.getStageEnteredAt());
+    }
+
     @Test
     void updateDeal_adminUpdatingAnyDeal_shouldUpdateSuccessfully() {
         // Arrange
@@ -253,6 +317,22 @@ class DealServiceTest {
         verify(dealRepository).findBySector("Technology", pageable);
     }
 
+    @Test
+    void getDealsFiltered_withSectorAlias_shouldQueryByCatalogId() {
+        // Arrange
+        Sector technology = Sector.builder().id("3").name("Technology").aliases(List.of("technology", "tech")).build();
+        when(sectorCatalog.resolve(" Tech ")).thenReturn(Optional.of(technology));
+        Page<Deal> expectedPage = new PageImpl<>(List.of(testDeal));
+        when(dealRepository.findBySector("3", pageable)).thenReturn(expectedPage);
+
+        // Act
+        Page<Deal> result = dealService.getDealsFiltered(null, " Tech ", pageable);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verify(dealRepository).findBySector("3", pageable);
+    }
+
     @Test
     void getDealsFiltered_withNoFilters_shouldReturnAllDeals() {
         // Arrange
@@ -270,6 +350,23 @@ class DealServiceTest {
         verify(dealRepository).findAll(pageable);
     }
 
+    @Test
+    void getDealsFiltered_readModelEnabled_shouldReadFromListView() {
+        // Arrange
+        Page<Deal> expectedPage = new PageImpl<>(List.of(testDeal));
+        when(sectorCatalog.canonicalName("Technology")).thenReturn("Technology");
+        when(listViewService.isReadEnabled()).thenReturn(true);
+        when(listViewService.findFiltered(DealStage.LEAD, "Technology", pageable))
+                .thenReturn(expectedPage);
+
+        // Act
+        Page<Deal> result = dealService.getDealsFiltered(DealStage.LEAD, "Technology", pageable);
+
+        // Assert
+        assertSame(expectedPage, result);
+        verifyNoInteractions(dealRepository);
+    }
+
     @Test
     void updateDealValue_admin_shouldUpdateValue() {
         // Arrange
@@ -602,6 +699,7 @@ class DealServiceTest {
         Page<Deal> allDealsPage = new PageImpl<>(allDeals);
         when(dealRepository.findAll(pageable))
                 .thenReturn(allDealsPage);
+        when(sectorCatalog.canonicalName("Technology")).thenReturn("Technology");
 
         // Act
         Page<Deal> result = dealService.searchDeals("Technology", null, "Technology", pageable);
@@ -851,6 +949,7 @@ class DealServiceTest {
         Page<Deal> allDealsPage = new PageImpl<>(allDeals);
         when(dealRepository.findAll(pageable))
                 .thenReturn(allDealsPage);
+        when(sectorCatalog.canonicalName("Technology")).thenReturn("Technology");
 
         // Act
         Page<Deal> result = dealService.searchDeals("Deal", null, "Technology", pageable);
@@ -862,6 +961,129 @@ class DealServiceTest {
         verify(dealRepository).findAll(pageable);
     }
 
+    @Test
+    void searchDeals_withSearchEngineReady_shouldReturnDealsInRankOrder() {
+        // Arrange
+        Deal second = testDeal.toBuilder().id("deal456").title("Acme Notes Only").build();
+        when(searchEngine.isReady()).thenReturn(true);
+        when(searchEngine.search("acme", DealStage.LEAD, null, pageable))
+                .thenReturn(new PageImpl<>(List.of("deal456", "deleted1", testDeal.getId()), pageable, 3));
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(testDeal, second));
+
+        // Act
+        Page<Deal> result = dealService.searchDeals(" acme ", DealStage.LEAD, null, pageable);
+
+        // Assert - Mongo's order is ignored; a deal gone from Mongo is left out
+        assertEquals(List.of("deal456", testDeal.getId()),
+                result.getContent().stream().map(Deal::getId).toList());
+        assertEquals(3, result.getTotalElements());
+        verifyNoInteractions(dealRepository, listViewService);
+    }
+
+    @Test
+    void searchDeals_withExplicitSort_shouldNotUseSearchEngine() {
+        // Arrange
+        Pageable sorted = PageRequest.of(0, 10, Sort.by("title"));
+        when(dealRepository.findAll(sorted)).thenReturn(new PageImpl<>(List.of(testDeal)));
+
+        // Act
+        dealService.searchDeals("Deal", null, null, sorted);
+
+        // Assert
+        verifyNoInteractions(searchEngine);
+    }
+
+    @Test
+    void getDealsFiltered_withFields_shouldOnlyReadRequestedFields() {
+        // Arrange
+        DealFieldSet fields = DealFieldSet.parse("title,stage", false);
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(testDeal));
+
+        // Act
+        Page<Deal> result = dealService.getDealsFiltered(DealStage.LEAD, null, pageable, fields);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Deal.class));
+        assertEquals(Set.of("id", "title", "stage"), captor.getValue().getFieldsObject().keySet());
+        assertEquals(DealStage.LEAD, captor.getValue().getQueryObject().get("stage"));
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void getDealsFiltered_withoutFields_shouldUseFullRepositoryRead() {
+        // Arrange
+        Page<Deal> expectedPage = new PageImpl<>(List.of(testDeal));
+        when(dealRepository.findByStage(DealStage.LEAD, pageable)).thenReturn(expectedPage);
+
+        // Act
+        Page<Deal> result = dealService.getDealsFiltered(DealStage.LEAD, null, pageable, DealFieldSet.ALL);
+
+        // Assert
+        assertSame(expectedPage, result);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getDealsByTitle_shouldRangeQueryUnderTitleCollation() {
+        // Arrange
+        when(sectorCatalog.resolve("healthcare"))
+                .thenReturn(Optional.of(Sector.builder().id("4").name("Healthcare").build()));
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(testDeal));
+
+        // Act
+        Page<Deal> result = dealService.getDealsByTitle(" acme ", null, "healthcare", pageable, DealFieldSet.ALL);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Deal.class));
+        Query query = captor.getValue();
+        assertEquals(Optional.of(DealService.TITLE_COLLATION), query.getCollation());
+        assertEquals(new Document("$gte", "acme").append("$lt", "acme\uFFFF"),
+                query.getQueryObject().get("title"));
+        assertEquals("4", query.getQueryObject().get("sector"));
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void getDealById_lazyReadsEnabled_shouldReadThroughLazyPath() {
+        // Arrange
+        when(lazyReadService.isEnabled()).thenReturn(true);
+        when(lazyReadService.findById(testDeal.getId())).thenReturn(Optional.of(testDeal));
+
+        // Act
+        Deal result = dealService.getDealById(testDeal.getId(), testDeal.getOwnerId());
+
+        // Assert
+        assertSame(testDeal, result);
+        verifyNoInteractions(dealRepository);
+    }
+
+    @Test
+    void getDealById_archivedDeal_shouldFallThroughToArchive() {
+        // Arrange
+        when(dealRepository.findById(testDeal.getId())).thenReturn(Optional.empty());
+        when(archiveService.findArchivedById(testDeal.getId(), DealFieldSet.ALL))
+                .thenReturn(Optional.of(testDeal));
+
+        // Act
+        Deal result = dealService.getDealById(testDeal.getId(), testDeal.getOwnerId());
+
+        // Assert
+        assertSame(testDeal, result);
+    }
+
+    @Test
+    void parseFields_sensitiveFieldForUser_shouldBeRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> DealFieldSet.parse("title,dealValue", false));
+        assertTrue(DealFieldSet.parse("title,dealValue", true).includes("dealValue"));
+    }
+
     @AfterEach
     void cleanup() {
         SecurityTestUtils.clearSecurityContext();
@@ -262,4 +262,21 @@ class JwtUtilTest {
         assertNotNull(claims.getIssuedAt());
         assertTrue(claims.getIssuedAt().before(new Date()));
     }
+
+    @Test
+    void generateStreamToken_shouldOnlyBeAStreamToken() {
+        // Arrange
+        String accessToken = jwtUtil.generateToken(testUser);
+        Date sessionExpiry = jwtUtil.extractExpiration(accessToken);
+
+        // Act
+        String streamToken = jwtUtil.generateStreamToken("testuser", sessionExpiry);
+
+        // Assert
+        assertTrue(jwtUtil.isStreamToken(streamToken));
+        assertEquals(sessionExpiry, jwtUtil.extractExpiration(streamToken));
+        assertEquals("testuser", jwtUtil.extractUsername(streamToken));
+        assertFalse(jwtUtil.isStreamToken(accessToken));
+        assertFalse(jwtUtil.isStreamToken("invalid.token"));
+    }
 }
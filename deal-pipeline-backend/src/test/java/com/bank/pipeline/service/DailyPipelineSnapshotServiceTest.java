@@ -0,0 +1,110 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.model.DailyPipelineSnapshot;
+import com.bank.pipeline.model.PipelineSnapshot;
+import com.bank.pipeline.repository.DailyPipelineSnapshotRepository;
+import com.bank.pipeline.repository.PipelineSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyPipelineSnapshotServiceTest {
+
+    @Mock
+    private DailyPipelineSnapshotRepository dailySnapshotRepository;
+
+    @Mock
+    private PipelineSnapshotRepository pipelineSnapshotRepository;
+
+    @Mock
+    private PipelineHistoryService pipelineHistoryService;
+
+    @Mock
+    private DistributedLockService lockService;
+
+    private DailyPipelineSnapshotServiceImpl dailySnapshotService;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setup() {
+        dailySnapshotService = new DailyPipelineSnapshotServiceImpl(
+                dailySnapshotRepository, pipelineSnapshotRepository, pipelineHistoryService, lockService, 730);
+        today = LocalDate.now(ZoneOffset.UTC);
+    }
+
+    @Test
+    void backfill_shouldWriteEveryMissingCompletedDaySinceHistoryStarted() {
+        // Arrange: history started 5 days ago (mid-day), and one day in the middle is already written
+        when(pipelineSnapshotRepository.findFirstByOrderByAsOfAsc())
+                .thenReturn(Optional.of(PipelineSnapshot.builder()
+                        .asOf(today.minusDays(5).atTime(12, 0).toInstant(ZoneOffset.UTC))
+                        .build()));
+        when(dailySnapshotRepository.findIdsByDayRange(anyString(), anyString()))
+                .thenReturn(List.of(DailyPipelineSnapshot.builder().id(today.minusDays(3).toString()).build()));
+        when(pipelineHistoryService.getPipelineAsOf(any(Instant.class)))
+                .thenReturn(PipelineAsOfResponse.builder()
+                        .totalDeals(3)
+                        .byStage(Map.of())
+                        .bySector(Map.of())
+                        .build());
+
+        // Act
+        int written = dailySnapshotService.backfill();
+
+        // Assert
+        assertEquals(4, written);
+        ArgumentCaptor<DailyPipelineSnapshot> captor = ArgumentCaptor.forClass(DailyPipelineSnapshot.class);
+        verify(dailySnapshotRepository, times(4)).save(captor.capture());
+        assertEquals(List.of(
+                        today.minusDays(5).toString(),
+                        today.minusDays(4).toString(),
+                        today.minusDays(2).toString(),
+                        today.minusDays(1).toString()),
+                captor.getAllValues().stream().map(DailyPipelineSnapshot::getId).toList());
+        assertEquals(today.atStartOfDay(ZoneOffset.UTC).toInstant(), captor.getAllValues().get(3).getAsOf());
+    }
+
+    @Test
+    void backfill_noPipelineHistoryYet_shouldWriteNothing() {
+        // Arrange
+        when(pipelineSnapshotRepository.findFirstByOrderByAsOfAsc()).thenReturn(Optional.empty());
+
+        // Act
+        int written = dailySnapshotService.backfill();
+
+        // Assert
+        assertEquals(0, written);
+        verifyNoInteractions(dailySnapshotRepository, pipelineHistoryService);
+    }
+
+    @Test
+    void scheduledBackfill_lockHeldElsewhere_shouldSkip() {
+        // Arrange
+        when(lockService.tryAcquire(anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        dailySnapshotService.scheduledBackfill();
+
+        // Assert
+        verifyNoInteractions(dailySnapshotRepository, pipelineHistoryService);
+        verify(lockService, never()).release(anyString());
+    }
+}
@@ -0,0 +1,132 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealArchiveServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DistributedLockService lockService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealArchiveServiceImpl archiveService;
+
+    private final ObjectId closedId = new ObjectId();
+    private final ObjectId lostId = new ObjectId();
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        archiveService = new DealArchiveServiceImpl(mongoTemplate, lockService, eventPublisher, sectorCatalog,
+                meterRegistry, true, 180, List.of(DealStage.CLOSED, DealStage.LOST, DealStage.WON), 500, 10, 0);
+    }
+
+    @Test
+    void archiveFinishedDeals_shouldCopyToArchiveThenRemoveFromDeals() {
+        // Arrange
+        stubBatch(2);
+
+        // Act
+        long archived = archiveService.archiveFinishedDeals();
+
+        // Assert
+        assertEquals(2, archived);
+        verify(bulkOperations, times(2)).replaceOne(any(Query.class), any(Document.class), any(FindAndReplaceOptions.class));
+        verify(bulkOperations).execute();
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(DealArchiveService.ARCHIVE_COLLECTION));
+        assertEquals(2.0, meterRegistry.get("deal.archive.archived").counter().count());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Document.class), eq("deals"));
+        Document stage = (Document) captor.getValue().getQueryObject().get("stage");
+        assertEquals(List.of("CLOSED", "LOST", "WON"), stage.get("$in"));
+
+        ArgumentCaptor<DealsArchivedEvent> event = ArgumentCaptor.forClass(DealsArchivedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(closedId.toHexString(), lostId.toHexString()), event.getValue().getDealIds());
+    }
+
+    @Test
+    void archiveFinishedDeals_dealReopenedMidBatch_shouldStayLiveAndLeaveArchive() {
+        // Arrange
+        stubBatch(1);
+        when(mongoTemplate.findDistinct(any(Query.class), eq("_id"), eq("deals"), eq(Object.class)))
+                .thenReturn(List.of(lostId));
+
+        // Act
+        long archived = archiveService.archiveFinishedDeals();
+
+        // Assert
+        assertEquals(1, archived);
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(captor.capture(), eq(DealArchiveService.ARCHIVE_COLLECTION));
+        Document id = (Document) captor.getValue().getQueryObject().get("_id");
+        assertEquals(List.of(lostId), id.get("$in"));
+
+        ArgumentCaptor<DealsArchivedEvent> event = ArgumentCaptor.forClass(DealsArchivedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(closedId.toHexString()), event.getValue().getDealIds());
+    }
+
+    @Test
+    void scheduledArchive_disabled_shouldNotTakeLock() {
+        // Arrange
+        DealArchiveServiceImpl disabled = new DealArchiveServiceImpl(mongoTemplate, lockService,
+                eventPublisher, sectorCatalog, meterRegistry, false, 180, List.of(DealStage.CLOSED), 500, 10, 0);
+
+        // Act
+        disabled.scheduledArchive();
+
+        // Assert
+        verifyNoInteractions(lockService, mongoTemplate);
+    }
+
+    private void stubBatch(long deleted) {
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("deals")))
+                .thenReturn(List.of(
+                        new Document("_id", closedId).append("stage", "CLOSED"),
+                        new Document("_id", lostId).append("stage", "LOST")));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealArchiveService.ARCHIVE_COLLECTION))
+                .thenReturn(bulkOperations);
+        when(mongoTemplate.remove(any(Query.class), anyString()))
+                .thenReturn(DeleteResult.acknowledged(deleted));
+    }
+}
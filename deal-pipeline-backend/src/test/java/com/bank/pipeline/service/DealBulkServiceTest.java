@@ -0,0 +1,208 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealBulkCreateResponse;
+import com.bank.pipeline.dto.DealBulkUpdateRequest;
+import com.bank.pipeline.dto.DealBulkUpdateResponse;
+import com.bank.pipeline.dto.DealCreateRequest;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.util.SecurityTestUtils;
+import com.bank.pipeline.util.TestDataBuilder;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealBulkServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    @Captor
+    private ArgumentCaptor<List<Deal>> insertCaptor;
+
+    private DealBulkServiceImpl dealBulkService;
+
+    @BeforeEach
+    void setup() {
+        dealBulkService = new DealBulkServiceImpl(mongoTemplate, eventPublisher, sectorCatalog, 2, 100);
+    }
+
+    @Test
+    void createDeals_userRole_shouldInsertInBatchesWithoutDealValue() {
+        // Arrange
+        SecurityTestUtils.setupUserSecurityContext();
+        stubBulkInsert();
+        List<DealCreateRequest> requests = requests(3);
+
+        // Act
+        DealBulkCreateResponse response = dealBulkService.createDeals(requests, "user123");
+
+        // Assert
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getFailed());
+        assertTrue(response.getResults().stream().allMatch(r -> r.getDealId() != null));
+
+        verify(bulkOperations, times(2)).insert(insertCaptor.capture());
+        insertCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .forEach(deal -> {
+                    assertNull(deal.getDealValue());
+                    assertEquals(DealStage.LEAD, deal.getStage());
+                    assertEquals("user123", deal.getOwnerId());
+                });
+        verify(eventPublisher).publishEvent(any(DealBatchChangedEvent.class));
+    }
+
+    @Test
+    void createDeals_adminRole_shouldKeepDealValue() {
+        // Arrange
+        SecurityTestUtils.setupAdminSecurityContext();
+        stubBulkInsert();
+
+        // Act
+        dealBulkService.createDeals(requests(1), "admin123");
+
+        // Assert
+        verify(bulkOperations).insert(insertCaptor.capture());
+        assertEquals(500000.0, insertCaptor.getValue().get(0).getDealValue());
+    }
+
+    @Test
+    void createDeals_invalidItem_shouldReportItAndInsertTheRest() {
+        // Arrange
+        SecurityTestUtils.setupUserSecurityContext();
+        stubBulkInsert();
+        List<DealCreateRequest> requests = requests(2);
+        requests.get(0).setTitle(" ");
+
+        // Act
+        DealBulkCreateResponse response = dealBulkService.createDeals(requests, "user123");
+
+        // Assert
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getFailed());
+        assertFalse(response.getResults().get(0).isSuccess());
+        assertEquals("Title is required", response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(1).isSuccess());
+    }
+
+    @Test
+    void createDeals_tooManyItems_shouldThrowInvalidRequestException() {
+        // Act & Assert
+        assertThrows(InvalidRequestException.class,
+                () -> dealBulkService.createDeals(requests(101), "user123"));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void updateStage_shouldApplySingleUpdateManyAndPublishTransitions() {
+        // Arrange
+        Deal qualified = TestDataBuilder.createTestDeal();
+        qualified.setStage(DealStage.QUALIFIED);
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(qualified));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Deal.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        DealBulkUpdateRequest request = new DealBulkUpdateRequest();
+        request.setStage(DealStage.QUALIFIED);
+        request.setTargetStage(DealStage.TERM_SHEET);
+
+        // Act
+        DealBulkUpdateResponse response = dealBulkService.updateStage(request, "admin123");
+
+        // Assert
+        assertEquals(1, response.getMatched());
+        assertEquals(1, response.getModified());
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), any(Update.class), eq(Deal.class));
+
+        ArgumentCaptor<DealBatchChangedEvent> captor = ArgumentCaptor.forClass(DealBatchChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        DealChangedEvent change = captor.getValue().getChanges().get(0);
+        assertEquals(DealStage.QUALIFIED, change.getPreviousStage());
+        assertEquals(DealStage.TERM_SHEET, change.getCurrentStage());
+    }
+
+    @Test
+    void reassignOwner_noMatchingDeals_shouldNotUpdate() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of());
+
+        DealBulkUpdateRequest request = new DealBulkUpdateRequest();
+        request.setOwnerId("departingBanker");
+        request.setNewOwnerId("user123");
+
+        // Act
+        DealBulkUpdateResponse response = dealBulkService.reassignOwner(request, "admin123");
+
+        // Assert
+        assertEquals(0, response.getMatched());
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(Deal.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateStage_withoutIdsOrFilter_shouldThrowInvalidRequestException() {
+        // Arrange
+        DealBulkUpdateRequest request = new DealBulkUpdateRequest();
+        request.setTargetStage(DealStage.WON);
+
+        // Act & Assert
+        assertThrows(InvalidRequestException.class,
+                () -> dealBulkService.updateStage(request, "admin123"));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityTestUtils.clearSecurityContext();
+    }
+
+    private void stubBulkInsert() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private List<DealCreateRequest> requests(int count) {
+        List<DealCreateRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(TestDataBuilder.createDealCreateRequest());
+        }
+        return requests;
+    }
+}
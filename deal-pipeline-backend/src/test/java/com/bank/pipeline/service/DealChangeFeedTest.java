@@ -0,0 +1,109 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.RemoteDealChangesEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealPosition;
+import com.bank.pipeline.model.DealStage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealChangeFeedTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReplicaId replicaId;
+    private DealChangeFeed changeFeed;
+
+    @BeforeEach
+    void setup() {
+        replicaId = new ReplicaId();
+        changeFeed = new DealChangeFeed(mongoTemplate, eventPublisher, replicaId);
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(Stream.empty());
+    }
+
+    @Test
+    void poll_otherReplicasChange_shouldPublishDealAsStored() {
+        // Arrange - one change from another replica, one made here
+        Deal stored = Deal.builder().id("deal1").title("Acme").stage(DealStage.WON).ownerId("john").build();
+        when(mongoTemplate.stream(any(Query.class), eq(DealChangeLogEntry.class))).thenReturn(Stream.of(
+                entry("e1", "deal1", "other-replica"),
+                entry("e2", "deal2", replicaId.get())));
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class), eq("deals"))).thenReturn(List.of(stored));
+
+        // Act
+        changeFeed.poll();
+
+        // Assert
+        RemoteDealChangesEvent event = publishedEvent();
+        assertEquals(1, event.getChanges().size());
+        DealChangedEvent change = event.getChanges().get(0);
+        assertEquals(DealChangeType.UPDATED, change.getType());
+        assertSame(stored, change.getAfter());
+        assertEquals("john", change.getBefore().getOwnerId());
+        assertTrue(event.getArchivedDeals().isEmpty());
+    }
+
+    @Test
+    void poll_changedDealSinceArchived_shouldPublishArchiveNotDelete() {
+        // Arrange
+        Deal archived = Deal.builder().id("deal1").stage(DealStage.WON).build();
+        when(mongoTemplate.stream(any(Query.class), eq(DealChangeLogEntry.class)))
+                .thenReturn(Stream.of(entry("e1", "deal1", "other-replica")));
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class), eq("deals"))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(List.of(archived));
+
+        // Act
+        changeFeed.poll();
+
+        // Assert
+        RemoteDealChangesEvent event = publishedEvent();
+        assertTrue(event.getChanges().isEmpty());
+        assertEquals(List.of(archived), event.getArchivedDeals());
+    }
+
+    private RemoteDealChangesEvent publishedEvent() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        return (RemoteDealChangesEvent) captor.getValue();
+    }
+
+    private static DealChangeLogEntry entry(String id, String dealId, String origin) {
+        return DealChangeLogEntry.builder()
+                .id(id)
+                .dealId(dealId)
+                .type(DealChangeType.UPDATED)
+                .before(new DealPosition(DealStage.LEAD, "Technology", 100d, "john"))
+                .after(new DealPosition(DealStage.WON, "Technology", 100d, "john"))
+                .origin(origin)
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealScanQuery;
+import com.bank.pipeline.dto.DealScanResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealColumnarServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealColumnarServiceImpl columnarService;
+
+    private final Instant jan = Instant.parse("2026-01-15T00:00:00Z");
+    private final Instant jun = Instant.parse("2026-06-15T00:00:00Z");
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        columnarService = new DealColumnarServiceImpl(mongoTemplate, sectorCatalog, meterRegistry, true);
+    }
+
+    @Test
+    void scan_beforeLoad_shouldNotBeReady() {
+        assertFalse(columnarService.isReady());
+        assertThrows(IllegalStateException.class, () -> columnarService.scan(DealScanQuery.builder().build()));
+    }
+
+    @Test
+    void rebuild_shouldLoadLiveAndArchivedDeals() {
+        // Arrange
+        load(List.of(deal("d1", DealStage.LEAD, DealType.IPO, "Tech", 100.0, jan)),
+                List.of(deal("d2", DealStage.WON, DealType.IPO, "Energy", 50.0, jan)));
+
+        // Act
+        DealScanResponse all = columnarService.scan(DealScanQuery.builder().build());
+
+        // Assert
+        assertTrue(columnarService.isReady());
+        assertEquals(2, all.getMatchedDeals());
+        assertEquals(150.0, all.getTotalValue());
+        assertNotNull(all.getSnapshotLoadedAt());
+        assertEquals(2.0, meterRegistry.get("deal.columnar.rows").gauge().value());
+    }
+
+    @Test
+    void scan_shouldApplyEveryFilter() {
+        // Arrange
+        load(List.of(
+                deal("d1", DealStage.LEAD, DealType.IPO, "Tech", 100.0, jan),
+                deal("d2", DealStage.LEAD, DealType.IPO, "Tech", 300.0, jun),
+                deal("d3", DealStage.QUALIFIED, DealType.IPO, "Tech", 200.0, jan),
+                deal("d4", DealStage.LEAD, DealType.DEBT_FINANCING, "Tech", 400.0, jan),
+                deal("d5", DealStage.LEAD, DealType.IPO, "Energy", 500.0, jan)), List.of());
+
+        // Act
+        DealScanResponse result = columnarService.scan(DealScanQuery.builder()
+                .stages(Set.of(DealStage.LEAD))
+                .dealTypes(Set.of(DealType.IPO))
+                .sectors(Set.of("Tech"))
+                .minValue(50.0)
+                .maxValue(350.0)
+                .createdTo(Instant.parse("2026-03-01T00:00:00Z"))
+                .build());
+
+        // Assert - only d1 passes stage, type, sector, value and date
+        assertEquals(1, result.getMatchedDeals());
+        assertEquals(100.0, result.getTotalValue());
+        assertEquals(5, result.getScannedRows());
+    }
+
+    @Test
+    void scan_sectorAlias_shouldMatchCanonicalName() {
+        // Arrange
+        load(List.of(deal("d1", DealStage.LEAD, DealType.IPO, "Technology", 100.0, jan)), List.of());
+        when(sectorCatalog.canonicalName("tech")).thenReturn("Technology");
+
+        // Act
+        DealScanResponse result = columnarService.scan(DealScanQuery.builder().sectors(Set.of("tech")).build());
+
+        // Assert
+        assertEquals(1, result.getMatchedDeals());
+    }
+
+    @Test
+    void scan_unknownSector_shouldMatchNothing() {
+        // Arrange
+        load(List.of(deal("d1", DealStage.LEAD, DealType.IPO, "Tech", 100.0, jan)), List.of());
+
+        // Act
+        DealScanResponse result = columnarService.scan(DealScanQuery.builder().sectors(Set.of("Mining")).build());
+
+        // Assert
+        assertEquals(0, result.getMatchedDeals());
+    }
+
+    @Test
+    void scan_dealWithoutValue_shouldCountButOnlyMatchUnboundedValue() {
+        // Arrange
+        load(List.of(
+                deal("d1", DealStage.LEAD, DealType.IPO, "Tech", null, jan),
+                deal("d2", DealStage.LEAD, DealType.IPO, "Tech", 10.0, jan)), List.of());
+
+        // Act
+        DealScanResponse unbounded = columnarService.scan(DealScanQuery.builder().build());
+        DealScanResponse bounded = columnarService.scan(DealScanQuery.builder().minValue(0.0).build());
+
+        // Assert
+        assertEquals(2, unbounded.getMatchedDeals());
+        assertEquals(10.0, unbounded.getTotalValue());
+        assertEquals(1, bounded.getMatchedDeals());
+    }
+
+    @Test
+    void changeEvents_shouldUpdateAndRemoveRows() {
+        // Arrange
+        Deal d1 = deal("d1", DealStage.LEAD, DealType.IPO, "Tech", 100.0, jan);
+        load(List.of(d1, deal("d2", DealStage.LEAD, DealType.IPO, "Tech", 200.0, jan)), List.of());
+        Deal moved = deal("d1", DealStage.WON, DealType.IPO, "Tech", 150.0, jan);
+
+        // Act
+        columnarService.onDealChanged(change(DealChangeType.UPDATED, d1, moved));
+        columnarService.onDealsChanged(new DealBatchChangedEvent(List.of(
+                change(DealChangeType.DELETED, deal("d2", DealStage.LEAD, DealType.IPO, "Tech", 200.0, jan), null),
+                change(DealChangeType.CREATED, null, deal("d3", DealStage.LEAD, DealType.IPO, "New", 5.0, jun)))));
+
+        // Assert
+        DealScanResponse won = columnarService.scan(DealScanQuery.builder().stages(Set.of(DealStage.WON)).build());
+        DealScanResponse lead = columnarService.scan(DealScanQuery.builder().stages(Set.of(DealStage.LEAD)).build());
+        DealScanResponse newSector = columnarService.scan(DealScanQuery.builder().sectors(Set.of("New")).build());
+        assertEquals(150.0, won.getTotalValue());
+        assertEquals(1, lead.getMatchedDeals());
+        assertEquals(5.0, lead.getTotalValue());
+        assertEquals(1, newSector.getMatchedDeals());
+    }
+
+    @Test
+    void rebuild_shouldGrowPastInitialCapacityAndReuseFreedRows() {
+        // Arrange - more rows than the initial 16k allocation
+        List<Deal> deals = new ArrayList<>();
+        IntStream.range(0, 20_000).forEach(i ->
+                deals.add(deal("d" + i, DealStage.LEAD, DealType.IPO, "S" + (i % 7), 1.0, jan)));
+        load(deals, List.of());
+
+        // Act
+        columnarService.onDealChanged(change(DealChangeType.DELETED, deals.get(0), null));
+        columnarService.onDealChanged(change(DealChangeType.CREATED, null,
+                deal("new", DealStage.LEAD, DealType.IPO, "S0", 1.0, jan)));
+        DealScanResponse result = columnarService.scan(DealScanQuery.builder().build());
+
+        // Assert
+        assertEquals(20_000, result.getMatchedDeals());
+        assertEquals(20_000, result.getScannedRows());
+        assertEquals(20_000.0, result.getTotalValue());
+    }
+
+    @Test
+    void changeEvents_whenDisabled_shouldBeIgnored() {
+        // Arrange
+        DealColumnarServiceImpl disabled = new DealColumnarServiceImpl(
+                mongoTemplate, sectorCatalog, new SimpleMeterRegistry(), false);
+
+        // Act
+        disabled.load();
+        disabled.onDealChanged(change(DealChangeType.CREATED, null,
+                deal("d1", DealStage.LEAD, DealType.IPO, "Tech", 1.0, jan)));
+
+        // Assert
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private void load(List<Deal> live, List<Deal> archived) {
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class), eq("deals"))).thenReturn(live.stream());
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(archived.stream());
+        columnarService.rebuild();
+    }
+
+    private static Deal deal(String id, DealStage stage, DealType type, String sector, Double value, Instant created) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setStage(stage);
+        deal.setDealType(type);
+        deal.setSector(sector);
+        deal.setDealValue(value);
+        deal.setCreatedAt(created);
+        deal.setUpdatedAt(created);
+        return deal;
+    }
+
+    private static DealChangedEvent change(DealChangeType type, Deal before, Deal after) {
+        return new DealChangedEvent(type, before, after, "admin123", Instant.now());
+    }
+}
@@ -0,0 +1,135 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealExportFormat;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private DealExportServiceImpl dealExportService;
+
+    private Deal testDeal;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        dealExportService = new DealExportServiceImpl(mongoTemplate, sectorCatalog, objectMapper, 2);
+
+        testDeal = TestDataBuilder.createTestDeal();
+        testDeal.setTitle("Acme, Inc. \"Project X\"");
+    }
+
+    @Test
+    void exportDeals_csvForAdmin_shouldIncludeValueAndEscapeFields() throws Exception {
+        // Arrange
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class)))
+                .thenReturn(Stream.of(testDeal, testDeal, testDeal));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        dealExportService.exportDeals(DealStage.LEAD, null, DealExportFormat.CSV, true, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("dealValue"));
+        assertTrue(lines[1].contains("\"Acme, Inc. \"\"Project X\"\"\""));
+        assertTrue(lines[1].contains("1000000.0"));
+    }
+
+    @Test
+    void exportDeals_ndjsonForUser_shouldOmitValueAndProjectItAway() throws Exception {
+        // Arrange
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class)))
+                .thenReturn(Stream.of(testDeal));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        dealExportService.exportDeals(null, "Technology", DealExportFormat.NDJSON, false, out);
+
+        // Assert
+        JsonNode row = new ObjectMapper().readTree(out.toString(StandardCharsets.UTF_8));
+        assertEquals("deal123", row.get("id").asText());
+        assertFalse(row.has("dealValue"));
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(captor.capture(), eq(Deal.class));
+        assertEquals(0, captor.getValue().getFieldsObject().getInteger("dealValue"));
+        assertEquals("Technology", captor.getValue().getQueryObject().getString("sector"));
+    }
+
+    @Test
+    void exportDeals_cborForAdmin_shouldWriteOneRecordPerDeal() throws Exception {
+        // Arrange
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class)))
+                .thenReturn(Stream.of(testDeal, testDeal, testDeal));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        dealExportService.exportDeals(null, null, DealExportFormat.CBOR, true, out);
+
+        // Assert
+        try (MappingIterator<JsonNode> rows = new ObjectMapper(new CBORFactory())
+                .readerFor(JsonNode.class)
+                .readValues(out.toByteArray())) {
+            List<JsonNode> all = rows.readAll();
+            assertEquals(3, all.size());
+            assertEquals("deal123", all.get(0).get("id").asText());
+            assertEquals(1000000.0, all.get(0).get("dealValue").asDouble());
+        }
+    }
+
+    @Test
+    void exportDeals_smile_shouldBeSmallerThanNdjsonForNotedDeals() throws Exception {
+        // Arrange - repeated field names and note bodies are where the binary encoding pays off
+        testDeal.getNotes().addAll(IntStream.range(0, 5)
+                .mapToObj(i -> new DealNote("user123", "Follow up with the sponsor on diligence item " + i))
+                .toList());
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class)))
+                .thenAnswer(invocation -> IntStream.range(0, 50).mapToObj(i -> testDeal));
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream smile = new ByteArrayOutputStream();
+
+        // Act
+        dealExportService.exportDeals(null, null, DealExportFormat.NDJSON, true, json);
+        dealExportService.exportDeals(null, null, DealExportFormat.SMILE, true, smile);
+
+        // Assert
+        assertTrue(smile.size() < json.size(),
+                "smile " + smile.size() + " bytes vs json " + json.size() + " bytes");
+    }
+}
@@ -0,0 +1,179 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFacet;
+import com.bank.pipeline.dto.DealFacetResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealFacetServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealFacetServiceImpl facetService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        facetService = new DealFacetServiceImpl(mongoTemplate, meterRegistry, true);
+    }
+
+    @Test
+    void count_beforeBuild_shouldNotBeReady() {
+        assertFalse(facetService.isReady());
+        assertThrows(IllegalStateException.class, () -> facetService.count(Map.of()));
+    }
+
+    @Test
+    void count_noFilters_shouldCountEveryValue() {
+        // Arrange
+        build(
+                deal("d1", DealStage.LEAD, "Tech", DealType.IPO, "alice"),
+                deal("d2", DealStage.LEAD, "Energy", DealType.IPO, "bob"),
+                deal("d3", DealStage.WON, "Tech", DealType.DEBT_FINANCING, "alice"));
+
+        // Act
+        DealFacetResponse response = facetService.count(Map.of());
+
+        // Assert
+        assertEquals(3, response.getTotal());
+        assertEquals(Map.of("LEAD", 2L, "WON", 1L), response.getFacets().get("stage"));
+        assertEquals(Map.of("Tech", 2L, "Energy", 1L), response.getFacets().get("sector"));
+        assertEquals(Map.of("IPO", 2L, "DEBT_FINANCING", 1L), response.getFacets().get("dealType"));
+        assertEquals(Map.of("alice", 2L, "bob", 1L), response.getFacets().get("ownerId"));
+        assertEquals(3.0, meterRegistry.get("deal.facets.deals").gauge().value());
+    }
+
+    @Test
+    void count_shouldOrWithinFacetAndAndAcrossFacets() {
+        // Arrange
+        build(
+                deal("d1", DealStage.LEAD, "Tech", DealType.IPO, "alice"),
+                deal("d2", DealStage.QUALIFIED, "Tech", DealType.IPO, "bob"),
+                deal("d3", DealStage.WON, "Tech", DealType.IPO, "alice"),
+                deal("d4", DealStage.LEAD, "Energy", DealType.IPO, "alice"));
+
+        // Act
+        DealFacetResponse response = facetService.count(Map.of(
+                DealFacet.STAGE, Set.of("LEAD", "QUALIFIED"),
+                DealFacet.SECTOR, Set.of("Tech")));
+
+        // Assert - d1 and d2
+        assertEquals(2, response.getTotal());
+        // Stage counts ignore the stage filter but keep the sector filter
+        assertEquals(Map.of("LEAD", 1L, "QUALIFIED", 1L, "WON", 1L), response.getFacets().get("stage"));
+        // Sector counts ignore the sector filter but keep the stage filter
+        assertEquals(Map.of("Tech", 2L, "Energy", 1L), response.getFacets().get("sector"));
+        assertEquals(Map.of("alice", 1L, "bob", 1L), response.getFacets().get("ownerId"));
+    }
+
+    @Test
+    void count_unknownSelectedValue_shouldMatchNothingButStillBeListed() {
+        // Arrange
+        build(deal("d1", DealStage.LEAD, "Tech", DealType.IPO, "alice"));
+
+        // Act
+        DealFacetResponse response = facetService.count(Map.of(DealFacet.SECTOR, Set.of("Mining")));
+
+        // Assert
+        assertEquals(0, response.getTotal());
+        assertEquals(Map.of("Tech", 1L, "Mining", 0L), response.getFacets().get("sector"));
+        assertTrue(response.getFacets().get("stage").isEmpty());
+    }
+
+    @Test
+    void changeEvents_shouldMoveDealsBetweenBitmaps() {
+        // Arrange
+        Deal d1 = deal("d1", DealStage.LEAD, "Tech", DealType.IPO, "alice");
+        Deal d2 = deal("d2", DealStage.LEAD, "Energy", DealType.IPO, "bob");
+        build(d1, d2);
+
+        // Act
+        facetService.onDealChanged(change(DealChangeType.UPDATED, d1,
+                deal("d1", DealStage.WON, "Tech", DealType.IPO, "alice")));
+        facetService.onDealsChanged(new DealBatchChangedEvent(List.of(
+                change(DealChangeType.DELETED, d2, null),
+                change(DealChangeType.CREATED, null, deal("d3", DealStage.LEAD, "Health", DealType.IPO, "carol")))));
+
+        // Assert - Energy disappears with its last deal
+        DealFacetResponse response = facetService.count(Map.of());
+        assertEquals(2, response.getTotal());
+        assertEquals(Map.of("LEAD", 1L, "WON", 1L), response.getFacets().get("stage"));
+        assertEquals(Map.of("Tech", 1L, "Health", 1L), response.getFacets().get("sector"));
+    }
+
+    @Test
+    void archivedDeals_shouldLeaveTheIndex() {
+        // Arrange
+        build(
+                deal("d1", DealStage.CLOSED, "Tech", DealType.IPO, "alice"),
+                deal("d2", DealStage.LEAD, "Tech", DealType.IPO, "alice"));
+
+        // Act
+        facetService.onDealsArchived(new DealsArchivedEvent(List.of("d1")));
+
+        // Assert
+        DealFacetResponse response = facetService.count(Map.of());
+        assertEquals(1, response.getTotal());
+        assertEquals(Map.of("LEAD", 1L), response.getFacets().get("stage"));
+    }
+
+    @Test
+    void changeEvents_whenDisabled_shouldBeIgnored() {
+        // Arrange
+        DealFacetServiceImpl disabled = new DealFacetServiceImpl(mongoTemplate, new SimpleMeterRegistry(), false);
+
+        // Act
+        disabled.load();
+        disabled.onDealChanged(change(DealChangeType.CREATED, null,
+                deal("d1", DealStage.LEAD, "Tech", DealType.IPO, "alice")));
+
+        // Assert
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private void build(Deal... deals) {
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class))).thenReturn(List.of(deals).stream());
+        facetService.rebuild();
+    }
+
+    private static Deal deal(String id, DealStage stage, String sector, DealType type, String ownerId) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setStage(stage);
+        deal.setSector(sector);
+        deal.setDealType(type);
+        deal.setOwnerId(ownerId);
+        return deal;
+    }
+
+    private static DealChangedEvent change(DealChangeType type, Deal before, Deal after) {
+        return new DealChangedEvent(type, before, after, "admin123", Instant.now());
+    }
+}
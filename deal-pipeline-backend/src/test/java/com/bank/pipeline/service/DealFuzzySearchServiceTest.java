@@ -0,0 +1,200 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealFuzzySearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealFuzzySearchServiceImpl fuzzySearchService;
+
+    // What Mongo holds, for the page reads
+    private final Map<String, Deal> stored = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        fuzzySearchService = new DealFuzzySearchServiceImpl(mongoTemplate, sectorCatalog, meterRegistry, true, 0.3);
+    }
+
+    @Test
+    void search_beforeBuild_shouldNotBeReady() {
+        assertFalse(fuzzySearchService.isReady());
+        assertThrows(IllegalStateException.class, () ->
+                fuzzySearchService.search("acme", null, null, PageRequest.of(0, 10), DealFieldSet.ALL));
+    }
+
+    @Test
+    void search_misspelledName_shouldFindTitleAndRankCloserMatchFirst() {
+        // Arrange
+        build(
+                deal("d1", "Nordic Wind Refinancing", DealStage.LEAD, "Energy"),
+                deal("d2", "Nordik Shipping IPO", DealStage.LEAD, "Industrials"),
+                deal("d3", "Acme Holdings Bond Issue", DealStage.LEAD, "Technology"));
+
+        // Act
+        Page<Deal> nordik = search("nordik");
+        Page<Deal> acme = search("Acmee Holdngs");
+
+        // Assert - exact word before the one-edit match; unrelated titles are never returned
+        assertEquals(List.of("d2", "d1"), ids(nordik));
+        assertEquals(2, nordik.getTotalElements());
+        assertEquals(List.of("d3"), ids(acme));
+        assertEquals(3.0, meterRegistry.get("deal.fuzzy.deals").gauge().value());
+    }
+
+    @Test
+    void search_tooManyEdits_shouldNotMatch() {
+        // Arrange
+        build(deal("d1", "Global Energies Bond", DealStage.LEAD, "Energy"));
+
+        // Act + Assert - "energy" is three edits from "energies"
+        assertTrue(search("global energy").isEmpty());
+        assertEquals(List.of("d1"), ids(search("globel")));
+    }
+
+    @Test
+    void search_shouldApplyStageAndSectorAndPage() {
+        // Arrange
+        when(sectorCatalog.canonicalName(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        build(
+                deal("d1", "Acme IPO", DealStage.LEAD, "Energy"),
+                deal("d2", "Acme Merger", DealStage.WON, "Energy"),
+                deal("d3", "Acme Buyout", DealStage.LEAD, "Technology"),
+                deal("d4", "Acme Spin-off", DealStage.LEAD, "Energy"));
+
+        // Act
+        Page<Deal> filtered = fuzzySearchService.search(
+                "acme", DealStage.LEAD, "Energy", PageRequest.of(0, 10), DealFieldSet.ALL);
+        Page<Deal> secondPage = fuzzySearchService.search(
+                "acme", null, null, PageRequest.of(1, 3), DealFieldSet.ALL);
+
+        // Assert
+        assertEquals(List.of("d1", "d4"), ids(filtered));
+        assertEquals(4, secondPage.getTotalElements());
+        assertEquals(1, secondPage.getContent().size());
+    }
+
+    @Test
+    void changeEvents_shouldUpdateTheIndexIncrementally() {
+        // Arrange
+        Deal d1 = deal("d1", "Acme IPO", DealStage.LEAD, "Energy");
+        build(d1, deal("d2", "Acme Merger", DealStage.LEAD, "Energy"));
+
+        // Act
+        Deal renamed = deal("d1", "Zenith Holdings IPO", DealStage.LEAD, "Energy");
+        stored.put("d1", renamed);
+        fuzzySearchService.onDealChanged(change(DealChangeType.UPDATED, d1, renamed));
+        Deal created = deal("d3", "Acme Refinancing", DealStage.LEAD, "Energy");
+        stored.put("d3", created);
+        fuzzySearchService.onDealChanged(change(DealChangeType.CREATED, null, created));
+        fuzzySearchService.onDealsArchived(new DealsArchivedEvent(List.of("d2")));
+
+        // Assert
+        assertEquals(List.of("d3"), ids(search("acme")));
+        assertEquals(List.of("d1"), ids(search("zenit")));
+    }
+
+    @Test
+    void changeEvents_whenDisabled_shouldBeIgnored() {
+        // Arrange
+        DealFuzzySearchServiceImpl disabled = new DealFuzzySearchServiceImpl(
+                mongoTemplate, sectorCatalog, new SimpleMeterRegistry(), false, 0.3);
+
+        // Act
+        disabled.load();
+        disabled.onDealChanged(change(DealChangeType.CREATED, null,
+                deal("d1", "Acme IPO", DealStage.LEAD, "Energy")));
+
+        // Assert
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void editDistance_shouldStopPastTheLimit() {
+        assertEquals(0, DealFuzzyIndex.editDistance("acme", "acme", 1));
+        assertEquals(1, DealFuzzyIndex.editDistance("holdngs", "holdings", 2));
+        assertEquals(1, DealFuzzyIndex.editDistance("nordik", "nordic", 1));
+        assertEquals(2, DealFuzzyIndex.editDistance("acme", "zenith", 1));
+        assertEquals(3, DealFuzzyIndex.editDistance("energy", "energies", 2));
+    }
+
+    private Page<Deal> search(String query) {
+        return fuzzySearchService.search(query, null, null, PageRequest.of(0, 10), DealFieldSet.ALL);
+    }
+
+    // Page reads return the stored deals in reverse, so ranking has to restore the order
+    private void build(Deal... deals) {
+        for (Deal deal : deals) {
+            stored.put(deal.getId(), deal);
+        }
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class))).thenReturn(List.of(deals).stream());
+        lenient().when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Collection<?> ids = (Collection<?>) ((Document) query.getQueryObject().get("id")).get("$in");
+            List<Deal> found = new ArrayList<>();
+            ids.forEach(id -> {
+                if (stored.containsKey(id)) {
+                    found.add(stored.get(id));
+                }
+            });
+            Collections.reverse(found);
+            return found;
+        });
+        fuzzySearchService.rebuild();
+    }
+
+    private static List<String> ids(Page<Deal> page) {
+        return page.getContent().stream().map(Deal::getId).toList();
+    }
+
+    private static Deal deal(String id, String title, DealStage stage, String sector) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setTitle(title);
+        deal.setStage(stage);
+        deal.setSector(sector);
+        return deal;
+    }
+
+    private static DealChangedEvent change(DealChangeType type, Deal before, Deal after) {
+        return new DealChangedEvent(type, before, after, "admin123", Instant.now());
+    }
+}
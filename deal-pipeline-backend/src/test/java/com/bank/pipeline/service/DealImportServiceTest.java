@@ -0,0 +1,259 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealImportJobResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealImportJob;
+import com.bank.pipeline.model.DealImportStatus;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.repository.DealImportJobRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealImportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private DealImportJobRepository jobRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<Deal>> insertCaptor;
+
+    @TempDir
+    Path tempDir;
+
+    private DealImportServiceImpl dealImportService;
+
+    @BeforeEach
+    void setup() {
+        dealImportService = new DealImportServiceImpl(
+                mongoTemplate, jobRepository, eventPublisher, 2, 1, 2, 1, 200, 30_000);
+    }
+
+    @AfterEach
+    void cleanup() {
+        dealImportService.shutdown();
+    }
+
+    @Test
+    void runImport_validRows_shouldInsertInBatchesAndComplete() throws IOException {
+        // Arrange
+        stubBulkInsert();
+        Path file = csv("""
+                title,sector,dealType,stage,dealValue,ownerId,createdAt
+                Acme buyout,Technology,Merger Acquisition,due diligence,2500000,banker1,2025-01-15
+                "Globex, Inc. IPO",Healthcare,IPO,,,,
+                Initech refinancing,Energy,debt-financing,QUALIFIED,100,,2025-02-01T10:00:00Z
+                """);
+        DealImportJob job = job(file);
+
+        // Act
+        dealImportService.runImport(job, file, new DealImportProgress(10));
+
+        // Assert
+        assertEquals(DealImportStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsRead());
+        assertEquals(3, job.getRowsImported());
+        assertEquals(0, job.getErrorRows());
+        assertEquals(Files.size(file), job.getBytesRead());
+
+        verify(bulkOperations, times(2)).insert(insertCaptor.capture());
+        List<Deal> deals = insertCaptor.getAllValues().stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Deal::getTitle))
+                .toList();
+
+        Deal acme = deals.get(0);
+        assertEquals(DealType.MERGER_ACQUISITION, acme.getDealType());
+        assertEquals(DealStage.DUE_DILIGENCE, acme.getStage());
+        assertEquals(2500000.0, acme.getDealValue());
+        assertEquals("banker1", acme.getOwnerId());
+        assertEquals(Instant.parse("2025-01-15T00:00:00Z"), acme.getCreatedAt());
+
+        Deal globex = deals.get(1);
+        assertEquals("Globex, Inc. IPO", globex.getTitle());
+        assertEquals(DealStage.LEAD, globex.getStage());
+        assertEquals("admin123", globex.getOwnerId());
+        assertNull(globex.getDealValue());
+
+        assertEquals(DealType.DEBT_FINANCING, deals.get(2).getDealType());
+        verify(eventPublisher, times(2)).publishEvent(any(DealBatchChangedEvent.class));
+    }
+
+    @Test
+    void runImport_invalidRows_shouldReportThemAndImportTheRest() throws IOException {
+        // Arrange
+        stubBulkInsert();
+        Path file = csv("""
+                title,sector,dealType,stage,dealValue
+                ,Technology,IPO,LEAD,
+                Valid deal,Technology,IPO,LEAD,10
+                Bad stage,Technology,IPO,SIGNED,
+                Bad value,Technology,IPO,LEAD,lots
+                """);
+        DealImportJob job = job(file);
+
+        // Act
+        dealImportService.runImport(job, file, new DealImportProgress(10));
+
+        // Assert
+        assertEquals(DealImportStatus.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsRead());
+        assertEquals(1, job.getRowsImported());
+        assertEquals(3, job.getErrorRows());
+        assertEquals(List.of(1L, 3L, 4L), job.getErrors().stream()
+                .map(e -> e.getRow())
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void runImport_missingRequiredColumn_shouldFailJob() throws IOException {
+        // Arrange
+        Path file = csv("""
+                title,sector
+                Acme buyout,Technology
+                """);
+        DealImportJob job = job(file);
+
+        // Act
+        dealImportService.runImport(job, file, new DealImportProgress(10));
+
+        // Assert
+        assertEquals(DealImportStatus.FAILED, job.getStatus());
+        assertEquals("Missing required column: dealtype", job.getFailureMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void runImport_quotedFieldSpanningLines_shouldKeepLineBreak() throws IOException {
+        // Arrange
+        stubBulkInsert();
+        Path file = csv("title,sector,dealType\r\n\"Acme\r\nbuyout\",Technology,IPO\r\n");
+        DealImportJob job = job(file);
+
+        // Act
+        dealImportService.runImport(job, file, new DealImportProgress(10));
+
+        // Assert
+        assertEquals(DealImportStatus.COMPLETED, job.getStatus());
+        verify(bulkOperations).insert(insertCaptor.capture());
+        assertEquals("Acme\nbuyout", insertCaptor.getValue().get(0).getTitle());
+    }
+
+    @Test
+    void runImport_unbalancedQuote_shouldFailJobAtRecordLimit() throws IOException {
+        // Arrange
+        Path file = csv("title,sector,dealType\n\"Acme buyout,Technology,IPO\n"
+                + "Globex IPO,Healthcare,IPO\n".repeat(20));
+        DealImportJob job = job(file);
+
+        // Act
+        dealImportService.runImport(job, file, new DealImportProgress(10));
+
+        // Assert
+        assertEquals(DealImportStatus.FAILED, job.getStatus());
+        assertEquals("CSV record starting on line 2 is longer than 200 characters; check for an unbalanced quote",
+                job.getFailureMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void getJob_runningJob_shouldEstimateRemainingTime() {
+        // Arrange
+        DealImportJob job = DealImportJob.builder()
+                .id("job1")
+                .status(DealImportStatus.RUNNING)
+                .startedAt(Instant.now().minusSeconds(10))
+                .totalBytes(1000)
+                .bytesRead(250)
+                .rowsRead(50)
+                .build();
+        when(jobRepository.findById("job1")).thenReturn(Optional.of(job));
+
+        // Act
+        DealImportJobResponse response = dealImportService.getJob("job1");
+
+        // Assert
+        assertTrue(response.getRowsPerSecond() > 4 && response.getRowsPerSecond() <= 5);
+        assertNotNull(response.getEtaSeconds());
+        assertTrue(response.getEtaSeconds() >= 29 && response.getEtaSeconds() <= 31);
+    }
+
+    @Test
+    void failOrphanedJobs_shouldFailUnfinishedJobsWithAStaleHeartbeat() {
+        // Act
+        dealImportService.failOrphanedJobs();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(DealImportJob.class));
+
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals(List.of(DealImportStatus.QUEUED, DealImportStatus.RUNNING),
+                criteria.get("status", Document.class).get("$in"));
+        assertTrue(criteria.containsKey("$or"));
+
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(DealImportStatus.FAILED, set.get("status"));
+        assertNotNull(set.get("failureMessage"));
+        assertNotNull(set.get("finishedAt"));
+    }
+
+    private void stubBulkInsert() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private Path csv(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("deals.csv"), content);
+    }
+
+    private DealImportJob job(Path file) throws IOException {
+        return DealImportJob.builder()
+                .id("job1")
+                .createdBy("admin123")
+                .status(DealImportStatus.QUEUED)
+                .totalBytes(Files.size(file))
+                .build();
+    }
+}
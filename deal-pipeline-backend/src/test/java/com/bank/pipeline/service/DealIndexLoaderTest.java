@@ -0,0 +1,39 @@
+package com.bank.pipeline.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealIndexLoaderTest {
+
+    @Test
+    void start_buildFails_shouldRetryUntilItSucceeds() throws InterruptedException {
+        // Arrange - Mongo is down for the first attempt
+        AtomicBoolean ready = new AtomicBoolean();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch built = new CountDownLatch(1);
+        DealIndexLoader loader = new DealIndexLoader("test-loader", ready::get, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Mongo unavailable");
+            }
+            ready.set(true);
+            built.countDown();
+        });
+
+        // Act
+        loader.start();
+
+        // Assert
+        try {
+            assertTrue(built.await(5, TimeUnit.SECONDS));
+            assertEquals(2, attempts.get());
+        } finally {
+            loader.stop();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealCommand;
+import com.bank.pipeline.dto.DealIngestResult;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealType;
+import com.bank.pipeline.util.TestDataBuilder;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonObjectId;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealIngestServiceTest {
+
+    private static final Instant T1 = Instant.parse("2026-03-01T10:00:00Z");
+    private static final Instant T2 = Instant.parse("2026-03-01T11:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private DealIngestServiceImpl ingestService;
+
+    @BeforeEach
+    void setup() {
+        ingestService = new DealIngestServiceImpl(mongoTemplate, eventPublisher, sectorCatalog);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deal.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void applyCommands_duplicateKeys_shouldUpsertLatestOnceInOneBulkWrite() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of());
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        ObjectId id = new ObjectId();
+        when(bulkWriteResult.getUpserts()).thenReturn(List.of(new BulkWriteUpsert(0, new BsonObjectId(id))));
+
+        DealCommand first = command("CRM-1", DealStage.LEAD, T1);
+        DealCommand second = command("CRM-1", DealStage.QUALIFIED, T2);
+
+        // Act
+        DealIngestResult result = ingestService.applyCommands(List.of(second, first));
+
+        // Assert
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(1, result.getCreated());
+        verify(bulkOperations, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+
+        DealChangedEvent change = publishedChanges().get(0);
+        assertEquals(DealChangeType.CREATED, change.getType());
+        assertEquals(id.toHexString(), change.getDealId());
+        // The older command arrived later in the poll but must not win
+        assertEquals(DealStage.QUALIFIED, change.getCurrentStage());
+    }
+
+    @Test
+    void applyCommands_redeliveredCommand_shouldBeSkippedAsStale() {
+        // Arrange
+        Deal existing = TestDataBuilder.createTestDeal();
+        existing.setExternalKey("CRM-1");
+        existing.setExternalUpdatedAt(T1);
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(existing));
+
+        // Act
+        DealIngestResult result = ingestService.applyCommands(List.of(command("CRM-1", DealStage.LEAD, T1)));
+
+        // Assert
+        assertEquals(1, result.getStale());
+        verify(bulkOperations, never()).execute();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void applyCommands_archivedDeal_shouldBeRejectedNotUpserted() {
+        // Arrange
+        Deal archived = TestDataBuilder.createTestDeal();
+        archived.setExternalKey("CRM-1");
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(List.of(archived));
+
+        // Act
+        DealIngestResult result = ingestService.applyCommands(List.of(command("CRM-1", DealStage.WON, T2)));
+
+        // Assert
+        assertEquals(1, result.getArchived());
+        assertEquals(0, result.getCreated());
+        verify(bulkOperations, never()).upsert(any(Query.class), any(Update.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void applyCommands_existingDealNewStage_shouldPublishStageChangeAndCountInvalid() {
+        // Arrange
+        Deal existing = TestDataBuilder.createTestDeal();
+        existing.setExternalKey("CRM-1");
+        existing.setExternalUpdatedAt(T1);
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class))).thenReturn(List.of(existing));
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getUpserts()).thenReturn(List.of());
+
+        DealCommand invalid = command(" ", DealStage.LEAD, T2);
+
+        // Act
+        DealIngestResult result = ingestService.applyCommands(
+                List.of(command("CRM-1", DealStage.TERM_SHEET, T2), invalid));
+
+        // Assert
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getInvalid());
+
+        DealChangedEvent change = publishedChanges().get(0);
+        assertEquals(DealChangeType.UPDATED, change.getType());
+        assertEquals("deal123", change.getDealId());
+        assertTrue(change.isStageChanged());
+        assertEquals(DealStage.TERM_SHEET, change.getCurrentStage());
+    }
+
+    private List<DealChangedEvent> publishedChanges() {
+        ArgumentCaptor<DealBatchChangedEvent> captor = ArgumentCaptor.forClass(DealBatchChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        return captor.getValue().getChanges();
+    }
+
+    private DealCommand command(String externalKey, DealStage stage, Instant occurredAt) {
+        DealCommand command = new DealCommand();
+        command.setExternalKey(externalKey);
+        command.setTitle("Originated deal");
+        command.setSector("Technology");
+        command.setDealType(DealType.DEBT_FINANCING);
+        command.setStage(stage);
+        command.setOwnerId("user123");
+        command.setOccurredAt(occurredAt);
+        return command;
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.mapper.DealMapper;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealListView;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.util.TestDataBuilder;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealListViewServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private DealListViewServiceImpl listViewService;
+
+    @BeforeEach
+    void setup() {
+        listViewService = new DealListViewServiceImpl(mongoTemplate, true);
+    }
+
+    @Test
+    void findFiltered_sortByTitle_shouldUsePrecomputedSortKeyAndPage() {
+        // Arrange
+        Deal deal = TestDataBuilder.createTestDeal();
+        when(mongoTemplate.find(any(Query.class), eq(DealListView.class)))
+                .thenReturn(List.of(DealMapper.toListView(deal, Instant.now())));
+
+        // Act
+        Page<Deal> page = listViewService.findFiltered(
+                DealStage.LEAD, "Technology", PageRequest.of(0, 10, Sort.by("title")));
+
+        // Assert
+        assertEquals(1, page.getTotalElements());
+        assertEquals(deal.getId(), page.getContent().get(0).getId());
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(DealListView.class));
+        Query query = captor.getValue();
+        assertEquals(new Document("titleSortKey", 1), query.getSortObject());
+        assertEquals(DealStage.LEAD, query.getQueryObject().get("stage"));
+        assertEquals("Technology", query.getQueryObject().get("sector"));
+        assertEquals(10, query.getLimit());
+    }
+
+    @Test
+    void findByOwner_unsorted_shouldSortByMostRecentlyUpdated() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DealListView.class))).thenReturn(List.of());
+
+        // Act
+        listViewService.findByOwner("user123", PageRequest.of(0, 20));
+
+        // Assert
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(DealListView.class));
+        assertEquals(new Document("updatedAt", -1), captor.getValue().getSortObject());
+        assertEquals("user123", captor.getValue().getQueryObject().get("ownerId"));
+    }
+
+    @Test
+    void toListView_shouldFlattenNotesIntoCountAndLatestPreview() {
+        // Arrange
+        Deal deal = TestDataBuilder.createTestDeal();
+        deal.setTitle("  Acme Buyout ");
+        deal.getNotes().add(new DealNote("user123", "first"));
+        deal.getNotes().add(new DealNote("user123", "x".repeat(300)));
+
+        // Act
+        DealListView view = DealMapper.toListView(deal, Instant.now());
+        Deal listDeal = DealMapper.fromListView(view);
+
+        // Assert
+        assertEquals(2, view.getNoteCount());
+        assertEquals(120, view.getLastNotePreview().length());
+        assertEquals("acme buyout", view.getTitleSortKey());
+        assertEquals(DealStage.LEAD.ordinal(), view.getStageOrder());
+        assertEquals(1, listDeal.getNotes().size());
+        assertEquals(300, listDeal.getNotes().get(0).getNote().length());
+    }
+}
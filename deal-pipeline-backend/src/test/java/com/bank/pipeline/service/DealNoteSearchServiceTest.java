@@ -0,0 +1,151 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealNoteSearchHit;
+import com.bank.pipeline.dto.DealNoteSnippet;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealNoteSearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private DealNoteSearchServiceImpl noteSearchService;
+
+    @BeforeEach
+    void setup() {
+        noteSearchService = new DealNoteSearchServiceImpl(mongoTemplate, sectorCatalog);
+    }
+
+    @Test
+    void search_shouldQueryOwnersTextIndexAndReturnSnippets() {
+        // Arrange
+        stubConverter();
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(sectorCatalog.nameOf("2")).thenReturn("Energy");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("deals"))).thenReturn(List.of(
+                dealDocument("d1", 2.5, note("n1", "Kick-off call, no pricing yet."),
+                        note("n2", "Client refinanced the 2019 facility and wants the same terms."))));
+
+        // Act
+        List<DealNoteSearchHit> hits = noteSearchService.search("refinancing", "alice", false, 20);
+
+        // Assert - owner equality alongside $text, ranked by text score
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Document.class), eq("deals"));
+        Document queryObject = captor.getValue().getQueryObject();
+        assertEquals("refinancing", ((Document) queryObject.get("$text")).get("$search"));
+        assertEquals("alice", queryObject.get("ownerId"));
+        assertTrue(captor.getValue().getSortObject().containsKey("score"));
+        assertEquals(20, captor.getValue().getLimit());
+
+        assertEquals(1, hits.size());
+        DealNoteSearchHit hit = hits.get(0);
+        assertEquals("d1", hit.getDealId());
+        assertEquals("Energy", hit.getSector());
+        assertEquals(DealStage.LEAD, hit.getStage());
+        assertEquals(2.5, hit.getScore());
+        assertFalse(hit.isArchived());
+        assertEquals(List.of("n2"), hit.getNotes().stream().map(DealNoteSnippet::getNoteId).toList());
+        assertEquals("Client refinanced the 2019 facility and wants the same terms.", hit.getNotes().get(0).getSnippet());
+        assertEquals(Instant.parse("2026-01-05T10:00:00Z"), hit.getNotes().get(0).getCreatedAt());
+    }
+
+    @Test
+    void search_includeArchived_shouldMergeBothCollectionsByScore() {
+        // Arrange
+        stubConverter();
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(sectorCatalog.nameOf(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("deals"))).thenReturn(List.of(
+                dealDocument("d1", 1.2, note("n1", "Bond covenants agreed")),
+                dealDocument("d2", 0.8, note("n2", "Bond pricing moved"))));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(List.of(dealDocument("a1", 1.9, note("n3", "Old bond deal"))));
+
+        // Act
+        List<DealNoteSearchHit> hits = noteSearchService.search("bond", "alice", true, 2);
+
+        // Assert
+        assertEquals(List.of("a1", "d1"), hits.stream().map(DealNoteSearchHit::getDealId).toList());
+        assertTrue(hits.get(0).isArchived());
+    }
+
+    @Test
+    void search_blankQuery_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> noteSearchService.search("  ", "alice", false, 20));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void snippets_shouldCutAroundTheMatchAndSkipExcludedTerms() {
+        // Arrange
+        String longNote = "x ".repeat(60) + "Sponsor confirmed the merger timetable " + "y ".repeat(60);
+        List<DealNote> notes = List.of(
+                new DealNote("n1", "alice", longNote, Instant.now()),
+                new DealNote("n2", "alice", "Pricing merger arbitrage risk", Instant.now()));
+
+        // Act
+        List<DealNoteSnippet> merger = DealNoteSearchServiceImpl.snippets(notes, DealNoteSearchServiceImpl.terms("MERGER"));
+        List<DealNoteSnippet> pricing = DealNoteSearchServiceImpl.snippets(notes,
+                DealNoteSearchServiceImpl.terms("pricing -merger"));
+
+        // Assert - newest note first; the long note is trimmed on both sides
+        assertEquals(List.of("n2", "n1"), merger.stream().map(DealNoteSnippet::getNoteId).toList());
+        String snippet = merger.get(1).getSnippet();
+        assertTrue(snippet.startsWith("\u2026") && snippet.endsWith("\u2026"));
+        assertTrue(snippet.contains("Sponsor confirmed the merger timetable"));
+        assertTrue(snippet.length() < longNote.length());
+        assertEquals(List.of("n2"), pricing.stream().map(DealNoteSnippet::getNoteId).toList());
+        assertNull(DealNoteSearchServiceImpl.terms("-merger"));
+    }
+
+    private void stubConverter() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+    }
+
+    private static Document dealDocument(String id, double score, Document... notes) {
+        return new Document("_id", id)
+                .append("title", "Deal " + id)
+                .append("stage", "LEAD")
+                .append("sector", "2")
+                .append("notes", List.of(notes))
+                .append("score", score);
+    }
+
+    private static Document note(String noteId, String text) {
+        return new Document("noteId", noteId)
+                .append("userId", "alice")
+                .append("note", text)
+                .append("createdAt", Date.from(Instant.parse("2026-01-05T10:00:00Z")));
+    }
+}
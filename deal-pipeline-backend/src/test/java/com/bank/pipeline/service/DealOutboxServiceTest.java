@@ -0,0 +1,194 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealOutboxRecord;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.util.TestDataBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealOutboxServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private DistributedLockService lockService;
+
+    @Captor
+    private ArgumentCaptor<Collection<DealOutboxRecord>> recordsCaptor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DealOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setup() {
+        outboxService = new DealOutboxServiceImpl(
+                mongoTemplate, kafkaTemplate, objectMapper, lockService, meterRegistry,
+                "deal-events", 2, 1000);
+    }
+
+    @Test
+    void onDealsChanged_shouldWriteOneRecordPerChangeWithEventIdInPayload() throws Exception {
+        // Arrange
+        Deal before = TestDataBuilder.createTestDeal();
+        Deal after = before.toBuilder().stage(DealStage.QUALIFIED).build();
+        DealChangedEvent updated = new DealChangedEvent(
+                DealChangeType.UPDATED, before, after, "user123", Instant.now());
+        DealChangedEvent deleted = new DealChangedEvent(
+                DealChangeType.DELETED, after, null, "admin123", Instant.now());
+
+        // Act
+        outboxService.onDealsChanged(new DealBatchChangedEvent(List.of(updated, deleted)));
+
+        // Assert
+        verify(mongoTemplate).insertAll(recordsCaptor.capture());
+        List<DealOutboxRecord> records = List.copyOf(recordsCaptor.getValue());
+        assertEquals(2, records.size());
+
+        DealOutboxRecord first = records.get(0);
+        assertEquals(before.getId(), first.getDealId());
+        assertNull(first.getPublishedAt());
+        JsonNode payload = objectMapper.readTree(first.getPayload());
+        assertEquals(first.getId(), payload.get("eventId").asText());
+        assertEquals("LEAD", payload.get("previousStage").asText());
+        assertEquals("QUALIFIED", payload.get("deal").get("stage").asText());
+
+        // Deletes carry the last known state
+        JsonNode deletedPayload = objectMapper.readTree(records.get(1).getPayload());
+        assertEquals("DELETED", deletedPayload.get("type").asText());
+        assertEquals(before.getId(), deletedPayload.get("deal").get("id").asText());
+    }
+
+    @Test
+    void relay_allSendsAcked_shouldKeyByDealAndMarkPublished() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DealOutboxRecord.class)))
+                .thenReturn(List.of(record("o1", "d1"), record("o2", "d2")));
+        when(kafkaTemplate.send(eq("deal-events"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = outboxService.relay();
+
+        // Assert
+        assertEquals(2, relayed);
+        verify(kafkaTemplate).send("deal-events", "d1", "{\"eventId\":\"o1\"}");
+        verify(kafkaTemplate).send("deal-events", "d2", "{\"eventId\":\"o2\"}");
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(DealOutboxRecord.class));
+        assertEquals(2.0, meterRegistry.counter("deal.outbox.published").count());
+    }
+
+    @Test
+    void relay_sendFails_shouldStillMarkTheOtherAckedRecords() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DealOutboxRecord.class)))
+                .thenReturn(List.of(record("o1", "d1"), record("o2", "d2")));
+        when(kafkaTemplate.send("deal-events", "d1", "{\"eventId\":\"o1\"}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send("deal-events", "d2", "{\"eventId\":\"o2\"}"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = outboxService.relay();
+
+        // Assert - o2 was delivered, so it is not sent again after o1
+        assertEquals(1, relayed);
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(DealOutboxRecord.class));
+        assertEquals(1.0, meterRegistry.counter("deal.outbox.published").count());
+    }
+
+    @Test
+    void relay_twoRecordsForOneDeal_shouldOnlySendTheOlderOne() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(DealOutboxRecord.class)))
+                .thenReturn(List.of(record("o1", "d1"), record("o2", "d1")));
+        when(kafkaTemplate.send(eq("deal-events"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        int relayed = outboxService.relay();
+
+        // Assert - o2 waits for the next batch, after o1 is known to be acked
+        assertEquals(1, relayed);
+        verify(kafkaTemplate).send("deal-events", "d1", "{\"eventId\":\"o1\"}");
+        verify(kafkaTemplate, never()).send("deal-events", "d1", "{\"eventId\":\"o2\"}");
+    }
+
+    @Test
+    void scheduledRelay_leaseLostAfterBatch_shouldStopDraining() {
+        // Arrange - the first batch makes progress, but the lease cannot be renewed for the next
+        when(lockService.tryAcquire(eq("deal-outbox-relay"), any())).thenReturn(true, false);
+        when(mongoTemplate.find(any(Query.class), eq(DealOutboxRecord.class)))
+                .thenReturn(List.of(record("o1", "d1"), record("o2", "d2")));
+        when(kafkaTemplate.send(eq("deal-events"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxService.scheduledRelay();
+
+        // Assert
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(DealOutboxRecord.class));
+        verify(lockService, times(2)).tryAcquire(eq("deal-outbox-relay"), any());
+        verify(lockService).release("deal-outbox-relay");
+    }
+
+    @Test
+    void scheduledRelay_lockHeldElsewhere_shouldOnlyRefreshLag() {
+        // Arrange
+        when(lockService.tryAcquire(eq("deal-outbox-relay"), any())).thenReturn(false);
+        DealOutboxRecord oldest = record("o1", "d1");
+        oldest.setCreatedAt(Instant.now().minusSeconds(30));
+        when(mongoTemplate.findOne(any(Query.class), eq(DealOutboxRecord.class))).thenReturn(oldest);
+        when(mongoTemplate.count(any(Query.class), eq(DealOutboxRecord.class))).thenReturn(7L);
+
+        // Act
+        outboxService.scheduledRelay();
+
+        // Assert
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(7.0, meterRegistry.get("deal.outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("deal.outbox.lag").gauge().value() >= 30000);
+    }
+
+    private DealOutboxRecord record(String id, String dealId) {
+        return DealOutboxRecord.builder()
+                .id(id)
+                .dealId(dealId)
+                .type(DealChangeType.UPDATED)
+                .payload("{\"eventId\":\"" + id + "\"}")
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealFieldSet;
+import com.bank.pipeline.dto.DealSearchResponse;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.Sector;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealSearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    private DealSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setup() {
+        searchService = new DealSearchServiceImpl(mongoTemplate, sectorCatalog);
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+    }
+
+    @Test
+    void searchWithFacets_shouldReturnHitsAndCountsFromOneAggregation() {
+        // Arrange
+        when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(sectorCatalog.nameOf(anyString())).thenAnswer(invocation -> switch (invocation.<String>getArgument(0)) {
+            case "1", "Technology" -> "Technology";
+            case "2" -> "Energy";
+            default -> invocation.getArgument(0);
+        });
+        stubResult(new Document()
+                .append("hits", List.of(new Document("_id", "d1").append("title", "Acme IPO")
+                        .append("sector", "1").append("stage", "LEAD")))
+                .append("total", List.of(new Document("total", 12)))
+                .append("stage", List.of(bucket("LEAD", 9), bucket("WON", 3)))
+                .append("sector", List.of(bucket("1", 7), bucket("2", 4), bucket("Technology", 1)))
+                .append("dealType", List.of(bucket("IPO", 12), bucket(null, 0))));
+
+        // Act
+        DealSearchResponse<Deal> response = searchService.searchWithFacets(
+                "acme", null, null, false, PageRequest.of(0, 1), DealFieldSet.ALL);
+
+        // Assert
+        assertEquals(12, response.getHits().getTotalElements());
+        Deal hit = response.getHits().getContent().get(0);
+        assertEquals("d1", hit.getId());
+        assertEquals(DealStage.LEAD, hit.getStage());
+        assertEquals("Technology", hit.getSector());
+
+        assertEquals(Map.of("LEAD", 9L, "WON", 3L), response.getFacets().get("stage"));
+        // The legacy raw name folds into its catalog sector
+        assertEquals(Map.of("Technology", 8L, "Energy", 4L), response.getFacets().get("sector"));
+        assertEquals(Map.of("IPO", 12L), response.getFacets().get("dealType"));
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq("deals"), eq(Document.class));
+    }
+
+    @Test
+    void searchWithFacets_shouldShareOneMatchAcrossFacets() {
+        // Arrange
+        when(sectorCatalog.resolve("tech")).thenReturn(Optional.of(Sector.builder().id("1").name("Technology").build()));
+        stubResult(new Document());
+
+        // Act
+        DealSearchResponse<Deal> response = searchService.searchWithFacets(
+                "acme", DealStage.LEAD, "tech", true, PageRequest.of(0, 10), DealFieldSet.ALL);
+
+        // Assert
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("deals"), eq(Document.class));
+        List<Document> pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        assertEquals(3, pipeline.size());
+        assertTrue(pipeline.get(0).containsKey("$match"));
+        assertTrue(pipeline.get(0).toJson().contains("\"sector\": \"1\""));
+        assertTrue(pipeline.get(1).containsKey("$unionWith"));
+        Document facet = pipeline.get(2).get("$facet", Document.class);
+        assertEquals(List.of("hits", "total", "stage", "sector", "dealType"), List.copyOf(facet.keySet()));
+
+        assertEquals(0, response.getHits().getTotalElements());
+        assertTrue(response.getFacets().get("stage").isEmpty());
+    }
+
+    private void stubResult(Document result) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("deals"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+    }
+
+    private static Document bucket(Object value, int count) {
+        return new Document("_id", value).append("count", count);
+    }
+}
@@ -0,0 +1,171 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.StageConversionResponse;
+import com.bank.pipeline.dto.StageDwellResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.DealStageEvent;
+import com.bank.pipeline.model.DealStageStats;
+import com.bank.pipeline.repository.DealStageEventRepository;
+import com.bank.pipeline.util.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealStageHistoryServiceTest {
+
+    @Mock
+    private DealStageEventRepository stageEventRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private DealStageHistoryServiceImpl stageHistoryService;
+
+    @Captor
+    private ArgumentCaptor<List<DealStageEvent>> captor;
+
+    private Deal before;
+    private Deal after;
+    private Instant now;
+
+    @BeforeEach
+    void setup() {
+        now = Instant.now();
+        before = TestDataBuilder.createTestDeal();
+        before.setStage(DealStage.TERM_SHEET);
+        before.setStageEnteredAt(now.minus(Duration.ofHours(5)));
+        after = before.toBuilder().stage(DealStage.DUE_DILIGENCE).stageEnteredAt(now).build();
+    }
+
+    @Test
+    void recordTransition_shouldAppendEventWithDwellTime() {
+        // Arrange
+        when(stageEventRepository.findByDealIdIn(List.of(before.getId())))
+                .thenReturn(List.of(stageEvent(DealStage.TERM_SHEET)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealStageStats.class))
+                .thenReturn(bulkOperations);
+
+        // Act
+        stageHistoryService.onDealChanged(
+                new DealChangedEvent(DealChangeType.UPDATED, before, after, "user123", now));
+
+        // Assert
+        verify(stageEventRepository).saveAll(captor.capture());
+        DealStageEvent stageEvent = captor.getValue().get(0);
+        assertEquals(DealStage.TERM_SHEET, stageEvent.getFromStage());
+        assertEquals(DealStage.DUE_DILIGENCE, stageEvent.getToStage());
+        assertEquals(Long.valueOf(Duration.ofHours(5).toMillis()), stageEvent.getDwellMillis());
+
+        // TERM_SHEET (exit + reach) and DUE_DILIGENCE (entry), one upsert per stage
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void onDealsChanged_bulkCreate_shouldFoldEntriesIntoSingleUpsert() {
+        // Arrange
+        Deal first = TestDataBuilder.createTestDeal();
+        Deal second = first.toBuilder().id("deal456").build();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DealStageStats.class))
+                .thenReturn(bulkOperations);
+
+        // Act
+        stageHistoryService.onDealsChanged(new DealBatchChangedEvent(List.of(
+                new DealChangedEvent(DealChangeType.CREATED, null, first, "user123", now),
+                new DealChangedEvent(DealChangeType.CREATED, null, second, "user123", now))));
+
+        // Assert: new deals have no history to look up
+        verify(stageEventRepository, never()).findByDealIdIn(any());
+        verify(bulkOperations, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void onDealChanged_withoutStageChange_shouldNotRecord() {
+        // Act
+        stageHistoryService.onDealChanged(
+                new DealChangedEvent(DealChangeType.NOTE_ADDED, before, before, "user123", now));
+
+        // Assert
+        verifyNoInteractions(stageEventRepository, mongoTemplate);
+    }
+
+    @Test
+    void getConversionRates_shouldComputeDirectAndReachRates() {
+        // Arrange
+        DealStageStats stats = new DealStageStats();
+        stats.setId(DealStage.TERM_SHEET.name());
+        stats.setDealsEntered(10);
+        stats.getTransitions().put(DealStage.DUE_DILIGENCE.name(), 8L);
+        stats.getReached().put(DealStage.DUE_DILIGENCE.name(), 8L);
+        stats.getReached().put(DealStage.WON.name(), 4L);
+        when(mongoTemplate.findAll(DealStageStats.class)).thenReturn(List.of(stats));
+
+        // Act
+        List<StageConversionResponse> result = stageHistoryService.getConversionRates();
+
+        // Assert
+        assertEquals(2, result.size());
+        StageConversionResponse won = result.stream()
+                .filter(r -> r.getToStage() == DealStage.WON)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0d, won.getDirectRate());
+        assertEquals(0.4d, won.getReachRate(), 1e-9);
+    }
+
+    @Test
+    void getTimeInStage_shouldEstimatePercentilesFromHistogram() {
+        // Arrange
+        long twoHours = Duration.ofHours(2).toMillis();
+        DealStageStats stats = new DealStageStats();
+        stats.setId(DealStage.QUALIFIED.name());
+        stats.setDwellSamples(4);
+        stats.setDwellTotalMillis(4 * twoHours);
+        stats.getDwellBuckets().put(String.valueOf(DwellHistogram.bucketFor(twoHours)), 4L);
+        when(mongoTemplate.findAll(DealStageStats.class)).thenReturn(List.of(stats));
+
+        // Act
+        List<StageDwellResponse> result = stageHistoryService.getTimeInStage();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(2d, result.get(0).getMeanHours(), 1e-9);
+        // Bucket resolution is a factor of 1.5
+        assertTrue(result.get(0).getMedianHours() > 2d / 1.5 && result.get(0).getMedianHours() <= 2d * 1.5);
+    }
+
+    private DealStageEvent stageEvent(DealStage toStage) {
+        return DealStageEvent.builder()
+                .dealId(before.getId())
+                .toStage(toStage)
+                .changedAt(now.minus(Duration.ofHours(5)))
+                .build();
+    }
+}
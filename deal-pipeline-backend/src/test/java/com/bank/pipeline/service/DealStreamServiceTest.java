@@ -0,0 +1,103 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.util.TestDataBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealStreamServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealStreamServiceImpl streamService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Long intervals so nothing is flushed behind the test's back
+        streamService = new DealStreamServiceImpl(meterRegistry, 60_000, 3_600_000, 3_600_000, 2, 1, 4, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void dispatch_repeatedChangesToSameDeal_shouldCoalesce() {
+        // Arrange
+        streamService.subscribe("user123", false);
+        Deal deal = TestDataBuilder.createTestDeal();
+
+        // Act
+        streamService.dispatch(updated(deal, deal));
+        streamService.dispatch(updated(deal, deal));
+        streamService.dispatch(updated(deal, deal));
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("deal.stream.events.coalesced").counter().count());
+        assertEquals(1.0, meterRegistry.get("deal.stream.connections").gauge().value());
+    }
+
+    @Test
+    void dispatch_subscriberFallsBehind_shouldBeDisconnected() {
+        // Arrange
+        streamService.subscribe("user123", false);
+
+        // Act - three distinct deals pending against a limit of two
+        for (String id : new String[] {"deal1", "deal2", "deal3"}) {
+            Deal deal = TestDataBuilder.createTestDeal();
+            deal.setId(id);
+            streamService.dispatch(updated(deal, deal));
+        }
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("deal.stream.slow-consumers").counter().count());
+        assertEquals(0.0, meterRegistry.get("deal.stream.connections").gauge().value());
+    }
+
+    @Test
+    void dispatch_dealsOwnedBySomeoneElse_shouldNotReachUser() {
+        // Arrange
+        streamService.subscribe("otherUser", false);
+
+        // Act
+        for (String id : new String[] {"deal1", "deal2", "deal3"}) {
+            Deal deal = TestDataBuilder.createTestDeal();
+            deal.setId(id);
+            streamService.dispatch(updated(deal, deal));
+        }
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("deal.stream.slow-consumers").counter().count());
+        assertEquals(1.0, meterRegistry.get("deal.stream.connections").gauge().value());
+    }
+
+    @Test
+    void dispatch_dealReassigned_shouldNotifyPreviousAndNewOwner() {
+        // Arrange
+        streamService.subscribe("user123", false);
+        streamService.subscribe("newOwner", false);
+        Deal before = TestDataBuilder.createTestDeal();
+        Deal after = TestDataBuilder.createTestDeal();
+        after.setOwnerId("newOwner");
+
+        // Act - the second dispatch only coalesces if both owners already hold the first
+        streamService.dispatch(updated(before, after));
+        streamService.dispatch(updated(before, after));
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("deal.stream.events.coalesced").counter().count());
+    }
+
+    private static DealChangedEvent updated(Deal before, Deal after) {
+        return new DealChangedEvent(DealChangeType.UPDATED, before, after, "user123", Instant.now());
+    }
+}
@@ -0,0 +1,156 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.DealSuggestResponse;
+import com.bank.pipeline.event.DealBatchChangedEvent;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealSuggestServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DealSuggestServiceImpl suggestService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        suggestService = new DealSuggestServiceImpl(mongoTemplate, meterRegistry, true);
+    }
+
+    @Test
+    void suggest_beforeBuild_shouldNotBeReady() {
+        assertFalse(suggestService.isReady());
+        assertThrows(IllegalStateException.class, () -> suggestService.suggest("ac", "alice", false, 5));
+    }
+
+    @Test
+    void suggest_shouldMatchAnyWordIgnoringCaseAndAccents() {
+        // Arrange
+        build(
+                deal("d1", "Acme Bond Issue", "Financial Services", "alice"),
+                deal("d2", "Café Nordic IPO", "Consumer", "bob"),
+                deal("d3", "Nordic Wind Refinancing", "Energy", "alice"));
+
+        // Act
+        DealSuggestResponse nordic = suggestService.suggest("NOR", "admin", true, 10);
+        DealSuggestResponse cafe = suggestService.suggest(" cafe ", "admin", true, 10);
+        DealSuggestResponse services = suggestService.suggest("serv", "admin", true, 10);
+
+        // Assert - title order follows the matched key ("nordic ipo" before "nordic wind ...")
+        assertEquals(List.of("Café Nordic IPO", "Nordic Wind Refinancing"), nordic.getTitles());
+        assertEquals(List.of("Café Nordic IPO"), cafe.getTitles());
+        assertEquals(List.of("Financial Services"), services.getSectors());
+        assertEquals(3.0, meterRegistry.get("deal.suggest.deals").gauge().value());
+    }
+
+    @Test
+    void suggest_user_shouldOnlySeeOwnDeals() {
+        // Arrange
+        build(
+                deal("d1", "Acme Bond Issue", "Energy", "alice"),
+                deal("d2", "Acme Merger", "Entertainment", "bob"));
+
+        // Act
+        DealSuggestResponse alice = suggestService.suggest("acme", "alice", false, 10);
+        DealSuggestResponse carol = suggestService.suggest("acme", "carol", false, 10);
+        DealSuggestResponse admin = suggestService.suggest("e", "admin", true, 10);
+
+        // Assert
+        assertEquals(List.of("Acme Bond Issue"), alice.getTitles());
+        assertTrue(carol.getTitles().isEmpty());
+        assertTrue(carol.getSectors().isEmpty());
+        assertEquals(List.of("Energy", "Entertainment"), admin.getSectors());
+    }
+
+    @Test
+    void suggest_shouldRankSectorsByDealsAndCollapseDuplicateTitles() {
+        // Arrange
+        build(
+                deal("d1", "Acme IPO", "Telecom", "alice"),
+                deal("d2", "Acme IPO", "Technology", "alice"),
+                deal("d3", "Acme Merger", "Technology", "alice"),
+                deal("d4", "Acme Spin-off", "Technology", "alice"));
+
+        // Act
+        DealSuggestResponse response = suggestService.suggest("acme", "alice", false, 2);
+        DealSuggestResponse sectors = suggestService.suggest("te", "alice", false, 2);
+
+        // Assert
+        assertEquals(List.of("Acme IPO", "Acme Merger"), response.getTitles());
+        assertEquals(List.of("Technology", "Telecom"), sectors.getSectors());
+    }
+
+    @Test
+    void changeEvents_shouldKeepSuggestionsCurrent() {
+        // Arrange
+        Deal d1 = deal("d1", "Acme IPO", "Energy", "alice");
+        Deal d2 = deal("d2", "Acme Merger", "Energy", "alice");
+        Deal d3 = deal("d3", "Acme Buyout", "Energy", "alice");
+        build(d1, d2, d3);
+
+        // Act - rename and reassign d1, delete d2, create d4, archive d3
+        suggestService.onDealChanged(change(DealChangeType.UPDATED, d1, deal("d1", "Zenith IPO", "Energy", "bob")));
+        suggestService.onDealsChanged(new DealBatchChangedEvent(List.of(
+                change(DealChangeType.DELETED, d2, null),
+                change(DealChangeType.CREATED, null, deal("d4", "Acme Refinancing", "Energy", "alice")))));
+        suggestService.onDealsArchived(new DealsArchivedEvent(List.of("d3")));
+
+        // Assert
+        assertEquals(List.of("Acme Refinancing"), suggestService.suggest("acme", "alice", false, 10).getTitles());
+        assertEquals(List.of("Zenith IPO"), suggestService.suggest("zen", "bob", false, 10).getTitles());
+        assertTrue(suggestService.suggest("zen", "alice", false, 10).getTitles().isEmpty());
+    }
+
+    @Test
+    void changeEvents_whenDisabled_shouldBeIgnored() {
+        // Arrange
+        DealSuggestServiceImpl disabled = new DealSuggestServiceImpl(mongoTemplate, new SimpleMeterRegistry(), false);
+
+        // Act
+        disabled.load();
+        disabled.onDealChanged(change(DealChangeType.CREATED, null, deal("d1", "Acme IPO", "Energy", "alice")));
+
+        // Assert
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private void build(Deal... deals) {
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class))).thenReturn(List.of(deals).stream());
+        suggestService.rebuild();
+    }
+
+    private static Deal deal(String id, String title, String sector, String ownerId) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setTitle(title);
+        deal.setSector(sector);
+        deal.setOwnerId(ownerId);
+        return deal;
+    }
+
+    private static DealChangedEvent change(DealChangeType type, Deal before, Deal after) {
+        return new DealChangedEvent(type, before, after, "admin123", Instant.now());
+    }
+}
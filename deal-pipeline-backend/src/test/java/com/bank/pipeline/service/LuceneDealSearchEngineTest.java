@@ -0,0 +1,221 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.event.DealChangedEvent;
+import com.bank.pipeline.event.DealsArchivedEvent;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealNote;
+import com.bank.pipeline.model.DealStage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneDealSearchEngineTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    @TempDir
+    Path indexPath;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LuceneDealSearchEngine searchEngine;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchEngine = engine(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchEngine.shutdown();
+    }
+
+    @Test
+    void search_beforeBuild_shouldNotBeReady() {
+        assertFalse(searchEngine.isReady());
+        assertThrows(IllegalStateException.class, () -> searchEngine.search("acme", null, null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void search_shouldRankTitleOverSectorOverNotes() {
+        // Arrange
+        build(
+                deal("d3", "Harbour Loan", DealStage.LEAD, "Industrials", "Energy hedging discussed with treasury"),
+                deal("d2", "Grid Upgrade", DealStage.LEAD, "Energy"),
+                deal("d1", "Energy Transition Bond", DealStage.LEAD, "Utilities"));
+
+        // Act
+        Page<String> result = search("energy");
+
+        // Assert
+        assertEquals(List.of("d1", "d2", "d3"), result.getContent());
+        assertEquals(3, result.getTotalElements());
+        assertEquals(3.0, meterRegistry.get("deal.search.lucene.deals").gauge().value());
+    }
+
+    @Test
+    void search_shouldSupportPhrasesStemmingAccentsAndFilters() {
+        // Arrange
+        when(sectorCatalog.canonicalName("energy")).thenReturn("Energy");
+        build(
+                deal("d1", "Offshore Wind Farm Refinancing", DealStage.LEAD, "Energy"),
+                deal("d2", "Wind Turbines and Farm Equipment", DealStage.WON, "Energy"),
+                deal("d3", "Café Chain Buyout", DealStage.LEAD, "Consumer"),
+                deal("d4", "Onshore Wind Farm", DealStage.LEAD, "Utilities"));
+
+        // Act + Assert
+        assertEquals(List.of("d1", "d4"), sorted(search("\"wind farm\"")));
+        assertEquals(List.of("d1"), search("refinance").getContent());
+        assertEquals(List.of("d3"), search("cafe").getContent());
+        assertEquals(List.of("d2"), searchEngine.search("wind", DealStage.WON, null, PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of("d1", "d2"), sorted(searchEngine.search("wind", null, "energy", PageRequest.of(0, 10))));
+        assertEquals(List.of("d4"), search("wind -energy -equipment -refinancing").getContent());
+        // Unbalanced quote falls back to plain words
+        assertEquals(List.of("d3"), search("\"cafe").getContent());
+    }
+
+    @Test
+    void search_shouldPageAndCountAllMatches() {
+        // Arrange
+        List<Deal> deals = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            deals.add(deal("d" + i, "Acme Tranche " + i, DealStage.LEAD, "Energy"));
+        }
+        build(deals.toArray(Deal[]::new));
+
+        // Act
+        Page<String> third = searchEngine.search("acme", null, null, PageRequest.of(2, 10));
+
+        // Assert
+        assertEquals(25, third.getTotalElements());
+        assertEquals(5, third.getContent().size());
+    }
+
+    @Test
+    void changeEvents_shouldBeSearchableAfterRefresh() {
+        // Arrange
+        Deal d1 = deal("d1", "Acme IPO", DealStage.LEAD, "Energy");
+        build(d1, deal("d2", "Acme Merger", DealStage.LEAD, "Energy"));
+
+        // Act
+        searchEngine.onDealChanged(change(DealChangeType.NOTE_ADDED, d1,
+                deal("d1", "Acme IPO", DealStage.LEAD, "Energy", "Zenith wants a greenshoe option")));
+        searchEngine.onDealsArchived(new DealsArchivedEvent(List.of("d2")));
+        List<String> beforeRefresh = search("greenshoe").getContent();
+        searchEngine.refresh();
+
+        // Assert
+        assertTrue(beforeRefresh.isEmpty());
+        assertEquals(List.of("d1"), search("greenshoe").getContent());
+        assertEquals(List.of("d1"), search("acme").getContent());
+    }
+
+    @Test
+    void start_withSnapshot_shouldCatchUpWithoutRebuilding() throws Exception {
+        // Arrange - snapshot of three deals, written on shutdown
+        build(
+                deal("d1", "Acme IPO", DealStage.LEAD, "Energy"),
+                deal("d2", "Acme Merger", DealStage.LEAD, "Energy"),
+                deal("d3", "Acme Buyout", DealStage.WON, "Energy"));
+        searchEngine.shutdown();
+
+        // While down: d1 renamed, d2 deleted, d3 archived
+        reset(mongoTemplate);
+        DealChangeLogEntry renamed = DealChangeLogEntry.builder().dealId("d1").build();
+        DealChangeLogEntry deleted = DealChangeLogEntry.builder().dealId("d2").build();
+        when(mongoTemplate.stream(any(Query.class), eq(DealChangeLogEntry.class)))
+                .thenReturn(List.of(renamed, deleted).stream());
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(DealArchiveService.ARCHIVE_COLLECTION)))
+                .thenReturn(List.of(new Document("_id", "d3")).stream());
+        when(mongoTemplate.find(any(Query.class), eq(Deal.class)))
+                .thenReturn(List.of(deal("d1", "Zenith IPO", DealStage.LEAD, "Energy")));
+
+        // Act
+        searchEngine = engine(new SimpleMeterRegistry());
+        searchEngine.start();
+
+        // Assert
+        assertTrue(searchEngine.isReady());
+        assertTrue(search("acme").isEmpty());
+        assertEquals(List.of("d1"), search("zenith").getContent());
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Deal.class));
+    }
+
+    @Test
+    void changeEvents_whenDisabled_shouldBeIgnored() {
+        // Arrange
+        LuceneDealSearchEngine disabled = new LuceneDealSearchEngine(
+                mongoTemplate, sectorCatalog, new SimpleMeterRegistry(), false, indexPath.toString());
+
+        // Act
+        disabled.load();
+        disabled.rebuild();
+        disabled.onDealChanged(change(DealChangeType.CREATED, null, deal("d1", "Acme IPO", DealStage.LEAD, "Energy")));
+
+        // Assert
+        assertFalse(disabled.isReady());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    private LuceneDealSearchEngine engine(SimpleMeterRegistry registry) {
+        return new LuceneDealSearchEngine(mongoTemplate, sectorCatalog, registry, true, indexPath.toString());
+    }
+
+    private Page<String> search(String query) {
+        return searchEngine.search(query, null, null, PageRequest.of(0, 10));
+    }
+
+    private void build(Deal... deals) {
+        when(mongoTemplate.stream(any(Query.class), eq(Deal.class))).thenReturn(List.of(deals).stream());
+        searchEngine.rebuild();
+    }
+
+    private static List<String> sorted(Page<String> page) {
+        return page.getContent().stream().sorted().toList();
+    }
+
+    private static Deal deal(String id, String title, DealStage stage, String sector, String... notes) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setTitle(title);
+        deal.setStage(stage);
+        deal.setSector(sector);
+        List<DealNote> dealNotes = new ArrayList<>();
+        for (String note : notes) {
+            dealNotes.add(new DealNote("alice", note));
+        }
+        deal.setNotes(dealNotes);
+        return deal;
+    }
+
+    private static DealChangedEvent change(DealChangeType type, Deal before, Deal after) {
+        return new DealChangedEvent(type, before, after, "admin123", Instant.now());
+    }
+}
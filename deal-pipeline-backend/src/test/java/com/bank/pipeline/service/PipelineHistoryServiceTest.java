@@ -0,0 +1,170 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.dto.PipelineAsOfResponse;
+import com.bank.pipeline.event.DealChangeType;
+import com.bank.pipeline.exception.InvalidRequestException;
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.DealChangeLogEntry;
+import com.bank.pipeline.model.DealPosition;
+import com.bank.pipeline.model.DealStage;
+import com.bank.pipeline.model.PipelineBucket;
+import com.bank.pipeline.model.PipelineSectorBucket;
+import com.bank.pipeline.model.PipelineSnapshot;
+import com.bank.pipeline.repository.DealChangeLogRepository;
+import com.bank.pipeline.repository.PipelineSnapshotRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineHistoryServiceTest {
+
+    @Mock
+    private DealChangeLogRepository changeLogRepository;
+
+    @Mock
+    private PipelineSnapshotRepository snapshotRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SectorCatalogService sectorCatalog;
+
+    @InjectMocks
+    private PipelineHistoryServiceImpl pipelineHistoryService;
+
+    private Instant snapshotAt;
+    private PipelineSnapshot snapshot;
+    private DealChangeLogEntry wonEntry;
+
+    @BeforeEach
+    void setup() {
+        snapshotAt = Instant.parse("2026-03-31T00:00:00Z");
+
+        Map<String, PipelineBucket> byStage = new HashMap<>();
+        byStage.put(DealStage.LEAD.name(), new PipelineBucket(2, 300d, 30d));
+
+        snapshot = PipelineSnapshot.builder()
+                .asOf(snapshotAt)
+                .byStage(byStage)
+                .bySector(List.of(new PipelineSectorBucket("Technology", 2, 300d, 30d)))
+                .build();
+
+        wonEntry = DealChangeLogEntry.builder()
+                .dealId("deal123")
+                .type(DealChangeType.UPDATED)
+                .before(new DealPosition(DealStage.LEAD, "Technology", 100d, "john"))
+                .after(new DealPosition(DealStage.WON, "Technology", 100d, "john"))
+                .occurredAt(snapshotAt.plus(Duration.ofHours(1)))
+                .build();
+    }
+
+    @Test
+    void getPipelineAsOf_afterSnapshot_shouldReplayDeltaForward() {
+        // Arrange
+        Instant asOf = snapshotAt.plus(Duration.ofDays(1));
+        when(snapshotRepository.findFirstByAsOfLessThanEqualOrderByAsOfDesc(asOf))
+                .thenReturn(Optional.of(snapshot));
+        when(snapshotRepository.findFirstByAsOfGreaterThanOrderByAsOfAsc(asOf))
+                .thenReturn(Optional.empty());
+        when(mongoTemplate.stream(any(Query.class), eq(DealChangeLogEntry.class)))
+                .thenReturn(Stream.of(wonEntry));
+
+        // Act
+        PipelineAsOfResponse result = pipelineHistoryService.getPipelineAsOf(asOf);
+
+        // Assert
+        assertEquals(1, result.getReplayedChanges());
+        assertEquals(2, result.getTotalDeals());
+        assertEquals(1, result.getByStage().get(DealStage.LEAD.name()).getCount());
+        assertEquals(200d, result.getByStage().get(DealStage.LEAD.name()).getTotalValue());
+        assertEquals(1, result.getByStage().get(DealStage.WON.name()).getCount());
+        assertEquals(2, result.getBySector().get("Technology").getCount());
+    }
+
+    @Test
+    void getPipelineAsOf_beforeSnapshot_shouldRevertDeltaBackward() {
+        // Arrange: snapshot already contains the move to WON
+        PipelineTotals totals = PipelineTotals.from(snapshot);
+        totals.apply(wonEntry);
+        PipelineSnapshot later = totals.toSnapshot(snapshotAt.plus(Duration.ofDays(1)), 1);
+
+        PipelineSnapshot earlier = PipelineTotals.from(snapshot).toSnapshot(snapshotAt.minus(Duration.ofDays(1)), 0);
+
+        Instant asOf = snapshotAt.plus(Duration.ofMinutes(30));
+        when(snapshotRepository.findFirstByAsOfLessThanEqualOrderByAsOfDesc(asOf))
+                .thenReturn(Optional.of(earlier));
+        when(snapshotRepository.findFirstByAsOfGreaterThanOrderByAsOfAsc(asOf))
+                .thenReturn(Optional.of(later));
+        when(mongoTemplate.stream(any(Query.class), eq(DealChangeLogEntry.class)))
+                .thenReturn(Stream.of(wonEntry));
+
+        // Act
+        PipelineAsOfResponse result = pipelineHistoryService.getPipelineAsOf(asOf);
+
+        // Assert
+        assertEquals(later.getAsOf(), result.getSnapshotAsOf());
+        assertEquals(2, result.getByStage().get(DealStage.LEAD.name()).getCount());
+        assertNull(result.getByStage().get(DealStage.WON.name()));
+    }
+
+    @Test
+    void getPipelineAsOf_beforeFirstSnapshot_shouldBeRejected() {
+        // Arrange
+        Instant asOf = snapshotAt.minus(Duration.ofDays(1));
+        when(snapshotRepository.findFirstByAsOfLessThanEqualOrderByAsOfDesc(asOf))
+                .thenReturn(Optional.empty());
+        when(snapshotRepository.findFirstByAsOfGreaterThanOrderByAsOfAsc(asOf))
+                .thenReturn(Optional.of(snapshot));
+
+        // Act + Assert
+        assertThrows(InvalidRequestException.class, () -> pipelineHistoryService.getPipelineAsOf(asOf));
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(DealChangeLogEntry.class));
+    }
+
+    @Test
+    void compact_firstRun_shouldLabelBaselineWithTheTimeDealsWereRead() {
+        // Arrange
+        Instant before = Instant.now();
+        Document group = new Document("_id", new Document("stage", "LEAD").append("sector", "7"))
+                .append("count", 2)
+                .append("totalValue", 300d);
+        when(snapshotRepository.findFirstByOrderByAsOfDesc()).thenReturn(Optional.empty());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Deal.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(group), new Document()));
+        when(sectorCatalog.nameOf("7")).thenReturn("Fin. Services");
+        when(snapshotRepository.save(any(PipelineSnapshot.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        PipelineSnapshot baseline = pipelineHistoryService.compact();
+
+        // Assert - not backdated by the settle window, so the next compaction replays nothing twice
+        assertFalse(baseline.getAsOf().isBefore(before));
+        assertEquals(2, baseline.getByStage().get(DealStage.LEAD.name()).getCount());
+        assertEquals(List.of(new PipelineSectorBucket("Fin. Services", 2, 300d, 30d)), baseline.getBySector());
+    }
+}
@@ -0,0 +1,243 @@
+package com.bank.pipeline.service;
+
+import com.bank.pipeline.model.Deal;
+import com.bank.pipeline.model.Sector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SectorCatalogServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DistributedLockService lockService;
+
+    private SectorCatalogServiceImpl sectorCatalog;
+
+    @BeforeEach
+    void setup() {
+        sectorCatalog = new SectorCatalogServiceImpl(mongoTemplate, lockService, Optional.empty());
+    }
+
+    @Test
+    void idFor_unknownName_shouldRegisterNextId() {
+        // Arrange
+        catalog(sector("9", "Energy", "energy"));
+
+        // Act
+        String id = sectorCatalog.idFor("  Health   Care ");
+
+        // Assert
+        ArgumentCaptor<Sector> captor = ArgumentCaptor.forClass(Sector.class);
+        verify(mongoTemplate).insert(captor.capture());
+        assertEquals("a", id);
+        assertEquals("Health Care", captor.getValue().getName());
+        assertEquals(List.of("health care"), captor.getValue().getAliases());
+        assertEquals("Health Care", sectorCatalog.nameOf("a"));
+    }
+
+    @Test
+    void idFor_insideTransaction_shouldRegisterWithTransactionSuspended() {
+        // Arrange
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        sectorCatalog = new SectorCatalogServiceImpl(mongoTemplate, lockService, Optional.of(transactionManager));
+        catalog(sector("1", "Energy", "energy"));
+
+        // Act
+        String id = sectorCatalog.idFor("Mining");
+
+        // Assert
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_NOT_SUPPORTED, definition.getValue().getPropagationBehavior());
+        verify(mongoTemplate).insert(any(Sector.class));
+        assertEquals("2", id);
+    }
+
+    @Test
+    void idFor_aliasOrCaseVariant_shouldResolveWithoutRegistering() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology", "tech"));
+
+        // Act + Assert
+        assertEquals("1", sectorCatalog.idFor("TECH"));
+        assertEquals("1", sectorCatalog.idFor(" technology "));
+        assertNull(sectorCatalog.idFor("  "));
+        verify(mongoTemplate, never()).insert(any(Sector.class));
+    }
+
+    @Test
+    void resolve_shouldIgnoreAccentsIncludingOnOlderAliases() {
+        // Arrange - "santé" was stored before keys were accent-folded
+        catalog(sector("1", "Santé", "santé"));
+
+        // Act + Assert
+        assertEquals("1", sectorCatalog.resolve("SANTE").map(Sector::getId).orElse(null));
+        assertEquals("1", sectorCatalog.resolve("Santé").map(Sector::getId).orElse(null));
+        assertEquals(List.of("1"), sectorCatalog.findIdsContaining("ANT"));
+    }
+
+    @Test
+    void canonicalName_shouldMapAliasesAndLeaveUnknownNames() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology", "tech"));
+
+        // Act + Assert
+        assertEquals("Technology", sectorCatalog.canonicalName(" TECH "));
+        assertEquals("Mining", sectorCatalog.canonicalName("Mining"));
+        assertNull(sectorCatalog.canonicalName(null));
+    }
+
+    @Test
+    void nameOf_shouldMapIdsAndLeaveLegacyNames() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology", "tech"));
+
+        // Act + Assert
+        assertEquals("Technology", sectorCatalog.nameOf("1"));
+        assertEquals("Technology", sectorCatalog.nameOf("Tech"));
+        assertEquals("Mining", sectorCatalog.nameOf("Mining"));
+        assertNull(sectorCatalog.nameOf(null));
+    }
+
+    @Test
+    void nameOf_idRegisteredOnAnotherReplica_shouldLoadItOnce() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology"));
+        when(mongoTemplate.findById("b", Sector.class)).thenReturn(sector("b", "Fintech", "fintech"));
+
+        // Act + Assert
+        assertEquals("Fintech", sectorCatalog.nameOf("b"));
+        assertEquals("Fintech", sectorCatalog.nameOf("b"));
+        assertEquals("b", sectorCatalog.idFor("FinTech"));
+        verify(mongoTemplate, times(1)).findById("b", Sector.class);
+    }
+
+    @Test
+    void nameOf_unknownValue_shouldRememberTheMiss() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology"));
+
+        // Act + Assert
+        assertEquals("Mining", sectorCatalog.nameOf("Mining"));
+        assertEquals("Mining", sectorCatalog.nameOf("Mining"));
+        verify(mongoTemplate, times(1)).findById("Mining", Sector.class);
+    }
+
+    @Test
+    void findIdsContaining_shouldMatchNamesAndAliases() {
+        // Arrange
+        catalog(
+                sector("1", "Technology", "technology", "tech"),
+                sector("2", "Fintech", "fintech"),
+                sector("3", "Energy", "energy"));
+
+        // Act
+        List<String> ids = sectorCatalog.findIdsContaining("TECH");
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of("1", "2")));
+        assertTrue(sectorCatalog.findIdsContaining(" ").isEmpty());
+    }
+
+    @Test
+    void addAlias_ownedByAnotherSector_shouldMergeAndRepointDeals() {
+        // Arrange
+        Sector tech = sector("1", "Technology", "technology");
+        Sector it = sector("2", "IT", "it");
+        catalog(tech, it);
+
+        // Act
+        Sector merged = sectorCatalog.addAlias("1", "IT");
+
+        // Assert
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(Update.update("sector", "1")), eq(Deal.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(Update.update("sector", "1")),
+                eq(DealArchiveService.ARCHIVE_COLLECTION));
+        verify(mongoTemplate).remove(it);
+        verify(mongoTemplate).save(merged);
+        assertEquals("1", merged.getId());
+        assertEquals(List.of("technology", "it"), merged.getAliases());
+        // The cached entry is replaced, not mutated
+        assertEquals(List.of("technology"), tech.getAliases());
+    }
+
+    @Test
+    void addAlias_blankAlias_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> sectorCatalog.addAlias("1", " "));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void start_shouldRepointRawNamesToIds() {
+        // Arrange
+        catalog(sector("1", "Technology", "technology"));
+        when(lockService.tryAcquire(eq("sector-migration"), any(Duration.class))).thenReturn(true);
+        when(mongoTemplate.getCollectionName(Deal.class)).thenReturn("deals");
+        when(mongoTemplate.findDistinct(any(Query.class), eq("sector"), eq("deals"), eq(String.class)))
+                .thenReturn(List.of("1", "Technology"));
+        when(mongoTemplate.findDistinct(any(Query.class), eq("sector"), eq(DealArchiveService.ARCHIVE_COLLECTION),
+                eq(String.class))).thenReturn(List.of());
+
+        // Act
+        sectorCatalog.start();
+
+        // Assert - only the raw name is rewritten
+        verify(mongoTemplate).updateMulti(any(Query.class), eq(Update.update("sector", "1")), eq("deals"));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class),
+                eq(DealArchiveService.ARCHIVE_COLLECTION));
+        verify(lockService).release("sector-migration");
+    }
+
+    @Test
+    void start_whenLockHeld_shouldSkipMigration() {
+        // Arrange
+        catalog();
+        when(lockService.tryAcquire(eq("sector-migration"), any(Duration.class))).thenReturn(false);
+
+        // Act
+        sectorCatalog.start();
+
+        // Assert
+        verify(mongoTemplate, never()).findDistinct(any(Query.class), anyString(), anyString(), eq(String.class));
+        verify(lockService, never()).release(anyString());
+    }
+
+    private void catalog(Sector... sectors) {
+        when(mongoTemplate.findAll(Sector.class)).thenReturn(List.of(sectors));
+        sectorCatalog.reload();
+    }
+
+    private static Sector sector(String id, String name, String... aliases) {
+        return Sector.builder()
+                .id(id)
+                .name(name)
+                .aliases(new ArrayList<>(List.of(aliases)))
+                .updatedAt(Instant.now())
+                .build();
+    }
+}
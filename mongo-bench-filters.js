@@ -0,0 +1,111 @@
+// Case-insensitive filter benchmark: regex vs collation index vs sector catalog id
+//
+//   docker compose exec -T mongodb mongosh -u admin -p password123 --quiet < mongo-bench-filters.js
+//
+// Seeds BENCH_DEALS synthetic deals (default 1,000,000) into a scratch database,
+// then for each filter prints the plan stage, keys/docs examined and the median
+// time of a first page (limit 20) and of the matching count. Drop the database
+// afterwards with: db.getSiblingDB('deal_pipeline_bench').dropDatabase()
+db = db.getSiblingDB('deal_pipeline_bench');
+
+const DEALS = Number(process.env.BENCH_DEALS || 1000000);
+const RUNS = Number(process.env.BENCH_RUNS || 7);
+const BATCH = 10000;
+
+// Same collation as DealService.TITLE_COLLATION
+const CI = { locale: 'en', strength: 1 };
+
+const SECTORS = ['Healthcare', 'Technology', 'Energy', 'Financial Services', 'Real Estate',
+  'Consumer', 'Industrials', 'Telecom', 'Santé', 'Materials'];
+const WORDS = ['Acme', 'acme', 'ÀCME', 'Global', 'Nordic', 'Pacific', 'Café', 'Orion', 'Summit',
+  'Vertex', 'Harbor', 'Atlas', 'Zenith', 'Énergie', 'Blue', 'River', 'Granite', 'Nova'];
+const KINDS = ['IPO', 'Refinancing', 'Merger', 'Buyout', 'Bond Issue', 'Spin-off'];
+
+function pick(values, i) {
+  return values[i % values.length];
+}
+
+function seed() {
+  db.deals.drop();
+  print(`Seeding ${DEALS} deals...`);
+  for (let start = 0; start < DEALS; start += BATCH) {
+    const docs = [];
+    for (let i = start; i < Math.min(start + BATCH, DEALS); i++) {
+      const sector = (i * 7) % SECTORS.length;
+      docs.push({
+        title: `${pick(WORDS, i * 31 + 7)} ${pick(WORDS, i * 13 + 3)} ${pick(KINDS, i)} ${i}`,
+        sector: (sector + 1).toString(36),                        // catalog id, as stored now
+        legacySector: i % 2 ? SECTORS[sector].toLowerCase() : SECTORS[sector], // raw name, mixed case
+        stage: pick(['LEAD', 'QUALIFIED', 'PROPOSAL', 'WON', 'LOST'], i),
+        updatedAt: new Date(Date.UTC(2026, 0, 1) + (i % 86400) * 1000)
+      });
+    }
+    db.deals.insertMany(docs, { ordered: false });
+  }
+
+  db.deals.createIndex({ sector: 1 }, { name: 'bench_sector_idx' });
+  db.deals.createIndex({ legacySector: 1 }, { name: 'bench_legacy_sector_idx' });
+  db.deals.createIndex({ legacySector: 1 }, { name: 'bench_legacy_sector_ci_idx', collation: CI });
+  db.deals.createIndex({ title: 1 }, { name: 'bench_title_idx' });
+  db.deals.createIndex({ title: 1 }, { name: 'deal_title_ci_idx', collation: CI });
+}
+
+function median(values) {
+  const sorted = values.slice().sort((a, b) => a - b);
+  return sorted[Math.floor(sorted.length / 2)];
+}
+
+function timed(fn) {
+  const times = [];
+  for (let r = 0; r < RUNS; r++) {
+    const start = Date.now();
+    fn();
+    times.push(Date.now() - start);
+  }
+  return median(times);
+}
+
+function winningStages(plan) {
+  const stages = [];
+  for (let stage = plan; stage; stage = stage.inputStage) {
+    stages.push(stage.indexName ? `${stage.stage}(${stage.indexName})` : stage.stage);
+  }
+  return stages.join(' <- ');
+}
+
+function bench(label, filter, collation) {
+  const find = () => {
+    const cursor = db.deals.find(filter).limit(20);
+    return collation ? cursor.collation(collation) : cursor;
+  };
+  const count = () => db.deals.countDocuments(filter, collation ? { collation } : {});
+
+  const stats = find().limit(0).explain('executionStats');
+  const exec = stats.executionStats;
+  print(`\n${label}`);
+  print(`  filter     ${JSON.stringify(filter)}${collation ? ' collation ' + JSON.stringify(collation) : ''}`);
+  print(`  plan       ${winningStages(stats.queryPlanner.winningPlan)}`);
+  print(`  matched    ${exec.nReturned}   keys examined ${exec.totalKeysExamined}   docs examined ${exec.totalDocsExamined}`);
+  print(`  first page ${timed(() => find().toArray())} ms   count ${timed(count)} ms   (median of ${RUNS})`);
+}
+
+if (db.deals.estimatedDocumentCount() !== DEALS || process.env.BENCH_RESEED) {
+  seed();
+}
+
+print('\n== Sector: ?sector=healthcare ==');
+bench('regex on raw names (case-insensitive)', { legacySector: /^healthcare$/i });
+bench('collation index on raw names', { legacySector: 'healthcare' }, CI);
+bench('catalog id (what the service queries now)', { sector: '1' });
+
+print('\n== Accents: ?sector=sante ==');
+bench('regex on raw names (misses "Santé")', { legacySector: /^sante$/i });
+bench('collation index on raw names', { legacySector: 'sante' }, CI);
+
+print('\n== Title prefix: ?title=acme ==');
+bench('anchored case-insensitive regex', { title: /^acme/i });
+bench('collation range (DealService#getDealsByTitle)', { title: { $gte: 'acme', $lt: 'acme\uFFFF' } }, CI);
+
+print('\n== Title prefix with accents: ?title=cafe ==');
+bench('anchored case-insensitive regex (misses "Café")', { title: /^cafe/i });
+bench('collation range', { title: { $gte: 'cafe', $lt: 'cafe\uFFFF' } }, CI);